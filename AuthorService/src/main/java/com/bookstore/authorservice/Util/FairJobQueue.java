@@ -0,0 +1,57 @@
+package com.bookstore.authorservice.Util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+// round-robin across keys, so one busy publisher cannot starve the others; FIFO within a key
+public class FairJobQueue<T> {
+
+    private final int capacity;
+
+    private final Map<String, Deque<T>> queues = new HashMap<>();
+
+    private final Deque<String> ready = new ArrayDeque<>();
+
+    private int size;
+
+    public FairJobQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized boolean offer(String key, T job) {
+        if (size >= capacity) {
+            return false;
+        }
+        Deque<T> queue = queues.get(key);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues.put(key, queue);
+            ready.addLast(key);
+        }
+        queue.addLast(job);
+        size++;
+        return true;
+    }
+
+    public synchronized T poll() {
+        String key = ready.pollFirst();
+        if (key == null) {
+            return null;
+        }
+        Deque<T> queue = queues.get(key);
+        T job = queue.pollFirst();
+        if (queue.isEmpty()) {
+            queues.remove(key);
+        } else {
+            ready.addLast(key);
+        }
+        size--;
+        return job;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -1,8 +1,11 @@
 package com.bookstore.authorservice.Util;
 
+import com.bookstore.authorservice.exception.ConcurrentUpdateException;
+import com.bookstore.authorservice.exception.JobQueueFullException;
 import com.bookstore.authorservice.exception.RecordAlreadyExistException;
 import com.bookstore.authorservice.exception.RecordNotFoundException;
 import com.bookstore.bookstorestarter.Util.IDataResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -25,6 +28,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<IDataResponse<?>> handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        IDataResponse<?> response = new IDataResponse<>(HttpStatus.CONFLICT, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<IDataResponse<?>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        IDataResponse<?> response = new IDataResponse<>(HttpStatus.CONFLICT, "Record was modified concurrently, please retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<IDataResponse<?>> handleJobQueueFullException(JobQueueFullException ex) {
+        IDataResponse<?> response = new IDataResponse<>(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<IDataResponse<?>> handleIllegalArgumentException(IllegalArgumentException ex) {
         IDataResponse<?> response = new IDataResponse<>(HttpStatus.BAD_REQUEST, ex.getMessage());
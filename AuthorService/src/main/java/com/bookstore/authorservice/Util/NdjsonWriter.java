@@ -0,0 +1,42 @@
+package com.bookstore.authorservice.Util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonWriter implements Closeable {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final JsonGenerator generator;
+
+    private final ObjectWriter writer;
+
+    private int unflushed;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void write(Object value) throws IOException {
+        writer.writeValue(generator, value);
+        generator.writeRaw('\n');
+        if (++unflushed == FLUSH_INTERVAL) {
+            generator.flush();
+            unflushed = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,13 @@
+package com.bookstore.authorservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String AUTHORS_CACHE = "authors";
+
+    public static final String BOOKS_CACHE = "books";
+}
@@ -1,30 +1,46 @@
 package com.bookstore.authorservice.config;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.kafka.core.DefaultKafkaProducerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(KafkaProducerProperties.class)
 public class KafkaProducerConfig {
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+    public TopicTemplates topicTemplates(KafkaProperties kafkaProperties, KafkaProducerProperties producerProperties) {
+        Map<String, Object> base = kafkaProperties.buildProducerProperties(null);
+        return TopicTemplates.build(producerProperties, profile -> producerConfig(base, profile));
     }
 
-    @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    static Map<String, Object> producerConfig(Map<String, Object> base, KafkaProducerProperties.Profile profile) {
+        Map<String, Object> configProps = new HashMap<>(base);
+        configProps.putIfAbsent(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        if (profile.getBatchSize() != null) {
+            configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, profile.getBatchSize());
+        }
+        if (profile.getLinger() != null) {
+            configProps.put(ProducerConfig.LINGER_MS_CONFIG, (int) profile.getLinger().toMillis());
+        }
+        if (profile.getCompression() != null) {
+            configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.getCompression());
+        }
+        if (profile.getIdempotence() != null) {
+            configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, profile.getIdempotence());
+        }
+        if (profile.getAcks() != null) {
+            configProps.put(ProducerConfig.ACKS_CONFIG, profile.getAcks());
+        }
+        return configProps;
     }
 }
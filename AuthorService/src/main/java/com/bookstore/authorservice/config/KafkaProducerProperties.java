@@ -0,0 +1,49 @@
+package com.bookstore.authorservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "bookstore.kafka.producer")
+public class KafkaProducerProperties {
+
+    private Profile defaults = new Profile();
+
+    // keyed by topic name; unset fields fall back to the defaults
+    private Map<String, Profile> topics = new HashMap<>();
+
+    public Profile profileFor(String topic) {
+        Profile override = topics.get(topic);
+        return override == null ? defaults : defaults.merge(override);
+    }
+
+    @Data
+    public static class Profile {
+        private Integer batchSize;
+        private Duration linger;
+        private String compression;
+        private Boolean idempotence;
+        private String acks;
+        // an unkeyed topic drops the record key so the sticky partitioner can fill whole batches
+        private Boolean keyed;
+
+        Profile merge(Profile override) {
+            Profile merged = new Profile();
+            merged.setBatchSize(override.getBatchSize() != null ? override.getBatchSize() : batchSize);
+            merged.setLinger(override.getLinger() != null ? override.getLinger() : linger);
+            merged.setCompression(override.getCompression() != null ? override.getCompression() : compression);
+            merged.setIdempotence(override.getIdempotence() != null ? override.getIdempotence() : idempotence);
+            merged.setAcks(override.getAcks() != null ? override.getAcks() : acks);
+            merged.setKeyed(override.getKeyed() != null ? override.getKeyed() : keyed);
+            return merged;
+        }
+
+        public boolean isKeyed() {
+            return keyed == null || keyed;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.bookstore.authorservice.config;
+
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.bookstore.bookstorestarter.config.KafkaTopics.AUTHORS_CREATED;
+import static com.bookstore.bookstorestarter.config.KafkaTopics.AUTHOR_CHANGED;
+import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOKS_CREATED;
+import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOK_CHANGED;
+
+@Component
+public class MessageConsumer {
+
+    // every replica joins its own group so each one sees every change
+    private static final String REPLICA_GROUP_ID = "author-service-#{@replicaIdentity.id}";
+
+    private final CatalogCacheService catalogCacheService;
+
+    private final BookSearchService bookSearchService;
+
+    private final AutocompleteService autocompleteService;
+
+    private final BookFacetService bookFacetService;
+
+    private final ReplicaIdentity replicaIdentity;
+
+    Logger logger = LoggerFactory.getLogger(MessageConsumer.class);
+
+    public MessageConsumer(CatalogCacheService catalogCacheService, BookSearchService bookSearchService,
+                           AutocompleteService autocompleteService, BookFacetService bookFacetService,
+                           ReplicaIdentity replicaIdentity) {
+        this.catalogCacheService = catalogCacheService;
+        this.bookSearchService = bookSearchService;
+        this.autocompleteService = autocompleteService;
+        this.bookFacetService = bookFacetService;
+        this.replicaIdentity = replicaIdentity;
+    }
+
+    @KafkaListener(topics = AUTHOR_CHANGED, groupId = REPLICA_GROUP_ID)
+    public void listenToAuthorChanged(ConsumerRecord<String, String> record) {
+        String message = record.value();
+        // the sending replica already applied the change before publishing it
+        if (replicaIdentity.isOwn(record.headers())) {
+            return;
+        }
+        logger.info("Message received for author changed: {}", message);
+        try {
+            Long authorId = Long.valueOf(message);
+            catalogCacheService.evictAuthor(authorId);
+            bookSearchService.reindexAuthorBooks(authorId);
+            autocompleteService.reindexAuthor(authorId);
+        } catch (NumberFormatException e) {
+            logger.error("Failed to process author changed event: {}", e.getMessage(), e);
+        }
+    }
+
+    @KafkaListener(topics = BOOK_CHANGED, groupId = REPLICA_GROUP_ID)
+    public void listenToBookChanged(ConsumerRecord<String, String> record) {
+        String message = record.value();
+        if (replicaIdentity.isOwn(record.headers())) {
+            return;
+        }
+        logger.info("Message received for book changed: {}", message);
+        try {
+            Long bookId = Long.valueOf(message);
+            catalogCacheService.evictBook(bookId);
+            bookSearchService.reindex(bookId);
+            autocompleteService.reindexBook(bookId);
+            bookFacetService.refresh();
+        } catch (NumberFormatException e) {
+            logger.error("Failed to process book changed event: {}", e.getMessage(), e);
+        }
+    }
+
+    // new rows were never cached, so the other replicas only add them to their indexes
+    @KafkaListener(topics = AUTHORS_CREATED, groupId = REPLICA_GROUP_ID)
+    public void listenToAuthorsCreated(ConsumerRecord<String, String> record) {
+        if (replicaIdentity.isOwn(record.headers())) {
+            return;
+        }
+        try {
+            List<Long> authorIds = parseIds(record.value());
+            logger.info("Message received for {} authors created", authorIds.size());
+            autocompleteService.reindexAuthors(authorIds);
+        } catch (NumberFormatException e) {
+            logger.error("Failed to process authors created event: {}", e.getMessage(), e);
+        }
+    }
+
+    @KafkaListener(topics = BOOKS_CREATED, groupId = REPLICA_GROUP_ID)
+    public void listenToBooksCreated(ConsumerRecord<String, String> record) {
+        if (replicaIdentity.isOwn(record.headers())) {
+            return;
+        }
+        try {
+            List<Long> bookIds = parseIds(record.value());
+            logger.info("Message received for {} books created", bookIds.size());
+            bookSearchService.reindex(bookIds);
+            autocompleteService.reindexBooks(bookIds);
+            bookFacetService.refresh();
+        } catch (NumberFormatException e) {
+            logger.error("Failed to process books created event: {}", e.getMessage(), e);
+        }
+    }
+
+    private static List<Long> parseIds(String message) {
+        return Arrays.stream(message.split(",")).map(Long::valueOf).toList();
+    }
+}
@@ -1,17 +1,59 @@
 package com.bookstore.authorservice.config;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 @Component
 public class MessageProducer {
 
-    @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private final TopicTemplates topicTemplates;
+
+    private final ProducerMetrics producerMetrics;
+
+    public MessageProducer(TopicTemplates topicTemplates, ProducerMetrics producerMetrics) {
+        this.topicTemplates = topicTemplates;
+        this.producerMetrics = producerMetrics;
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String message) {
+        return sendMessage(topic, null, message);
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String key, String message) {
+        return sendMessage(topic, key, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String key, byte[] payload) {
+        TopicTemplates.Route route = topicTemplates.forTopic(topic);
+        return send(topic, () -> route.template().send(topic, route.keyed() ? key : null, payload));
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String key, String message,
+                                                                     Iterable<Header> headers) {
+        TopicTemplates.Route route = topicTemplates.forTopic(topic);
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, null, route.keyed() ? key : null,
+                message.getBytes(StandardCharsets.UTF_8), headers);
+        return send(topic, () -> route.template().send(record));
+    }
 
-    public void sendMessage(String topic, String message) {
-        kafkaTemplate.send(topic, message);
+    private CompletableFuture<SendResult<String, byte[]>> send(String topic,
+                                                             Supplier<CompletableFuture<SendResult<String, byte[]>>> sender) {
+        long startedAt = producerMetrics.sendStarted(topic);
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            // send blocks for up to max.block.ms once the producer buffer is full
+            future = sender.get();
+        } catch (RuntimeException e) {
+            producerMetrics.sendCompleted(topic, startedAt, e);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> producerMetrics.sendCompleted(topic, startedAt, error));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.bookstore.authorservice.config;
+
+import com.bookstore.authorservice.mapper.dtos.ProducerStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ProducerMetrics {
+
+    private final ConcurrentMap<String, TopicMetrics> topics = new ConcurrentHashMap<>();
+
+    public long sendStarted(String topic) {
+        metricsFor(topic).inFlight.increment();
+        return System.nanoTime();
+    }
+
+    public void sendCompleted(String topic, long startedAt, Throwable error) {
+        long latency = System.nanoTime() - startedAt;
+        TopicMetrics metrics = metricsFor(topic);
+        metrics.inFlight.decrement();
+        if (error == null) {
+            metrics.sent.increment();
+            metrics.totalLatency.add(latency);
+            metrics.maxLatency.accumulateAndGet(latency, Math::max);
+        } else {
+            metrics.failed.increment();
+        }
+    }
+
+    public List<ProducerStatsDTO> getStats() {
+        return topics.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(Comparator.comparing(ProducerStatsDTO::getTopic))
+                .toList();
+    }
+
+    private TopicMetrics metricsFor(String topic) {
+        return topics.computeIfAbsent(topic, key -> new TopicMetrics());
+    }
+
+    private static final class TopicMetrics {
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        ProducerStatsDTO toDTO(String topic) {
+            long sentCount = sent.sum();
+            double averageMillis = sentCount == 0 ? 0 : totalLatency.sum() / (double) sentCount / 1_000_000;
+            return new ProducerStatsDTO(topic, sentCount, failed.sum(), inFlight.sum(),
+                    averageMillis, maxLatency.get() / 1_000_000.0);
+        }
+    }
+}
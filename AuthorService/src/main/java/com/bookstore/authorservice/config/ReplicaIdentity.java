@@ -0,0 +1,50 @@
+package com.bookstore.authorservice.config;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// names this running instance on the change topics, so it can skip the changes it already applied itself;
+// the name survives restarts, so each instance keeps reusing one consumer group instead of leaving orphans behind
+@Component
+public class ReplicaIdentity {
+
+    public static final String ORIGIN_HEADER = "bookstore-origin";
+
+    private final String id;
+
+    private final byte[] idBytes;
+
+    public ReplicaIdentity(@Value("${bookstore.replica-id:${HOSTNAME:}}") String id) {
+        this.id = id == null || id.isBlank() ? localHostName() : id;
+        this.idBytes = this.id.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Header originHeader() {
+        return new RecordHeader(ORIGIN_HEADER, idBytes);
+    }
+
+    public boolean isOwn(Headers headers) {
+        Header origin = headers.lastHeader(ORIGIN_HEADER);
+        return origin != null && Arrays.equals(idBytes, origin.value());
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve the host name, set bookstore.replica-id", e);
+        }
+    }
+}
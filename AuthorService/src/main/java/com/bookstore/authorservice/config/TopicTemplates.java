@@ -0,0 +1,61 @@
+package com.bookstore.authorservice.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// one producer per distinct profile, because batching, linger and compression are producer-wide settings
+public class TopicTemplates implements DisposableBean {
+
+    private final Route defaultRoute;
+
+    private final Map<String, Route> routes;
+
+    private final List<DefaultKafkaProducerFactory<String, byte[]>> factories;
+
+    TopicTemplates(Route defaultRoute, Map<String, Route> routes,
+                   List<DefaultKafkaProducerFactory<String, byte[]>> factories) {
+        this.defaultRoute = defaultRoute;
+        this.routes = Map.copyOf(routes);
+        this.factories = List.copyOf(factories);
+    }
+
+    public Route forTopic(String topic) {
+        return routes.getOrDefault(topic, defaultRoute);
+    }
+
+    static TopicTemplates build(KafkaProducerProperties properties,
+                                Function<KafkaProducerProperties.Profile, Map<String, Object>> configFor) {
+        Map<Map<String, Object>, KafkaTemplate<String, byte[]>> templates = new HashMap<>();
+        List<DefaultKafkaProducerFactory<String, byte[]>> factories = new ArrayList<>();
+        Function<KafkaProducerProperties.Profile, Route> routeFor = profile -> {
+            KafkaTemplate<String, byte[]> template = templates.computeIfAbsent(configFor.apply(profile), config -> {
+                DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(config);
+                factories.add(factory);
+                return new KafkaTemplate<>(factory);
+            });
+            return new Route(template, profile.isKeyed());
+        };
+
+        Route defaultRoute = routeFor.apply(properties.getDefaults());
+        Map<String, Route> routes = new HashMap<>();
+        for (String topic : properties.getTopics().keySet()) {
+            routes.put(topic, routeFor.apply(properties.profileFor(topic)));
+        }
+        return new TopicTemplates(defaultRoute, routes, factories);
+    }
+
+    @Override
+    public void destroy() {
+        factories.forEach(DefaultKafkaProducerFactory::destroy);
+    }
+
+    public record Route(KafkaTemplate<String, byte[]> template, boolean keyed) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookstore.authorservice.controller;
 
+import com.bookstore.authorservice.mapper.dtos.AuthorBatchDTO;
 import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
 import com.bookstore.authorservice.service.AuthorService;
 import com.bookstore.bookstorestarter.Util.IDataResponse;
@@ -7,6 +8,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,7 +17,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -43,6 +49,17 @@ public class AuthorController {
         return response;
     }
 
+    @PostMapping(value = "bulk")
+    @Operation(summary = "Create authors in bulk", description = "Add up to 5000 authors in a single transaction")
+    public IDataResponse<AuthorDTO> createAuthors(@RequestBody List<AuthorDTO> authorDTOs) {
+        logger.info("Creating {} authors", authorDTOs.size());
+        IDataResponse<AuthorDTO> response = new IDataResponse<>();
+        response.setData(authorService.createAuthors(authorDTOs));
+        response.setValid(true);
+        response.setMessage("Authors created successfully");
+        return response;
+    }
+
     @PutMapping(value = "{authorId}")
     @Operation(summary = "Update a author", description = "Update an existing author's details")
     public IDataResponse<AuthorDTO> updateAuthor(@RequestBody AuthorDTO authorDTO
@@ -57,21 +74,38 @@ public class AuthorController {
 
     @GetMapping(value = "{authorId}")
     @Operation(summary = "Get author by ID", description = "Retrieve a author's details using their ID")
-    public IDataResponse<AuthorDTO> getAuthorById(@PathVariable Long authorId) {
+    public IDataResponse<AuthorDTO> getAuthorById(@PathVariable Long authorId, WebRequest webRequest) {
         logger.info("Getting author details {}", authorId);
+        AuthorDTO author = authorService.getAuthorById(authorId);
+        String eTag = authorService.getAuthorETag(author);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         IDataResponse<AuthorDTO> response = new IDataResponse<>();
-        response.setData(List.of(authorService.getAuthorById(authorId)));
+        response.setData(List.of(author));
         response.setValid(true);
         response.setMessage("Author retrieved successfully");
         return response;
     }
 
+    @PostMapping(value = "batch")
+    @Operation(summary = "Get authors by IDs", description = "Retrieve several authors in request order and report the IDs that were not found")
+    public IDataResponse<AuthorBatchDTO> getAuthorsByIds(@RequestBody List<Long> authorIds) {
+        logger.info("Getting authors details for {} ids", authorIds.size());
+        IDataResponse<AuthorBatchDTO> response = new IDataResponse<>();
+        response.setData(List.of(authorService.getAuthorsByIds(authorIds)));
+        response.setValid(true);
+        response.setMessage("Authors retrieved successfully");
+        return response;
+    }
+
     @GetMapping()
     @Operation(summary = "Get all active authors", description = "Retrieve a list of all authors in the system")
-    public IDataResponse<AuthorDTO> getAuthors() {
+    public IDataResponse<AuthorDTO> getAuthors(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
         logger.info("Getting authors details");
         IDataResponse<AuthorDTO> response = new IDataResponse<>();
-        response.setData(authorService.getAllAuthors());
+        response.setPage(authorService.getAllAuthors(cursor, limit));
         response.setValid(true);
         response.setMessage("Authors retrieved successfully");
         return response;
@@ -87,4 +121,14 @@ public class AuthorController {
         response.setMessage("Author deleted successfully");
         return response;
     }
+
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all active authors", description = "Stream every active author as newline delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportAuthors() {
+        logger.info("Exporting authors");
+        StreamingResponseBody body = authorService::exportAuthors;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
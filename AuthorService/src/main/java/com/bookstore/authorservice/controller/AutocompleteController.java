@@ -0,0 +1,36 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.mapper.dtos.SuggestionDTO;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.bookstorestarter.Util.IDataResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(AutocompleteController.BASE_URL)
+@Tag(name = "Autocomplete", description = "Typeahead suggestions for author names and book titles")
+public class AutocompleteController {
+    public static final String BASE_URL = "/api/autocomplete";
+
+    private final AutocompleteService autocompleteService;
+
+    public AutocompleteController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    // called on every keystroke, so no per-request logging
+    @GetMapping
+    @Operation(summary = "Autocomplete", description = "Return author names and book titles with a word starting with the prefix")
+    public IDataResponse<SuggestionDTO> suggest(@RequestParam("q") String prefix,
+                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        IDataResponse<SuggestionDTO> response = new IDataResponse<>();
+        response.setData(autocompleteService.suggest(prefix, limit));
+        response.setValid(true);
+        response.setMessage("Suggestions retrieved successfully");
+        return response;
+    }
+}
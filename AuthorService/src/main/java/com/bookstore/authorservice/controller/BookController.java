@@ -1,22 +1,34 @@
 package com.bookstore.authorservice.controller;
 
 import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.dtos.BookFacetsDTO;
+import com.bookstore.authorservice.mapper.dtos.PublishJobDTO;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
 import com.bookstore.authorservice.service.BookService;
+import com.bookstore.authorservice.service.PublishJobService;
 import com.bookstore.bookstorestarter.Util.IDataResponse;
 import com.bookstore.bookstorestarter.dtos.PublishDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -27,10 +39,20 @@ public class BookController {
 
     private final BookService bookService;
 
+    private final BookSearchService bookSearchService;
+
+    private final BookFacetService bookFacetService;
+
+    private final PublishJobService publishJobService;
+
     Logger logger = LoggerFactory.getLogger(BookController.class);
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookSearchService bookSearchService,
+                          BookFacetService bookFacetService, PublishJobService publishJobService) {
         this.bookService = bookService;
+        this.bookSearchService = bookSearchService;
+        this.bookFacetService = bookFacetService;
+        this.publishJobService = publishJobService;
     }
 
     @PostMapping
@@ -44,6 +66,17 @@ public class BookController {
         return response;
     }
 
+    @PostMapping(value = "bulk")
+    @Operation(summary = "Create books in bulk", description = "Add up to 5000 books in a single transaction")
+    public IDataResponse<BookDTO> createBooks(@RequestBody List<BookDTO> bookDTOs) {
+        logger.info("Creating {} books", bookDTOs.size());
+        IDataResponse<BookDTO> response = new IDataResponse<>();
+        response.setData(bookService.createBooks(bookDTOs));
+        response.setValid(true);
+        response.setMessage("Books created successfully");
+        return response;
+    }
+
     @PutMapping(value = "{bookId}")
     @Operation(summary = "Update a book", description = "Update an existing book's details")
     public IDataResponse<BookDTO> updateBook(@RequestBody BookDTO bookDTO, @PathVariable Long bookId) {
@@ -55,12 +88,40 @@ public class BookController {
         return response;
     }
 
+    @GetMapping(value = "search")
+    @Operation(summary = "Search books", description = "Full-text search over book titles, synopses and author names ranked by relevance")
+    public IDataResponse<BookDTO> searchBooks(@RequestParam String q,
+                                             @RequestParam(required = false) Integer limit) {
+        logger.info("Searching books for {}", q);
+        IDataResponse<BookDTO> response = new IDataResponse<>();
+        response.setData(bookSearchService.search(q, limit));
+        response.setValid(true);
+        response.setMessage("Books retrieved successfully");
+        return response;
+    }
+
+    @GetMapping(value = "facets")
+    @Operation(summary = "Get book facets", description = "Retrieve the number of enabled books per genre and per status")
+    public IDataResponse<BookFacetsDTO> getBookFacets() {
+        logger.info("Getting book facets");
+        IDataResponse<BookFacetsDTO> response = new IDataResponse<>();
+        response.setData(List.of(bookFacetService.getFacets()));
+        response.setValid(true);
+        response.setMessage("Book facets retrieved successfully");
+        return response;
+    }
+
     @GetMapping(value = "{bookId}")
     @Operation(summary = "Get book by ID", description = "Retrieve a book's details using their ID")
-    public IDataResponse<BookDTO> getBook(@PathVariable Long bookId) {
+    public IDataResponse<BookDTO> getBook(@PathVariable Long bookId, WebRequest webRequest) {
         logger.info("Retrieving book details for bookId {}", bookId);
+        BookDTO book = bookService.getBookById(bookId);
+        String eTag = bookService.getBookETag(book);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         IDataResponse<BookDTO> response = new IDataResponse<>();
-        response.setData(List.of(bookService.getBookById(bookId)));
+        response.setData(List.of(book));
         response.setValid(true);
         response.setMessage("Book retrieved successfully");
         return response;
@@ -68,10 +129,12 @@ public class BookController {
 
     @PostMapping(value = "all")
     @Operation(summary = "Get all books", description = "Retrieve a list of all books in the system")
-    public IDataResponse<BookDTO> getBooks(@RequestBody List<Long> authorIds) {
+    public IDataResponse<BookDTO> getBooks(@RequestBody List<Long> authorIds,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
         logger.info("Retrieving book details");
         IDataResponse<BookDTO> response = new IDataResponse<>();
-        response.setData(bookService.getAllBooks(authorIds));
+        response.setPage(bookService.getAllBooks(authorIds, cursor, limit));
         response.setValid(true);
         response.setMessage("Books retrieved successfully");
         return response;
@@ -88,6 +151,33 @@ public class BookController {
         return response;
     }
 
+    @PostMapping(value = "publish", params = "async=true")
+    @Operation(summary = "Queue a book publish", description = "Accept a publish job and run it in the background")
+    public ResponseEntity<IDataResponse<PublishJobDTO>> submitPublishJob(
+            @RequestBody PublishDto<BookDTO> publishDto,
+            @RequestHeader(value = "X-Publisher-Id", required = false) String publisher) {
+        logger.info("Queueing publish job");
+        PublishJobDTO job = publishJobService.submit(publishDto, publisher);
+        IDataResponse<PublishJobDTO> response = new IDataResponse<>();
+        response.setData(List.of(job));
+        response.setValid(true);
+        response.setMessage("Publish job accepted");
+        return ResponseEntity.accepted()
+                .location(URI.create(BASE_URL + "/publish-jobs/" + job.getId()))
+                .body(response);
+    }
+
+    @GetMapping(value = "publish-jobs/{jobId}")
+    @Operation(summary = "Get a publish job", description = "Retrieve the status of a queued publish job")
+    public IDataResponse<PublishJobDTO> getPublishJob(@PathVariable String jobId) {
+        logger.info("getting publish job {}", jobId);
+        IDataResponse<PublishJobDTO> response = new IDataResponse<>();
+        response.setData(List.of(publishJobService.getJob(jobId)));
+        response.setValid(true);
+        response.setMessage("Publish job retrieved successfully");
+        return response;
+    }
+
     @DeleteMapping(value = "{bookId}")
     @Operation(summary = "Delete a book", description = "Delete a book from the system using their ID")
     public IDataResponse<BookDTO> deleteBook(@PathVariable Long bookId) {
@@ -98,4 +188,14 @@ public class BookController {
         response.setMessage("Book deleted successfully");
         return response;
     }
+
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all active books", description = "Stream every active book as newline delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        logger.info("Exporting books");
+        StreamingResponseBody body = bookService::exportBooks;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,38 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.mapper.dtos.CacheStatsDTO;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.bookstorestarter.Util.IDataResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(CacheController.BASE_URL)
+@Tag(name = "Cache Management", description = "APIs for inspecting the author and book caches")
+public class CacheController {
+    public static final String BASE_URL = "/api/cache";
+
+    private final CatalogCacheService catalogCacheService;
+
+    Logger logger = LoggerFactory.getLogger(CacheController.class);
+
+    public CacheController(CatalogCacheService catalogCacheService) {
+        this.catalogCacheService = catalogCacheService;
+    }
+
+    @GetMapping(value = "stats")
+    @Operation(summary = "Get cache statistics", description = "Retrieve size, hit, miss and eviction counts for each cache")
+    public IDataResponse<CacheStatsDTO> getCacheStats() {
+        logger.info("Getting cache statistics");
+        IDataResponse<CacheStatsDTO> response = new IDataResponse<>();
+        response.setData(catalogCacheService.getCacheStats());
+        response.setValid(true);
+        response.setMessage("Cache statistics retrieved successfully");
+        return response;
+    }
+}
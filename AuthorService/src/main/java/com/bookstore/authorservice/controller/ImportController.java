@@ -0,0 +1,64 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.importer.ImportFormat;
+import com.bookstore.authorservice.mapper.dtos.ImportReportDTO;
+import com.bookstore.authorservice.service.ImportService;
+import com.bookstore.bookstorestarter.Util.IDataResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping(ImportController.BASE_URL)
+@Tag(name = "Catalog Import", description = "APIs for importing authors and books from files")
+public class ImportController {
+    public static final String BASE_URL = "/api/imports";
+
+    public static final String CSV = "text/csv";
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final ImportService importService;
+
+    Logger logger = LoggerFactory.getLogger(ImportController.class);
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(value = "authors", consumes = {CSV, NDJSON})
+    @Operation(summary = "Import authors", description = "Stream authors from a CSV or NDJSON body and report every rejected row")
+    public IDataResponse<ImportReportDTO> importAuthors(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) throws IOException {
+        logger.info("Importing authors from {}", contentType);
+        ImportReportDTO report = importService.importAuthors(body, ImportFormat.fromContentType(contentType));
+        return toResponse(report);
+    }
+
+    @PostMapping(value = "books", consumes = {CSV, NDJSON})
+    @Operation(summary = "Import books", description = "Stream books from a CSV or NDJSON body and report every rejected row")
+    public IDataResponse<ImportReportDTO> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                      InputStream body) throws IOException {
+        logger.info("Importing books from {}", contentType);
+        ImportReportDTO report = importService.importBooks(body, ImportFormat.fromContentType(contentType));
+        return toResponse(report);
+    }
+
+    private IDataResponse<ImportReportDTO> toResponse(ImportReportDTO report) {
+        IDataResponse<ImportReportDTO> response = new IDataResponse<>();
+        response.setData(List.of(report));
+        response.setValid(true);
+        response.setMessage("Imported " + report.getImported() + " of " + report.getProcessed() + " " + report.getType());
+        return response;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.config.ProducerMetrics;
+import com.bookstore.authorservice.mapper.dtos.ProducerStatsDTO;
+import com.bookstore.bookstorestarter.Util.IDataResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(MessagingController.BASE_URL)
+@Tag(name = "Messaging", description = "APIs for inspecting Kafka producers")
+public class MessagingController {
+    public static final String BASE_URL = "/api/messaging";
+
+    private final ProducerMetrics producerMetrics;
+
+    Logger logger = LoggerFactory.getLogger(MessagingController.class);
+
+    public MessagingController(ProducerMetrics producerMetrics) {
+        this.producerMetrics = producerMetrics;
+    }
+
+    @GetMapping(value = "producer-stats")
+    @Operation(summary = "Get producer statistics", description = "Retrieve sent, failed, in-flight and latency figures for each topic")
+    public IDataResponse<ProducerStatsDTO> getProducerStats() {
+        logger.info("Getting producer statistics");
+        IDataResponse<ProducerStatsDTO> response = new IDataResponse<>();
+        response.setData(producerMetrics.getStats());
+        response.setValid(true);
+        response.setMessage("Producer statistics retrieved successfully");
+        return response;
+    }
+}
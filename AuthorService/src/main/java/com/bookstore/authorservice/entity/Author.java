@@ -4,6 +4,7 @@ import com.bookstore.authorservice.entity.core.FlagableAuditableEntity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
@@ -15,7 +16,8 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "Authors", uniqueConstraints = @UniqueConstraint(columnNames = "email"))
+@Table(name = "Authors", uniqueConstraints = @UniqueConstraint(columnNames = "email"),
+        indexes = @Index(name = "idx_authors_flag_id", columnList = "flag, id"))
 public class Author extends FlagableAuditableEntity {
     @NotBlank
     private String firstName;
@@ -1,28 +1,37 @@
 package com.bookstore.authorservice.entity;
 
 import com.bookstore.authorservice.entity.core.FlagableAuditableEntity;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.enums.Genre;
 import com.bookstore.bookstorestarter.enums.Status;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Table(name = "books")
+@Table(name = "books", indexes = @Index(name = "idx_books_flag_id", columnList = "flag, id"))
 @Entity
+@NamedEntityGraph(name = "Book.authors", attributeNodes = @NamedAttributeNode("authors"))
 public class Book extends FlagableAuditableEntity {
 
+    // one statement initialises the authors of a whole page of books
+    @BatchSize(size = CursorPage.MAX_LIMIT)
     @ManyToMany
     @JoinTable(
             name = "book_authors",
@@ -48,4 +57,9 @@ public class Book extends FlagableAuditableEntity {
     private String edition;
     private Integer totalCopies;
     private BigDecimal suggestedRetailPrice;
+
+    // the default lets ddl-auto add the column to existing rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 }
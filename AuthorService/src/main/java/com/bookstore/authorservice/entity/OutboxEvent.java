@@ -0,0 +1,42 @@
+package com.bookstore.authorservice.entity;
+
+import com.bookstore.authorservice.entity.core.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@Table(name = "outbox_events")
+@Entity
+public class OutboxEvent extends BaseEntity {
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // set while a relay is publishing the row, so others skip it without a lock being held
+    private LocalDateTime leasedUntil;
+
+    public OutboxEvent(String topic, String messageKey, byte[] payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.bookstore.authorservice.enums;
+
+public enum PublishJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.bookstore.authorservice.exception;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
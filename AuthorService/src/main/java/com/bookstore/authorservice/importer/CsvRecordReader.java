@@ -0,0 +1,120 @@
+package com.bookstore.authorservice.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// RFC 4180 rows keyed by the lower-cased header; quoted fields may span lines
+public class CsvRecordReader<T> implements RecordReader<T> {
+
+    private final BufferedReader reader;
+
+    private final Function<Map<String, String>, T> rowMapper;
+
+    private List<String> header;
+
+    private long lineNumber;
+
+    private boolean unterminated;
+
+    public CsvRecordReader(BufferedReader reader, Function<Map<String, String>, T> rowMapper) {
+        this.reader = reader;
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public ImportRecord<T> next() throws IOException {
+        if (header == null) {
+            List<String> columns = readFields();
+            if (columns == null) {
+                return null;
+            }
+            header = columns.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+        }
+
+        List<String> fields;
+        do {
+            fields = readFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        long line = lineNumber;
+        if (unterminated) {
+            return ImportRecord.failed(line, "Unterminated quoted field");
+        }
+        if (fields.size() != header.size()) {
+            return ImportRecord.failed(line, "Expected " + header.size() + " columns but found " + fields.size());
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String value = fields.get(i).trim();
+            row.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        try {
+            return ImportRecord.of(line, rowMapper.apply(row));
+        } catch (IllegalArgumentException e) {
+            return ImportRecord.failed(line, e.getMessage());
+        }
+    }
+
+    private List<String> readFields() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    unterminated = true;
+                    break;
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
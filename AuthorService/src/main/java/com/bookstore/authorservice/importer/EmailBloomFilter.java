@@ -0,0 +1,60 @@
+package com.bookstore.authorservice.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Locale;
+
+// never reports a known email as absent; a positive answer still needs a database check
+public class EmailBloomFilter {
+
+    private final BitSet bits;
+
+    private final int size;
+
+    private final int hashes;
+
+    public EmailBloomFilter(long expectedEmails, double falsePositiveRate) {
+        long n = Math.max(expectedEmails, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.size = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 1);
+        this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        this.bits = new BitSet(size);
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < hashes; i++) {
+            bits.set(index(hash, i));
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < hashes; i++) {
+            if (!bits.get(index(hash, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % size;
+    }
+
+    // FNV-1a followed by the murmur3 finaliser
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3f94c8f2cb7L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bookstore.authorservice.importer;
+
+import com.bookstore.authorservice.mapper.dtos.ImportErrorDTO;
+import com.bookstore.authorservice.mapper.dtos.ImportReportDTO;
+import com.bookstore.authorservice.service.ImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// --import.authors=<file> and --import.books=<file> load files at startup; authors run first so books can reference them
+@Component
+public class ImportCommandLineRunner implements ApplicationRunner {
+
+    static final String AUTHORS_OPTION = "import.authors";
+
+    static final String BOOKS_OPTION = "import.books";
+
+    private static final int LOGGED_ERRORS = 20;
+
+    Logger logger = LoggerFactory.getLogger(ImportCommandLineRunner.class);
+
+    private final ImportService importService;
+
+    public ImportCommandLineRunner(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (String file : optionValues(args, AUTHORS_OPTION)) {
+            try (InputStream input = Files.newInputStream(Path.of(file))) {
+                log(file, importService.importAuthors(input, ImportFormat.fromFileName(file)));
+            }
+        }
+        for (String file : optionValues(args, BOOKS_OPTION)) {
+            try (InputStream input = Files.newInputStream(Path.of(file))) {
+                log(file, importService.importBooks(input, ImportFormat.fromFileName(file)));
+            }
+        }
+    }
+
+    private List<String> optionValues(ApplicationArguments args, String option) {
+        List<String> values = args.getOptionValues(option);
+        return values != null ? values : List.of();
+    }
+
+    private void log(String file, ImportReportDTO report) {
+        logger.info("Imported {} of {} {} from {} ({} failed)",
+                report.getImported(), report.getProcessed(), report.getType(), file, report.getFailed());
+        for (ImportErrorDTO error : report.getErrors().stream().limit(LOGGED_ERRORS).toList()) {
+            logger.warn("{} line {}: {}", file, error.getLine(), error.getMessage());
+        }
+    }
+}
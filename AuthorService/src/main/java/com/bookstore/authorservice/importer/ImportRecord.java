@@ -0,0 +1,16 @@
+package com.bookstore.authorservice.importer;
+
+public record ImportRecord<T>(long line, T value, String error) {
+
+    public static <T> ImportRecord<T> of(long line, T value) {
+        return new ImportRecord<>(line, value, null);
+    }
+
+    public static <T> ImportRecord<T> failed(long line, String error) {
+        return new ImportRecord<>(line, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bookstore.authorservice.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public class NdjsonRecordReader<T> implements RecordReader<T> {
+
+    private final BufferedReader reader;
+
+    private final ObjectReader objectReader;
+
+    private long lineNumber;
+
+    public NdjsonRecordReader(BufferedReader reader, ObjectReader objectReader) {
+        this.reader = reader;
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public ImportRecord<T> next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                return ImportRecord.of(lineNumber, objectReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                return ImportRecord.failed(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.bookstore.authorservice.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface RecordReader<T> extends Closeable {
+
+    // returns null once the input is exhausted
+    ImportRecord<T> next() throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.bookstore.authorservice.mapper.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorBatchDTO {
+    private List<AuthorDTO> authors;
+    private List<Long> missingIds;
+}
@@ -3,6 +3,7 @@ package com.bookstore.authorservice.mapper.dtos;
 import com.bookstore.bookstorestarter.dtos.BaseBookDTO;
 import com.bookstore.bookstorestarter.enums.Genre;
 import com.bookstore.bookstorestarter.enums.Status;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
 import java.util.List;
@@ -11,5 +12,6 @@ import java.util.List;
 public class BookDTO extends BaseBookDTO {
     private Genre genre;
     private Status status;
+    @NotEmpty
     private List<AuthorDTO> authors;
 }
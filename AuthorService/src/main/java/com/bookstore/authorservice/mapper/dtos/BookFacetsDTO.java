@@ -0,0 +1,18 @@
+package com.bookstore.authorservice.mapper.dtos;
+
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetsDTO {
+    private long total;
+    private Map<Genre, Long> genres;
+    private Map<Status, Long> statuses;
+}
@@ -0,0 +1,22 @@
+package com.bookstore.authorservice.mapper.dtos;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportReportDTO {
+    private String type;
+    private long processed;
+    private long imported;
+    private long failed;
+    private long durationMillis;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public ImportReportDTO(String type) {
+        this.type = type;
+    }
+}
@@ -0,0 +1,17 @@
+package com.bookstore.authorservice.mapper.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProducerStatsDTO {
+    private String topic;
+    private long sent;
+    private long failed;
+    private long inFlight;
+    private double averageLatencyMs;
+    private double maxLatencyMs;
+}
@@ -0,0 +1,24 @@
+package com.bookstore.authorservice.mapper.dtos;
+
+import com.bookstore.authorservice.enums.PublishJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublishJobDTO {
+    private String id;
+    private String publisher;
+    private Long bookId;
+    private Integer publishedCopies;
+    private PublishJobStatus status;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private BookDTO book;
+    private String error;
+}
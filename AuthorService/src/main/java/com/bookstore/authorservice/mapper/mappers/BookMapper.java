@@ -1,8 +1,13 @@
 package com.bookstore.authorservice.mapper.mappers;
 
+import com.bookstore.authorservice.entity.Author;
 import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
 import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.repository.projection.BookAuthorRow;
+import com.bookstore.authorservice.repository.projection.BookListRow;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")
@@ -11,5 +16,15 @@ public interface BookMapper {
 
     BookDTO bookToBookDTO(Book book);
 
+    @Mapping(target = "version", ignore = true)
     Book bookDTOToBook(BookDTO bookDTO);
+
+    @Mapping(target = "bio", ignore = true)
+    AuthorDTO authorToAuthorSummaryDTO(Author author);
+
+    @Mapping(target = "authors", ignore = true)
+    BookDTO bookListRowToBookDTO(BookListRow row);
+
+    @Mapping(target = "bio", ignore = true)
+    AuthorDTO bookAuthorRowToAuthorSummaryDTO(BookAuthorRow row);
 }
@@ -2,18 +2,35 @@ package com.bookstore.authorservice.repository;
 
 import com.bookstore.authorservice.entity.Author;
 import com.bookstore.bookstorestarter.enums.Flag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
 
     List<Author> findAllByFlag(Flag flag);
 
+    List<Author> findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag flag, Long id, Limit limit);
+
     Optional<Author> findByEmail(String email);
 
     List<Author> findAllByIdIn(List<Long> ids);
+
+    List<Author> findAllByEmailIn(List<String> emails);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Author> streamAllByFlagOrderByIdAsc(Flag flag);
+
+    @Query("select a.email from Author a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<String> streamAllEmails();
 }
@@ -2,11 +2,24 @@ package com.bookstore.authorservice.repository;
 
 import com.bookstore.authorservice.entity.Author;
 import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.repository.projection.BookAuthorRow;
+import com.bookstore.authorservice.repository.projection.BookFacetCount;
+import com.bookstore.authorservice.repository.projection.BookListRow;
 import com.bookstore.bookstorestarter.enums.Flag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
@@ -14,4 +27,36 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findAllByAuthorsAndFlag(List<Author> authors, Flag flag);
 
     List<Book> findAllByFlag(Flag flag);
+
+    @Query("select b.id from Book b join b.authors a where a.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @EntityGraph("Book.authors")
+    Optional<Book> findWithAuthorsById(Long id);
+
+    @EntityGraph("Book.authors")
+    List<Book> findAllWithAuthorsByIdIn(Collection<Long> ids);
+
+    List<Book> findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag flag, Long id, Limit limit);
+
+    // a.id is the book_authors.author_id column, so the authors table itself is never joined
+    @Query("select distinct new com.bookstore.authorservice.repository.projection.BookListRow(" +
+            "b.id, b.flag, b.createdBy, b.createdDate, b.lastModifiedBy, b.lastModifiedDate, b.title, b.synopsis, " +
+            "b.publishedAt, b.isbn, b.edition, b.totalCopies, b.suggestedRetailPrice, b.genre, b.status) " +
+            "from Book b join b.authors a where a.id in :authorIds and b.flag = :flag and b.id > :afterId order by b.id")
+    List<BookListRow> findListRowsByAuthorIds(@Param("authorIds") Collection<Long> authorIds, @Param("flag") Flag flag,
+                                              @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.bookstore.authorservice.repository.projection.BookAuthorRow(" +
+            "b.id, a.id, a.flag, a.createdBy, a.createdDate, a.lastModifiedBy, a.lastModifiedDate, " +
+            "a.firstName, a.lastName, a.email) from Book b join b.authors a where b.id in :bookIds")
+    List<BookAuthorRow> findAuthorRowsByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Book> streamAllByFlagOrderByIdAsc(Flag flag);
+
+    // one row per genre and status pair, however many books there are
+    @Query("select new com.bookstore.authorservice.repository.projection.BookFacetCount(b.genre, b.status, count(b)) " +
+            "from Book b where b.flag = :flag group by b.genre, b.status")
+    List<BookFacetCount> countFacetsByFlag(@Param("flag") Flag flag);
 }
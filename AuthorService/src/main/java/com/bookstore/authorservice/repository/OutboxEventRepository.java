@@ -0,0 +1,30 @@
+package com.bookstore.authorservice.repository;
+
+import com.bookstore.authorservice.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // skip locked (a lock timeout of -2) lets several relay instances drain disjoint batches instead of queueing on the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.leasedUntil = :until where e.id in :ids")
+    int leaseAll(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,10 @@
+package com.bookstore.authorservice.repository.projection;
+
+import com.bookstore.bookstorestarter.enums.Flag;
+
+import java.time.LocalDateTime;
+
+public record BookAuthorRow(Long bookId, Long id, Flag flag, String createdBy, LocalDateTime createdDate,
+                            String lastModifiedBy, LocalDateTime lastModifiedDate, String firstName,
+                            String lastName, String email) {
+}
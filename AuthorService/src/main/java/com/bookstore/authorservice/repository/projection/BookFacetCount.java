@@ -0,0 +1,7 @@
+package com.bookstore.authorservice.repository.projection;
+
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+
+public record BookFacetCount(Genre genre, Status status, Long count) {
+}
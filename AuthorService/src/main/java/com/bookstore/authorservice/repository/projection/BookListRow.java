@@ -0,0 +1,14 @@
+package com.bookstore.authorservice.repository.projection;
+
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BookListRow(Long id, Flag flag, String createdBy, LocalDateTime createdDate, String lastModifiedBy,
+                          LocalDateTime lastModifiedDate, String title, String synopsis, LocalDateTime publishedAt,
+                          String isbn, String edition, Integer totalCopies, BigDecimal suggestedRetailPrice,
+                          Genre genre, Status status) {
+}
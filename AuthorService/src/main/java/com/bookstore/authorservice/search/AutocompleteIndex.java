@@ -0,0 +1,173 @@
+package com.bookstore.authorservice.search;
+
+import com.bookstore.authorservice.mapper.dtos.SuggestionDTO;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+@Component
+public class AutocompleteIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // sorts below every real suggestion with the same text, so it can open a range
+    private static final int PROBE_ORDER = -1;
+
+    private static final Comparator<WordStart> BY_SUFFIX = AutocompleteIndex::compareWordStarts;
+
+    private static final Comparator<Candidate> BY_RANK = Comparator.comparing(Candidate::startsText).reversed()
+            .thenComparingInt(candidate -> candidate.suggestion().getText().length())
+            .thenComparing(candidate -> candidate.suggestion().getText())
+            .thenComparingInt(Candidate::typeOrder)
+            .thenComparingLong(Candidate::id);
+
+    // every word of a suggestion starts an entry, so "tolk" finds "J.R.R. Tolkien"; an entry is only the
+    // suggestion and the offset of its word, ordered by the text from that word on
+    private final ConcurrentSkipListSet<WordStart> entries = new ConcurrentSkipListSet<>(BY_SUFFIX);
+
+    private final Map<String, IndexedSuggestion> suggestionsByOwner = new ConcurrentHashMap<>();
+
+    public synchronized void put(SuggestionType type, Long id, String text) {
+        remove(type, id);
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        int start = 0;
+        while (start >= 0) {
+            starts.add(start);
+            int nextSpace = normalized.indexOf(' ', start);
+            start = nextSpace < 0 ? -1 : nextSpace + 1;
+        }
+        IndexedSuggestion suggestion = new IndexedSuggestion(new SuggestionDTO(type, id, text.trim()), normalized,
+                starts.stream().mapToInt(Integer::intValue).toArray(), type.ordinal(), id);
+        for (int wordStart : suggestion.wordStarts()) {
+            entries.add(new WordStart(suggestion, wordStart));
+        }
+        suggestionsByOwner.put(owner(type, id), suggestion);
+    }
+
+    public synchronized void remove(SuggestionType type, Long id) {
+        IndexedSuggestion suggestion = suggestionsByOwner.remove(owner(type, id));
+        if (suggestion != null) {
+            for (int wordStart : suggestion.wordStarts()) {
+                entries.remove(new WordStart(suggestion, wordStart));
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        suggestionsByOwner.clear();
+    }
+
+    public int size() {
+        return suggestionsByOwner.size();
+    }
+
+    // ranks the whole matching range with a heap of the best limit, so the result is a true top-k
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        WordStart from = new WordStart(probe(normalizedPrefix), 0);
+        WordStart to = new WordStart(probe(normalizedPrefix + Character.MAX_VALUE), 0);
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, BY_RANK.reversed());
+        for (WordStart match : entries.subSet(from, true, to, false)) {
+            IndexedSuggestion suggestion = match.suggestion();
+            if (!firstMatchingWord(suggestion, match.offset(), normalizedPrefix)) {
+                continue;
+            }
+            Candidate candidate = new Candidate(suggestion.suggestion(), match.offset() == 0,
+                    suggestion.typeOrder(), suggestion.id());
+            if (top.size() < limit) {
+                top.offer(candidate);
+            } else if (BY_RANK.compare(candidate, top.peek()) < 0) {
+                top.poll();
+                top.offer(candidate);
+            }
+        }
+
+        List<SuggestionDTO> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().suggestion());
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private static String owner(SuggestionType type, Long id) {
+        return type.name() + ':' + id;
+    }
+
+    private static IndexedSuggestion probe(String normalized) {
+        return new IndexedSuggestion(null, normalized, new int[0], PROBE_ORDER, 0);
+    }
+
+    // a suggestion matching at several words is only counted at the first one
+    private static boolean firstMatchingWord(IndexedSuggestion suggestion, int offset, String prefix) {
+        for (int wordStart : suggestion.wordStarts()) {
+            if (wordStart >= offset) {
+                return true;
+            }
+            if (suggestion.normalized().startsWith(prefix, wordStart)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compareWordStarts(WordStart left, WordStart right) {
+        String leftText = left.suggestion().normalized();
+        String rightText = right.suggestion().normalized();
+        int leftLength = leftText.length() - left.offset();
+        int rightLength = rightText.length() - right.offset();
+        for (int i = 0; i < Math.min(leftLength, rightLength); i++) {
+            int compared = Character.compare(leftText.charAt(left.offset() + i), rightText.charAt(right.offset() + i));
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        if (leftLength != rightLength) {
+            return Integer.compare(leftLength, rightLength);
+        }
+        int compared = Integer.compare(left.suggestion().typeOrder(), right.suggestion().typeOrder());
+        return compared != 0 ? compared : Long.compare(left.suggestion().id(), right.suggestion().id());
+    }
+
+    private record IndexedSuggestion(SuggestionDTO suggestion, String normalized, int[] wordStarts,
+                                     int typeOrder, long id) {
+    }
+
+    private record WordStart(IndexedSuggestion suggestion, int offset) {
+    }
+
+    private record Candidate(SuggestionDTO suggestion, boolean startsText, int typeOrder, long id) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.bookstore.authorservice.search;
+
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+
+public record BookFacet(Genre genre, Status status) {
+
+    // null when the book is not counted at all
+    public static BookFacet of(Book book) {
+        return book == null || book.getFlag() != Flag.ENABLED ? null : new BookFacet(book.getGenre(), book.getStatus());
+    }
+}
@@ -0,0 +1,110 @@
+package com.bookstore.authorservice.search;
+
+import com.bookstore.authorservice.mapper.dtos.BookFacetsDTO;
+import com.bookstore.authorservice.repository.projection.BookFacetCount;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Component
+public class BookFacetCounters {
+
+    public static final long STALE = -1;
+
+    // replaced whole on every change, so a reader never sees a half applied change or reconcile
+    private volatile Counts counts = new Counts(0, new long[Genre.values().length], new long[Status.values().length]);
+
+    // bumped by every delta, so a reconcile can tell whether its database read is already outdated
+    private long version;
+
+    // a write may commit before the aggregate read but apply its delta after it, so no read counts while one is open
+    private int writesInFlight;
+
+    public synchronized void beginWrite() {
+        writesInFlight++;
+        version++;
+    }
+
+    public synchronized void endWrite() {
+        writesInFlight--;
+        version++;
+    }
+
+    public synchronized void apply(BookFacet before, BookFacet after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        long total = counts.total;
+        long[] genres = counts.genres.clone();
+        long[] statuses = counts.statuses.clone();
+        if (before != null) {
+            total += count(before, genres, statuses, -1);
+        }
+        if (after != null) {
+            total += count(after, genres, statuses, 1);
+        }
+        counts = new Counts(total, genres, statuses);
+        version++;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    // installs counts read from the database since expectedVersion; a delta or open write in between makes the read STALE
+    public synchronized long replaceAll(long expectedVersion, List<BookFacetCount> rows) {
+        if (version != expectedVersion || writesInFlight > 0) {
+            return STALE;
+        }
+        long total = 0;
+        long[] genres = new long[Genre.values().length];
+        long[] statuses = new long[Status.values().length];
+        for (BookFacetCount row : rows) {
+            total += count(new BookFacet(row.genre(), row.status()), genres, statuses, row.count());
+        }
+
+        Counts current = counts;
+        long drift = Math.abs(current.total - total);
+        for (int i = 0; i < genres.length; i++) {
+            drift += Math.abs(current.genres[i] - genres[i]);
+        }
+        for (int i = 0; i < statuses.length; i++) {
+            drift += Math.abs(current.statuses[i] - statuses[i]);
+        }
+        if (drift > 0) {
+            counts = new Counts(total, genres, statuses);
+        }
+        return drift;
+    }
+
+    public BookFacetsDTO snapshot() {
+        Counts current = counts;
+        Map<Genre, Long> genres = new EnumMap<>(Genre.class);
+        for (Genre genre : Genre.values()) {
+            genres.put(genre, current.genres[genre.ordinal()]);
+        }
+        Map<Status, Long> statuses = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            statuses.put(status, current.statuses[status.ordinal()]);
+        }
+        return new BookFacetsDTO(current.total, genres, statuses);
+    }
+
+    private static long count(BookFacet facet, long[] genres, long[] statuses, long delta) {
+        if (facet.genre() != null) {
+            genres[facet.genre().ordinal()] += delta;
+        }
+        if (facet.status() != null) {
+            statuses[facet.status().ordinal()] += delta;
+        }
+        return delta;
+    }
+
+    private record Counts(long total, long[] genres, long[] statuses) {
+    }
+}
@@ -0,0 +1,318 @@
+package com.bookstore.authorservice.search;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+public class BookSearchIndex {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    // title matches count twice so they outrank passing mentions in a synopsis
+    private static final int TITLE_WEIGHT = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "to", "with");
+
+    private static final Comparator<ScoredBook> BY_SCORE = Comparator.comparingDouble(ScoredBook::score)
+            .thenComparing(Comparator.comparingLong(ScoredBook::bookId).reversed());
+
+    private static final Comparator<Cursor> BY_BOOK_ID = Comparator.comparingLong(Cursor::bookId);
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long totalLength;
+
+    public void put(Long bookId, String title, String synopsis, List<String> authorNames) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = 0;
+        for (String token : tokenize(title)) {
+            termFrequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        List<String> otherFields = new ArrayList<>();
+        otherFields.add(synopsis);
+        if (authorNames != null) {
+            otherFields.addAll(authorNames);
+        }
+        for (String field : otherFields) {
+            for (String token : tokenize(field)) {
+                termFrequencies.merge(token, 1, Integer::sum);
+                length++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(bookId);
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).put(bookId, entry.getValue());
+            }
+            books.put(bookId, new IndexedBook(termFrequencies.keySet(), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            books.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<ScoredBook> top = new PriorityQueue<>(limit + 1, BY_SCORE);
+        lock.readLock().lock();
+        try {
+            int documentCount = books.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            List<Cursor> cursors = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                // the shortest possible document gives the highest score a posting of this term can reach
+                cursors.add(new Cursor(termPostings, idf, score(idf, termPostings.maxFrequency, 1 - B)));
+            }
+            collectTop(cursors.toArray(new Cursor[0]), averageLength, limit, top);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().bookId());
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    // WAND: walks the id-sorted postings together and only scores books whose terms' best possible
+    // scores could still beat the current k-th result, skipping every posting below that pivot
+    private void collectTop(Cursor[] cursors, double averageLength, int limit, PriorityQueue<ScoredBook> top) {
+        int active = cursors.length;
+        while (true) {
+            int remaining = 0;
+            for (int i = 0; i < active; i++) {
+                if (!cursors[i].exhausted()) {
+                    cursors[remaining++] = cursors[i];
+                }
+            }
+            active = remaining;
+            if (active == 0) {
+                return;
+            }
+            Arrays.sort(cursors, 0, active, BY_BOOK_ID);
+
+            double threshold = top.size() < limit ? Double.NEGATIVE_INFINITY : top.peek().score();
+            double bound = 0;
+            int pivot = -1;
+            for (int i = 0; i < active; i++) {
+                bound += cursors[i].maxScore;
+                if (bound >= threshold) {
+                    pivot = i;
+                    break;
+                }
+            }
+            if (pivot < 0) {
+                return;
+            }
+
+            long pivotId = cursors[pivot].bookId();
+            if (cursors[0].bookId() != pivotId) {
+                // no book before the pivot matches enough terms to enter the top k
+                for (int i = 0; i < pivot; i++) {
+                    cursors[i].advanceTo(pivotId);
+                }
+                continue;
+            }
+
+            double lengthNorm = 1 - B + B * books.get(pivotId).length() / averageLength;
+            double score = 0;
+            for (int i = 0; i < active && cursors[i].bookId() == pivotId; i++) {
+                score += score(cursors[i].idf, cursors[i].frequency(), lengthNorm);
+                cursors[i].position++;
+            }
+            ScoredBook candidate = new ScoredBook(pivotId, score);
+            if (top.size() < limit) {
+                top.offer(candidate);
+            } else if (BY_SCORE.compare(candidate, top.peek()) > 0) {
+                top.poll();
+                top.offer(candidate);
+            }
+        }
+    }
+
+    private static double score(double idf, int tf, double lengthNorm) {
+        return idf * tf * (K1 + 1) / (tf + K1 * lengthNorm);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void removeUnlocked(Long bookId) {
+        IndexedBook existing = books.remove(bookId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            PostingList termPostings = postings.get(term);
+            if (termPostings != null && termPostings.remove(bookId)) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= existing.length();
+    }
+
+    private record IndexedBook(Set<String> terms, int length) {
+    }
+
+    private record ScoredBook(long bookId, double score) {
+    }
+
+    // parallel arrays sorted by book id; ids mostly arrive in ascending order, so puts usually append
+    private static final class PostingList {
+
+        private long[] bookIds = new long[4];
+
+        private int[] frequencies = new int[4];
+
+        private int size;
+
+        // only ever raised, so it stays a valid upper bound after removals
+        private int maxFrequency;
+
+        void put(long bookId, int frequency) {
+            int at = Arrays.binarySearch(bookIds, 0, size, bookId);
+            if (at < 0) {
+                at = -at - 1;
+                if (size == bookIds.length) {
+                    bookIds = Arrays.copyOf(bookIds, size * 2);
+                    frequencies = Arrays.copyOf(frequencies, size * 2);
+                }
+                System.arraycopy(bookIds, at, bookIds, at + 1, size - at);
+                System.arraycopy(frequencies, at, frequencies, at + 1, size - at);
+                bookIds[at] = bookId;
+                size++;
+            }
+            frequencies[at] = frequency;
+            maxFrequency = Math.max(maxFrequency, frequency);
+        }
+
+        // returns whether the list is now empty
+        boolean remove(long bookId) {
+            int at = Arrays.binarySearch(bookIds, 0, size, bookId);
+            if (at >= 0) {
+                System.arraycopy(bookIds, at + 1, bookIds, at, size - at - 1);
+                System.arraycopy(frequencies, at + 1, frequencies, at, size - at - 1);
+                size--;
+            }
+            return size == 0;
+        }
+    }
+
+    private static final class Cursor {
+
+        private final PostingList postings;
+
+        private final double idf;
+
+        private final double maxScore;
+
+        private int position;
+
+        Cursor(PostingList postings, double idf, double maxScore) {
+            this.postings = postings;
+            this.idf = idf;
+            this.maxScore = maxScore;
+        }
+
+        long bookId() {
+            return postings.bookIds[position];
+        }
+
+        int frequency() {
+            return postings.frequencies[position];
+        }
+
+        boolean exhausted() {
+            return position >= postings.size;
+        }
+
+        void advanceTo(long bookId) {
+            int at = Arrays.binarySearch(postings.bookIds, position, postings.size, bookId);
+            position = at >= 0 ? at : -at - 1;
+        }
+    }
+}
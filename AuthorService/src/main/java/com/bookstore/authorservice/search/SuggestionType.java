@@ -0,0 +1,6 @@
+package com.bookstore.authorservice.search;
+
+public enum SuggestionType {
+    AUTHOR,
+    BOOK
+}
@@ -1,17 +1,29 @@
 package com.bookstore.authorservice.service;
 
+import com.bookstore.authorservice.mapper.dtos.AuthorBatchDTO;
 import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface AuthorService {
     AuthorDTO getAuthorById(Long id);
 
+    String getAuthorETag(AuthorDTO author);
+
+    AuthorBatchDTO getAuthorsByIds(List<Long> authorIds);
+
     AuthorDTO createAuthor(AuthorDTO authorDTO);
 
+    List<AuthorDTO> createAuthors(List<AuthorDTO> authorDTOs);
+
     AuthorDTO updateAuthor(AuthorDTO authorDTO, Long authorId);
 
-    List<AuthorDTO> getAllAuthors();
+    CursorPage<AuthorDTO> getAllAuthors(String cursor, Integer limit);
 
     AuthorDTO deleteAuthor(Long authorId);
+
+    void exportAuthors(OutputStream outputStream) throws IOException;
 }
@@ -0,0 +1,31 @@
+package com.bookstore.authorservice.service;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.SuggestionDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AutocompleteService {
+
+    List<SuggestionDTO> suggest(String prefix, Integer limit);
+
+    void indexAuthor(Author author);
+
+    void indexBook(Book book);
+
+    void removeAuthor(Long authorId);
+
+    void removeBook(Long bookId);
+
+    void reindexAuthor(Long authorId);
+
+    void reindexBook(Long bookId);
+
+    void reindexAuthors(Collection<Long> authorIds);
+
+    void reindexBooks(Collection<Long> bookIds);
+
+    void rebuildIndex();
+}
@@ -0,0 +1,20 @@
+package com.bookstore.authorservice.service;
+
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.BookFacetsDTO;
+import com.bookstore.authorservice.search.BookFacet;
+
+public interface BookFacetService {
+
+    BookFacetsDTO getFacets();
+
+    void beginWrite();
+
+    void record(BookFacet before, Book after);
+
+    void endWrite();
+
+    void refresh();
+
+    void reconcile();
+}
@@ -0,0 +1,24 @@
+package com.bookstore.authorservice.service;
+
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookSearchService {
+
+    List<BookDTO> search(String query, Integer limit);
+
+    void index(Book book);
+
+    void remove(Long bookId);
+
+    void reindex(Long bookId);
+
+    void reindex(Collection<Long> bookIds);
+
+    void reindexAuthorBooks(Long authorId);
+
+    void rebuildIndex();
+}
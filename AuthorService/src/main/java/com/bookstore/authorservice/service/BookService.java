@@ -1,21 +1,30 @@
 package com.bookstore.authorservice.service;
 
 import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.dtos.PublishDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BookService {
 
     BookDTO createBook(BookDTO bookDTO);
 
+    List<BookDTO> createBooks(List<BookDTO> bookDTOs);
+
     BookDTO updateBook(BookDTO bookDTO, Long bookId);
 
-    List<BookDTO> getAllBooks(List<Long> authorId);
+    CursorPage<BookDTO> getAllBooks(List<Long> authorId, String cursor, Integer limit);
 
     BookDTO getBookById(Long bookId);
 
+    String getBookETag(BookDTO book);
+
     BookDTO publishBook(PublishDto<BookDTO> publishDto);
 
     BookDTO deleteBook(Long bookId);
+
+    void exportBooks(OutputStream outputStream) throws IOException;
 }
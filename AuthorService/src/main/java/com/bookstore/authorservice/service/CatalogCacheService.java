@@ -0,0 +1,23 @@
+package com.bookstore.authorservice.service;
+
+import com.bookstore.authorservice.mapper.dtos.CacheStatsDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CatalogCacheService {
+
+    void authorChanged(Long authorId);
+
+    void bookChanged(Long bookId);
+
+    void authorsCreated(Collection<Long> authorIds);
+
+    void booksCreated(Collection<Long> bookIds);
+
+    void evictAuthor(Long authorId);
+
+    void evictBook(Long bookId);
+
+    List<CacheStatsDTO> getCacheStats();
+}
@@ -0,0 +1,14 @@
+package com.bookstore.authorservice.service;
+
+import com.bookstore.authorservice.importer.ImportFormat;
+import com.bookstore.authorservice.mapper.dtos.ImportReportDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+
+    ImportReportDTO importAuthors(InputStream input, ImportFormat format) throws IOException;
+
+    ImportReportDTO importBooks(InputStream input, ImportFormat format) throws IOException;
+}
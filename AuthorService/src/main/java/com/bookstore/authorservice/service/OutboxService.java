@@ -0,0 +1,8 @@
+package com.bookstore.authorservice.service;
+
+public interface OutboxService {
+
+    void enqueue(String topic, String key, byte[] payload);
+
+    int relay();
+}
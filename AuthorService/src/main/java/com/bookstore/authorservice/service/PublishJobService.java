@@ -0,0 +1,12 @@
+package com.bookstore.authorservice.service;
+
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.dtos.PublishJobDTO;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+
+public interface PublishJobService {
+
+    PublishJobDTO submit(PublishDto<BookDTO> publishDto, String publisher);
+
+    PublishJobDTO getJob(String jobId);
+}
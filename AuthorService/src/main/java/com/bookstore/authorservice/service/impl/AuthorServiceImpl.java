@@ -1,36 +1,90 @@
 package com.bookstore.authorservice.service.impl;
 
+import com.bookstore.authorservice.Util.NdjsonWriter;
+import com.bookstore.authorservice.config.CacheConfig;
 import com.bookstore.authorservice.entity.Author;
 import com.bookstore.authorservice.exception.RecordAlreadyExistException;
 import com.bookstore.authorservice.exception.RecordNotFoundException;
+import com.bookstore.authorservice.mapper.dtos.AuthorBatchDTO;
 import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
 import com.bookstore.authorservice.mapper.mappers.AuthorMapper;
 import com.bookstore.authorservice.repository.AuthorRepository;
 import com.bookstore.authorservice.service.AuthorService;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.bookstorestarter.Util.AuditStamp;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.enums.Flag;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class AuthorServiceImpl implements AuthorService {
 
     Logger logger = LoggerFactory.getLogger(AuthorServiceImpl.class);
 
+    private static final int MAX_BATCH_IDS = 5000;
+
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    private static final int MAX_BULK_SIZE = 5000;
+
+    // matches hibernate.jdbc.batch_size so every flush sends full batches
+    private static final int BULK_FLUSH_SIZE = 100;
+
     private final AuthorRepository authorRepository;
 
     private final AuthorMapper authorMapper;
 
-    public AuthorServiceImpl(AuthorRepository authorRepository, AuthorMapper authorMapper) {
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final CatalogCacheService catalogCacheService;
+
+    private final AutocompleteService autocompleteService;
+
+    private final BookSearchService bookSearchService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AuthorServiceImpl(AuthorRepository authorRepository, AuthorMapper authorMapper,
+                             ObjectMapper objectMapper, EntityManager entityManager,
+                             CatalogCacheService catalogCacheService, AutocompleteService autocompleteService,
+                             BookSearchService bookSearchService, TransactionTemplate transactionTemplate) {
         this.authorRepository = authorRepository;
         this.authorMapper = authorMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.catalogCacheService = catalogCacheService;
+        this.autocompleteService = autocompleteService;
+        this.bookSearchService = bookSearchService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.AUTHORS_CACHE, key = "#id")
     public AuthorDTO getAuthorById(Long id) {
         logger.info("Getting author details {}", id);
         Author author = authorRepository.findById(id)
@@ -39,6 +93,47 @@ public class AuthorServiceImpl implements AuthorService {
         return authorMapper.authorToAuthorDTO(author);
     }
 
+    // derived from the representation being returned, so a cached body and its validator always agree
+    @Override
+    public String getAuthorETag(AuthorDTO author) {
+        return new AuditStamp(author.getId(), author.getCreatedDate(), author.getLastModifiedDate()).eTag();
+    }
+
+    @Override
+    public AuthorBatchDTO getAuthorsByIds(List<Long> authorIds) {
+        if (authorIds == null || authorIds.isEmpty()) {
+            throw new IllegalArgumentException("Author id list cannot be empty");
+        }
+
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(authorIds));
+        uniqueIds.remove(null);
+        if (uniqueIds.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("Cannot fetch more than " + MAX_BATCH_IDS + " authors at once");
+        }
+        logger.info("Getting {} authors by id", uniqueIds.size());
+
+        Map<Long, Author> authorsById = new HashMap<>();
+        for (int from = 0; from < uniqueIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = uniqueIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, uniqueIds.size()));
+            for (Author author : authorRepository.findAllByIdIn(chunk)) {
+                authorsById.put(author.getId(), author);
+            }
+        }
+
+        List<AuthorDTO> authors = new ArrayList<>(authorsById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            Author author = authorsById.get(id);
+            if (author == null) {
+                missingIds.add(id);
+            } else {
+                authors.add(authorMapper.authorToAuthorDTO(author));
+            }
+        }
+
+        return new AuthorBatchDTO(authors, missingIds);
+    }
+
     @Override
     public AuthorDTO createAuthor(AuthorDTO authorDTO) {
         logger.info("Creating author");
@@ -51,12 +146,73 @@ public class AuthorServiceImpl implements AuthorService {
         Author author = authorMapper.authorDTOToAuthor(authorDTO);
         author.setFlag(Flag.ENABLED);
         author = authorRepository.save(author);
+        autocompleteService.indexAuthor(author);
+        catalogCacheService.authorsCreated(List.of(author.getId()));
 
         logger.info("Author created");
 
         return authorMapper.authorToAuthorDTO(author);
     }
 
+    @Override
+    public List<AuthorDTO> createAuthors(List<AuthorDTO> authorDTOs) {
+        if (authorDTOs == null || authorDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Author list cannot be empty");
+        }
+        if (authorDTOs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Cannot create more than " + MAX_BULK_SIZE + " authors at once");
+        }
+        logger.info("Creating {} authors", authorDTOs.size());
+
+        List<Author> authors = transactionTemplate.execute(status -> insertAuthors(authorDTOs));
+
+        // indexes and replicas only hear about authors once the whole request has committed
+        List<AuthorDTO> created = new ArrayList<>(authors.size());
+        List<Long> authorIds = new ArrayList<>(authors.size());
+        for (Author author : authors) {
+            autocompleteService.indexAuthor(author);
+            authorIds.add(author.getId());
+            created.add(authorMapper.authorToAuthorDTO(author));
+        }
+        catalogCacheService.authorsCreated(authorIds);
+
+        logger.info("{} authors created", created.size());
+        return created;
+    }
+
+    private List<Author> insertAuthors(List<AuthorDTO> authorDTOs) {
+        List<String> emails = new ArrayList<>(authorDTOs.size());
+        Set<String> uniqueEmails = new HashSet<>();
+        for (AuthorDTO authorDTO : authorDTOs) {
+            if (!uniqueEmails.add(authorDTO.getEmail())) {
+                throw new RecordAlreadyExistException("Duplicate author email " + authorDTO.getEmail());
+            }
+            emails.add(authorDTO.getEmail());
+        }
+        for (int from = 0; from < emails.size(); from += BATCH_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(from, Math.min(from + BATCH_CHUNK_SIZE, emails.size()));
+            List<Author> existing = authorRepository.findAllByEmailIn(chunk);
+            if (!existing.isEmpty()) {
+                throw new RecordAlreadyExistException("Author already exists " + existing.get(0).getEmail());
+            }
+        }
+
+        List<Author> authors = new ArrayList<>(authorDTOs.size());
+        for (AuthorDTO authorDTO : authorDTOs) {
+            Author author = authorMapper.authorDTOToAuthor(authorDTO);
+            author.setId(null);
+            author.setFlag(Flag.ENABLED);
+            authors.add(author);
+        }
+
+        for (int from = 0; from < authors.size(); from += BULK_FLUSH_SIZE) {
+            authorRepository.saveAll(authors.subList(from, Math.min(from + BULK_FLUSH_SIZE, authors.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return authors;
+    }
+
     @Override
     public AuthorDTO updateAuthor(AuthorDTO authorDTO, Long authorId) {
         logger.info("update author details {}", authorId);
@@ -70,20 +226,22 @@ public class AuthorServiceImpl implements AuthorService {
         author.setBio(authorDTO.getBio());
         author.setFlag(authorDTO.getFlag());
         author = authorRepository.save(author);
+        autocompleteService.indexAuthor(author);
+        // book documents embed author names, so this replica reindexes them without waiting for its own message
+        bookSearchService.reindexAuthorBooks(authorId);
+        catalogCacheService.authorChanged(authorId);
 
         return authorMapper.authorToAuthorDTO(author);
     }
 
     @Override
-    public List<AuthorDTO> getAllAuthors() {
-        logger.info("get author details");
-        List<Author> authors = authorRepository.findAllByFlag(Flag.ENABLED);
-        List<AuthorDTO> authorDTOs = new ArrayList<>();
-        for (Author author : authors) {
-            authorDTOs.add(authorMapper.authorToAuthorDTO(author));
-        }
+    public CursorPage<AuthorDTO> getAllAuthors(String cursor, Integer limit) {
+        logger.info("get author details after cursor {}", cursor);
+        int pageSize = CursorPage.limitOf(limit);
+        List<Author> authors = authorRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(
+                Flag.ENABLED, CursorPage.decode(cursor), Limit.of(pageSize + 1));
 
-        return authorDTOs;
+        return CursorPage.of(authors, pageSize, Author::getId, authorMapper::authorToAuthorDTO);
     }
 
     @Override
@@ -96,7 +254,26 @@ public class AuthorServiceImpl implements AuthorService {
         author.setFlag(Flag.DISABLED);
 
         author = authorRepository.save(author);
+        autocompleteService.indexAuthor(author);
+        bookSearchService.reindexAuthorBooks(authorId);
+        catalogCacheService.authorChanged(authorId);
 
         return authorMapper.authorToAuthorDTO(author);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAuthors(OutputStream outputStream) throws IOException {
+        logger.info("Exporting authors");
+
+        try (Stream<Author> authors = authorRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED);
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+            Iterator<Author> iterator = authors.iterator();
+            while (iterator.hasNext()) {
+                Author author = iterator.next();
+                writer.write(authorMapper.authorToAuthorDTO(author));
+                entityManager.detach(author);
+            }
+        }
+    }
 }
@@ -0,0 +1,147 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.SuggestionDTO;
+import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.search.AutocompleteIndex;
+import com.bookstore.authorservice.search.SuggestionType;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.bookstorestarter.enums.Flag;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+    Logger logger = LoggerFactory.getLogger(AutocompleteServiceImpl.class);
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private static final int MAX_LIMIT = 50;
+
+    private static final int REBUILD_CLEAR_INTERVAL = 500;
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    private final AuthorRepository authorRepository;
+
+    private final BookRepository bookRepository;
+
+    private final EntityManager entityManager;
+
+    public AutocompleteServiceImpl(AutocompleteIndex autocompleteIndex, AuthorRepository authorRepository,
+                                   BookRepository bookRepository, EntityManager entityManager) {
+        this.autocompleteIndex = autocompleteIndex;
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix cannot be empty");
+        }
+        int resultSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (resultSize < 1 || resultSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return autocompleteIndex.suggest(prefix, resultSize);
+    }
+
+    @Override
+    public void indexAuthor(Author author) {
+        if (author.getFlag() != Flag.ENABLED) {
+            autocompleteIndex.remove(SuggestionType.AUTHOR, author.getId());
+            return;
+        }
+        autocompleteIndex.put(SuggestionType.AUTHOR, author.getId(),
+                author.getFirstName() + " " + author.getLastName());
+    }
+
+    @Override
+    public void indexBook(Book book) {
+        if (book.getFlag() != Flag.ENABLED) {
+            autocompleteIndex.remove(SuggestionType.BOOK, book.getId());
+            return;
+        }
+        autocompleteIndex.put(SuggestionType.BOOK, book.getId(), book.getTitle());
+    }
+
+    @Override
+    public void removeAuthor(Long authorId) {
+        autocompleteIndex.remove(SuggestionType.AUTHOR, authorId);
+    }
+
+    @Override
+    public void removeBook(Long bookId) {
+        autocompleteIndex.remove(SuggestionType.BOOK, bookId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexAuthor(Long authorId) {
+        authorRepository.findById(authorId)
+                .ifPresentOrElse(this::indexAuthor, () -> removeAuthor(authorId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexBook(Long bookId) {
+        bookRepository.findById(bookId)
+                .ifPresentOrElse(this::indexBook, () -> removeBook(bookId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexAuthors(Collection<Long> authorIds) {
+        authorRepository.findAllById(authorIds).forEach(this::indexAuthor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexBooks(Collection<Long> bookIds) {
+        bookRepository.findAllById(bookIds).forEach(this::indexBook);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        logger.info("Building autocomplete index");
+        autocompleteIndex.clear();
+
+        try (Stream<Author> authors = authorRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)) {
+            indexAll(authors, this::indexAuthor);
+        }
+        try (Stream<Book> books = bookRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)) {
+            indexAll(books, this::indexBook);
+        }
+
+        logger.info("Autocomplete index built with {} entries", autocompleteIndex.size());
+    }
+
+    private <T> void indexAll(Stream<T> rows, Consumer<T> indexer) {
+        Iterator<T> iterator = rows.iterator();
+        int indexed = 0;
+        while (iterator.hasNext()) {
+            indexer.accept(iterator.next());
+            if (++indexed % REBUILD_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.BookFacetsDTO;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.repository.projection.BookFacetCount;
+import com.bookstore.authorservice.search.BookFacet;
+import com.bookstore.authorservice.search.BookFacetCounters;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.bookstorestarter.enums.Flag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+@Service
+public class BookFacetServiceImpl implements BookFacetService {
+
+    Logger logger = LoggerFactory.getLogger(BookFacetServiceImpl.class);
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final BookFacetCounters bookFacetCounters;
+
+    private final BookRepository bookRepository;
+
+    private final long quietPeriodNanos;
+
+    private final long maxDelayNanos;
+
+    private LongSupplier ticker = System::nanoTime;
+
+    private boolean stale;
+
+    private long staleSince;
+
+    private long lastRefresh;
+
+    public BookFacetServiceImpl(BookFacetCounters bookFacetCounters, BookRepository bookRepository,
+                                @Value("${bookstore.facets.refresh-quiet-period:PT2S}") Duration quietPeriod,
+                                @Value("${bookstore.facets.refresh-max-delay:PT30S}") Duration maxDelay) {
+        this.bookFacetCounters = bookFacetCounters;
+        this.bookRepository = bookRepository;
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    @Override
+    public BookFacetsDTO getFacets() {
+        return bookFacetCounters.snapshot();
+    }
+
+    // opened before the database write and closed after its delta, so a reconcile cannot count the write twice
+    @Override
+    public void beginWrite() {
+        bookFacetCounters.beginWrite();
+    }
+
+    // the writing replica knows the facet the book had, so it moves the counts without a query
+    @Override
+    public void record(BookFacet before, Book after) {
+        bookFacetCounters.apply(before, BookFacet.of(after));
+    }
+
+    @Override
+    public void endWrite() {
+        bookFacetCounters.endWrite();
+    }
+
+    // other replicas only get the book id, so changes are coalesced into one aggregate read once they
+    // go quiet, or after the max delay while they keep arriving
+    @Override
+    public synchronized void refresh() {
+        long now = ticker.getAsLong();
+        if (!stale) {
+            stale = true;
+            staleSince = now;
+        }
+        lastRefresh = now;
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.facets.refresh-interval:PT1S}")
+    public void reconcileIfStale() {
+        if (takeStale()) {
+            reconcile();
+        }
+    }
+
+    private synchronized boolean takeStale() {
+        long now = ticker.getAsLong();
+        if (!stale || (now - lastRefresh < quietPeriodNanos && now - staleSince < maxDelayNanos)) {
+            return false;
+        }
+        stale = false;
+        return true;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${bookstore.facets.reconcile-interval:PT5M}",
+            initialDelayString = "${bookstore.facets.reconcile-interval:PT5M}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long version = bookFacetCounters.version();
+            List<BookFacetCount> rows = bookRepository.countFacetsByFlag(Flag.ENABLED);
+
+            long drift = bookFacetCounters.replaceAll(version, rows);
+            if (drift != BookFacetCounters.STALE) {
+                if (drift > 0) {
+                    logger.warn("Corrected book facet counts by {}", drift);
+                }
+                return;
+            }
+        }
+        // local changes kept landing during the read; they are counted already, the next run catches up
+        logger.info("Skipped book facet reconcile after {} outdated reads", RECONCILE_ATTEMPTS);
+    }
+}
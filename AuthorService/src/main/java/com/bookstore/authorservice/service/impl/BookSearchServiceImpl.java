@@ -0,0 +1,147 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.mappers.BookMapper;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.search.BookSearchIndex;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.bookstorestarter.enums.Flag;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class BookSearchServiceImpl implements BookSearchService {
+
+    Logger logger = LoggerFactory.getLogger(BookSearchServiceImpl.class);
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final int REBUILD_CLEAR_INTERVAL = 500;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final BookRepository bookRepository;
+
+    private final BookMapper bookMapper;
+
+    private final EntityManager entityManager;
+
+    public BookSearchServiceImpl(BookSearchIndex bookSearchIndex, BookRepository bookRepository,
+                                 BookMapper bookMapper, EntityManager entityManager) {
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookDTO> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        int resultSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (resultSize < 1 || resultSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        logger.info("Searching books for {}", query);
+
+        List<Long> rankedIds = bookSearchIndex.search(query, resultSize);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Book> booksById = bookRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        List<BookDTO> results = new ArrayList<>(rankedIds.size());
+        for (Long bookId : rankedIds) {
+            Book book = booksById.get(bookId);
+            if (book != null && book.getFlag() == Flag.ENABLED) {
+                results.add(bookMapper.bookToBookDTO(book));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void index(Book book) {
+        if (book.getFlag() != Flag.ENABLED) {
+            bookSearchIndex.remove(book.getId());
+            return;
+        }
+        List<String> authorNames = new ArrayList<>();
+        if (book.getAuthors() != null) {
+            for (Author author : book.getAuthors()) {
+                authorNames.add(author.getFirstName() + " " + author.getLastName());
+            }
+        }
+        bookSearchIndex.put(book.getId(), book.getTitle(), book.getSynopsis(), authorNames);
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        bookSearchIndex.remove(bookId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindex(Long bookId) {
+        bookRepository.findById(bookId)
+                .ifPresentOrElse(this::index, () -> bookSearchIndex.remove(bookId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindex(Collection<Long> bookIds) {
+        bookRepository.findAllWithAuthorsByIdIn(bookIds).forEach(this::index);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexAuthorBooks(Long authorId) {
+        // book documents embed author names
+        for (Book book : bookRepository.findAllById(bookRepository.findIdsByAuthorId(authorId))) {
+            index(book);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        logger.info("Building book search index");
+        bookSearchIndex.clear();
+
+        try (Stream<Book> books = bookRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)) {
+            Iterator<Book> iterator = books.iterator();
+            int indexed = 0;
+            while (iterator.hasNext()) {
+                index(iterator.next());
+                if (++indexed % REBUILD_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        logger.info("Book search index built with {} books", bookSearchIndex.size());
+    }
+}
@@ -1,30 +1,61 @@
 package com.bookstore.authorservice.service.impl;
 
-import com.bookstore.authorservice.config.MessageProducer;
+import com.bookstore.authorservice.Util.NdjsonWriter;
+import com.bookstore.authorservice.config.CacheConfig;
 import com.bookstore.authorservice.entity.Author;
 import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.exception.ConcurrentUpdateException;
 import com.bookstore.authorservice.exception.RecordNotFoundException;
 import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
 import com.bookstore.authorservice.mapper.dtos.BookDTO;
 import com.bookstore.authorservice.mapper.mappers.BookMapper;
 import com.bookstore.authorservice.repository.AuthorRepository;
 import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.repository.projection.BookAuthorRow;
+import com.bookstore.authorservice.repository.projection.BookListRow;
+import com.bookstore.authorservice.search.BookFacet;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
 import com.bookstore.authorservice.service.BookService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.authorservice.service.OutboxService;
+import com.bookstore.bookstorestarter.Util.AuditStamp;
+import com.bookstore.bookstorestarter.Util.CursorPage;
+import com.bookstore.bookstorestarter.codec.JsonEventCodec;
 import com.bookstore.bookstorestarter.config.KafkaTopics;
 import com.bookstore.bookstorestarter.dtos.PublishDto;
 import com.bookstore.bookstorestarter.enums.Flag;
 import com.bookstore.bookstorestarter.enums.Status;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
@@ -38,15 +69,53 @@ public class BookServiceImpl implements BookService {
 
     private final BookMapper bookMapper;
 
-    private final MessageProducer messageProducer;
+    private final OutboxService outboxService;
 
-    private ObjectMapper objectMapper;
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
 
-    public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository, BookMapper bookMapper, MessageProducer messageProducer) {
+    private static final int MAX_BULK_SIZE = 5000;
+
+    private static final int AUTHOR_FILTER_CHUNK_SIZE = 1000;
+
+    // matches hibernate.jdbc.batch_size so every flush sends full batches
+    private static final int BULK_FLUSH_SIZE = 100;
+
+    private static final int PUBLISH_MAX_ATTEMPTS = 10;
+
+    private static final long PUBLISH_BASE_BACKOFF_MILLIS = 2;
+
+    private static final long PUBLISH_MAX_BACKOFF_MILLIS = 100;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final CatalogCacheService catalogCacheService;
+
+    private final BookSearchService bookSearchService;
+
+    private final AutocompleteService autocompleteService;
+
+    private final BookFacetService bookFacetService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository, BookMapper bookMapper,
+                           OutboxService outboxService, ObjectMapper objectMapper, EntityManager entityManager,
+                           CatalogCacheService catalogCacheService, BookSearchService bookSearchService,
+                           AutocompleteService autocompleteService, BookFacetService bookFacetService,
+                           TransactionTemplate transactionTemplate) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.bookMapper = bookMapper;
-        this.messageProducer = messageProducer;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.catalogCacheService = catalogCacheService;
+        this.bookSearchService = bookSearchService;
+        this.autocompleteService = autocompleteService;
+        this.bookFacetService = bookFacetService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
@@ -61,17 +130,100 @@ public class BookServiceImpl implements BookService {
         book.setSynopsis(bookDTO.getSynopsis());
         book.setStatus(bookDTO.getStatus() != null ? bookDTO.getStatus() : Status.DRAFT);
         book.setAuthors(authors);
-        Book saved = bookRepository.save(book);
+        book.setFlag(Flag.ENABLED);
+        Book saved;
+        bookFacetService.beginWrite();
+        try {
+            saved = bookRepository.save(book);
+            bookFacetService.record(null, saved);
+        } finally {
+            bookFacetService.endWrite();
+        }
+        bookSearchService.index(saved);
+        autocompleteService.indexBook(saved);
+        catalogCacheService.booksCreated(List.of(saved.getId()));
 
         return bookMapper.bookToBookDTO(saved);
     }
 
+    @Override
+    public List<BookDTO> createBooks(List<BookDTO> bookDTOs) {
+        if (bookDTOs == null || bookDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Book list cannot be empty");
+        }
+        if (bookDTOs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Cannot create more than " + MAX_BULK_SIZE + " books at once");
+        }
+        logger.info("Creating {} books", bookDTOs.size());
+
+        List<Book> books;
+        bookFacetService.beginWrite();
+        try {
+            books = transactionTemplate.execute(status -> insertBooks(bookDTOs));
+            books.forEach(book -> bookFacetService.record(null, book));
+        } finally {
+            bookFacetService.endWrite();
+        }
+
+        // indexes and replicas only hear about books once the whole request has committed
+        List<BookDTO> created = new ArrayList<>(books.size());
+        List<Long> bookIds = new ArrayList<>(books.size());
+        for (Book book : books) {
+            bookSearchService.index(book);
+            autocompleteService.indexBook(book);
+            bookIds.add(book.getId());
+            created.add(bookMapper.bookToBookDTO(book));
+        }
+        catalogCacheService.booksCreated(bookIds);
+
+        logger.info("{} books created", created.size());
+        return created;
+    }
+
+    private List<Book> insertBooks(List<BookDTO> bookDTOs) {
+        Set<Long> authorIds = new LinkedHashSet<>();
+        for (BookDTO bookDTO : bookDTOs) {
+            if (bookDTO.getAuthors() == null || bookDTO.getAuthors().isEmpty()) {
+                throw new IllegalArgumentException("Author list cannot be empty");
+            }
+            bookDTO.getAuthors().forEach(authorDTO -> authorIds.add(authorDTO.getId()));
+        }
+
+        Map<Long, Author> authorsById = authorRepository.findAllByIdIn(new ArrayList<>(authorIds)).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        if (authorsById.size() != authorIds.size()) {
+            throw new RecordNotFoundException("Some authors were not found");
+        }
+
+        List<Book> books = new ArrayList<>(bookDTOs.size());
+        for (BookDTO bookDTO : bookDTOs) {
+            Book book = new Book();
+            book.setTitle(bookDTO.getTitle());
+            book.setGenre(bookDTO.getGenre());
+            book.setSynopsis(bookDTO.getSynopsis());
+            book.setStatus(bookDTO.getStatus() != null ? bookDTO.getStatus() : Status.DRAFT);
+            book.setAuthors(bookDTO.getAuthors().stream()
+                    .map(authorDTO -> authorsById.get(authorDTO.getId()))
+                    .collect(Collectors.toList()));
+            book.setFlag(Flag.ENABLED);
+            books.add(book);
+        }
+
+        for (int from = 0; from < books.size(); from += BULK_FLUSH_SIZE) {
+            bookRepository.saveAll(books.subList(from, Math.min(from + BULK_FLUSH_SIZE, books.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return books;
+    }
+
     @Override
     public BookDTO updateBook(BookDTO bookDTO, Long bookId) {
         logger.info("update book details {}", bookId);
 
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RecordNotFoundException("Book Not Found: " + bookId));
+        BookFacet before = BookFacet.of(book);
 
         book.setTitle(bookDTO.getTitle());
         book.setGenre(bookDTO.getGenre());
@@ -83,7 +235,17 @@ public class BookServiceImpl implements BookService {
         List<Author> authors = fetchAuthorsFromDTO(bookDTO.getAuthors());
         book.setAuthors(authors);
 
-        Book updated = bookRepository.save(book);
+        Book updated;
+        bookFacetService.beginWrite();
+        try {
+            updated = bookRepository.save(book);
+            bookFacetService.record(before, updated);
+        } finally {
+            bookFacetService.endWrite();
+        }
+        bookSearchService.index(updated);
+        autocompleteService.indexBook(updated);
+        catalogCacheService.bookChanged(bookId);
 
         return bookMapper.bookToBookDTO(updated);
     }
@@ -107,78 +269,194 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public List<BookDTO> getAllBooks(List<Long> authorIds) {
-        logger.info("fetching books by {}", authorIds);
-        List<Book> books;
-        List<BookDTO> bookDTOs = new ArrayList<>();
-        if (authorIds == null || authorIds.isEmpty()) {
-            books = bookRepository.findAllByFlag(Flag.ENABLED);
-        }else{
-            List<Author> authors = authorRepository.findAllByIdIn(authorIds);
-            books = bookRepository.findAllByAuthorsAndFlag(authors, Flag.ENABLED);
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> getAllBooks(List<Long> authorIds, String cursor, Integer limit) {
+        logger.info("fetching books by {} after cursor {}", authorIds, cursor);
+        int pageSize = CursorPage.limitOf(limit);
+        Long afterId = CursorPage.decode(cursor);
+        if (authorIds != null && !authorIds.isEmpty()) {
+            return getBooksByAuthors(authorIds, afterId, pageSize);
         }
+        List<Book> books = bookRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, afterId, Limit.of(pageSize + 1));
 
-        books.forEach(book -> {
-           bookDTOs.add(bookMapper.bookToBookDTO(book));
-        });
+        return CursorPage.of(books, pageSize, Book::getId, bookMapper::bookToBookDTO);
+    }
+
+    // projections straight off the book_authors join, so no Author or Book entity is hydrated
+    private CursorPage<BookDTO> getBooksByAuthors(List<Long> authorIds, Long afterId, int pageSize) {
+        List<Long> distinctIds = authorIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        // every chunk returns its own first pageSize + 1 books, which always contain the overall first pageSize + 1
+        TreeMap<Long, BookListRow> rows = new TreeMap<>();
+        for (int from = 0; from < distinctIds.size(); from += AUTHOR_FILTER_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + AUTHOR_FILTER_CHUNK_SIZE, distinctIds.size()));
+            bookRepository.findListRowsByAuthorIds(chunk, Flag.ENABLED, afterId, Limit.of(pageSize + 1))
+                    .forEach(row -> rows.put(row.id(), row));
+        }
+        List<BookListRow> pageRows = rows.values().stream().limit(pageSize + 1L).toList();
+        if (pageRows.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
 
-        return bookDTOs;
+        List<Long> bookIds = pageRows.stream().limit(pageSize).map(BookListRow::id).toList();
+        Map<Long, List<AuthorDTO>> authorsByBook = new HashMap<>();
+        for (BookAuthorRow row : bookRepository.findAuthorRowsByBookIds(bookIds)) {
+            authorsByBook.computeIfAbsent(row.bookId(), id -> new ArrayList<>())
+                    .add(bookMapper.bookAuthorRowToAuthorSummaryDTO(row));
+        }
+
+        return CursorPage.of(pageRows, pageSize, BookListRow::id, row -> {
+            BookDTO bookDTO = bookMapper.bookListRowToBookDTO(row);
+            bookDTO.setAuthors(authorsByBook.getOrDefault(row.id(), List.of()));
+            return bookDTO;
+        });
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
     public BookDTO getBookById(Long bookId) {
         logger.info("Getting book details {}", bookId);
 
-        Book book = bookRepository.findById(bookId)
+        Book book = bookRepository.findWithAuthorsById(bookId)
                 .orElseThrow(() -> new RecordNotFoundException("Book Not Found "+bookId));
 
         return bookMapper.bookToBookDTO(book);
     }
 
+    // derived from the representation being returned, so a cached body and its validator always agree;
+    // the book embeds its authors, so their edits change the validator too
+    @Override
+    public String getBookETag(BookDTO book) {
+        LocalDateTime authorsModified = book.getAuthors() == null ? null : book.getAuthors().stream()
+                .map(AuthorDTO::getLastModifiedDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new AuditStamp(book.getId(), book.getCreatedDate(), book.getLastModifiedDate(), authorsModified).eTag();
+    }
+
     @Override
     public BookDTO publishBook(PublishDto<BookDTO> publishDto) {
-        try{
-            logger.info("Publishing book");
+        Long bookId = publishDto.getBookDTO().getId();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return announcePublish(commitPublish(publishDto));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= PUBLISH_MAX_ATTEMPTS) {
+                    logger.warn("Giving up publishing book {} after {} conflicting attempts", bookId, attempt);
+                    throw new ConcurrentUpdateException("Book " + bookId + " was modified concurrently, please retry");
+                }
+                logger.info("Publishing book {} conflicted on attempt {}, retrying", bookId, attempt);
+                pauseBeforeRetry(bookId, attempt);
+            }
+        }
+    }
+
+    // full jitter spreads retrying callers out instead of colliding again in lockstep
+    private void pauseBeforeRetry(Long bookId, int attempt) {
+        long ceiling = Math.min(PUBLISH_MAX_BACKOFF_MILLIS, PUBLISH_BASE_BACKOFF_MILLIS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Book " + bookId + " was modified concurrently, please retry");
+        }
+    }
 
-            Book book = bookRepository.findById(publishDto.getBookDTO().getId())
-                    .orElseThrow(() -> new RecordNotFoundException("Book Not Found "+publishDto.getBookDTO().getId()));
+    // the version check happens when this transaction commits
+    private PublishedBook applyPublish(PublishDto<BookDTO> publishDto) {
+        logger.info("Publishing book");
 
-            if(publishDto.getPublishedCopies() > book.getTotalCopies()){
-                throw new RuntimeException("Not enough copies available");
-            }
+        Book book = bookRepository.findById(publishDto.getBookDTO().getId())
+                .orElseThrow(() -> new RecordNotFoundException("Book Not Found "+publishDto.getBookDTO().getId()));
+
+        if(publishDto.getPublishedCopies() > book.getTotalCopies()){
+            throw new RuntimeException("Not enough copies available");
+        }
+        BookFacet before = BookFacet.of(book);
 
-            book.setStatus(Status.PUBLISHED);
-            book.setPublishedAt(LocalDateTime.now());
-            book.setTotalCopies(book.getTotalCopies() - publishDto.getPublishedCopies());
-            Book saved = bookRepository.save(book);
+        book.setStatus(Status.PUBLISHED);
+        book.setPublishedAt(LocalDateTime.now());
+        book.setTotalCopies(book.getTotalCopies() - publishDto.getPublishedCopies());
+        Book saved = bookRepository.save(book);
+        BookDTO bookDTO = bookMapper.bookToBookDTO(saved);
 
-            BookDTO bookDTO = bookMapper.bookToBookDTO(saved);
-            publishDto.setBookDTO(bookDTO);
-            publishDto.setRemainingCopies(bookDTO.getTotalCopies() - publishDto.getPublishedCopies());
+        publishDto.setBookDTO(bookDTO);
+        publishDto.setRemainingCopies(bookDTO.getTotalCopies() - publishDto.getPublishedCopies());
+        // relays and consumer redeliveries repeat this id, which is what inventory de-duplicates on
+        publishDto.setEventId(UUID.randomUUID().toString());
+        publishDto.setOccurredAt(book.getPublishedAt());
+        byte[] payload = JsonEventCodec.encode(publishDto);
+        logger.info("Published book {} ({} bytes)", saved.getId(), payload.length);
 
-            objectMapper.registerModule(new JavaTimeModule());
-            String payload = objectMapper.writeValueAsString(publishDto);
-            logger.info("Published book: {}", payload);
+        // the outbox row shares this transaction, so the event exists exactly when the publish does
+        outboxService.enqueue(KafkaTopics.BOOK_PUBLISHED, String.valueOf(saved.getId()), payload);
 
-            messageProducer.sendMessage(KafkaTopics.BOOK_PUBLISHED, payload);
+        return new PublishedBook(before, book, bookDTO);
+    }
 
-            return bookDTO;
-        }catch (JsonProcessingException e){
-            throw new RuntimeException(e.getMessage());
+    private PublishedBook commitPublish(PublishDto<BookDTO> publishDto) {
+        bookFacetService.beginWrite();
+        try {
+            PublishedBook published = transactionTemplate.execute(status -> applyPublish(publishDto));
+            bookFacetService.record(published.before(), published.book());
+            return published;
+        } finally {
+            bookFacetService.endWrite();
         }
     }
 
+    private BookDTO announcePublish(PublishedBook published) {
+        catalogCacheService.bookChanged(published.book().getId());
+
+        return published.bookDTO();
+    }
+
+    private record PublishedBook(BookFacet before, Book book, BookDTO bookDTO) {
+    }
+
     @Override
     public BookDTO deleteBook(Long bookId) {
         logger.info("Deleting book details {}", bookId);
 
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RecordNotFoundException("Book Not Found "+bookId));
+        BookFacet before = BookFacet.of(book);
 
         book.setFlag(Flag.DISABLED);
 
-        book = bookRepository.save(book);
+        bookFacetService.beginWrite();
+        try {
+            book = bookRepository.save(book);
+            bookFacetService.record(before, book);
+        } finally {
+            bookFacetService.endWrite();
+        }
+        bookSearchService.remove(bookId);
+        autocompleteService.removeBook(bookId);
+        catalogCacheService.bookChanged(bookId);
 
         return bookMapper.bookToBookDTO(book);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream outputStream) throws IOException {
+        logger.info("Exporting books");
+
+        try (Stream<Book> books = bookRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED);
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+            Iterator<Book> iterator = books.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                writer.write(bookMapper.bookToBookDTO(book));
+                entityManager.detach(book);
+                // lazily loaded authors stay managed after the book is detached
+                if (++written % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
 }
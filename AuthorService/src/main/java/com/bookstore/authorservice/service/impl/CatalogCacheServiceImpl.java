@@ -0,0 +1,114 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.config.CacheConfig;
+import com.bookstore.authorservice.config.MessageProducer;
+import com.bookstore.authorservice.config.ReplicaIdentity;
+import com.bookstore.authorservice.mapper.dtos.CacheStatsDTO;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.bookstorestarter.config.KafkaTopics;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    Logger logger = LoggerFactory.getLogger(CatalogCacheServiceImpl.class);
+
+    private final CacheManager cacheManager;
+
+    private final BookRepository bookRepository;
+
+    private final MessageProducer messageProducer;
+
+    private final ReplicaIdentity replicaIdentity;
+
+    public CatalogCacheServiceImpl(CacheManager cacheManager, BookRepository bookRepository,
+                                   MessageProducer messageProducer, ReplicaIdentity replicaIdentity) {
+        this.cacheManager = cacheManager;
+        this.bookRepository = bookRepository;
+        this.messageProducer = messageProducer;
+        this.replicaIdentity = replicaIdentity;
+    }
+
+    @Override
+    public void authorChanged(Long authorId) {
+        evictAuthor(authorId);
+        // other replicas evict when they receive the id, this one skips it by the origin header
+        publish(KafkaTopics.AUTHOR_CHANGED, String.valueOf(authorId), List.of(authorId));
+    }
+
+    @Override
+    public void bookChanged(Long bookId) {
+        evictBook(bookId);
+        publish(KafkaTopics.BOOK_CHANGED, String.valueOf(bookId), List.of(bookId));
+    }
+
+    // new ids were never cached and have no books yet, so one message lets the other replicas index them
+    @Override
+    public void authorsCreated(Collection<Long> authorIds) {
+        if (!authorIds.isEmpty()) {
+            publish(KafkaTopics.AUTHORS_CREATED, null, authorIds);
+        }
+    }
+
+    @Override
+    public void booksCreated(Collection<Long> bookIds) {
+        if (!bookIds.isEmpty()) {
+            publish(KafkaTopics.BOOKS_CREATED, null, bookIds);
+        }
+    }
+
+    @Override
+    public void evictAuthor(Long authorId) {
+        logger.info("Evicting cached author {}", authorId);
+        evict(CacheConfig.AUTHORS_CACHE, authorId);
+
+        // cached book details embed their authors
+        for (Long bookId : bookRepository.findIdsByAuthorId(authorId)) {
+            evict(CacheConfig.BOOKS_CACHE, bookId);
+        }
+    }
+
+    @Override
+    public void evictBook(Long bookId) {
+        logger.info("Evicting cached book {}", bookId);
+        evict(CacheConfig.BOOKS_CACHE, bookId);
+    }
+
+    @Override
+    public List<CacheStatsDTO> getCacheStats() {
+        List<CacheStatsDTO> cacheStats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                cacheStats.add(new CacheStatsDTO(name, nativeCache.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return cacheStats;
+    }
+
+    private void publish(String topic, String key, Collection<Long> ids) {
+        String message = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        messageProducer.sendMessage(topic, key, message, List.of(replicaIdentity.originHeader()));
+    }
+
+    private void evict(String cacheName, Long key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.importer.CsvRecordReader;
+import com.bookstore.authorservice.importer.EmailBloomFilter;
+import com.bookstore.authorservice.importer.ImportFormat;
+import com.bookstore.authorservice.importer.ImportRecord;
+import com.bookstore.authorservice.importer.NdjsonRecordReader;
+import com.bookstore.authorservice.importer.RecordReader;
+import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.dtos.ImportErrorDTO;
+import com.bookstore.authorservice.mapper.dtos.ImportReportDTO;
+import com.bookstore.authorservice.mapper.mappers.AuthorMapper;
+import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.authorservice.service.ImportService;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    Logger logger = LoggerFactory.getLogger(ImportServiceImpl.class);
+
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // headroom for the emails an import adds before the filter's false positive rate drifts up
+    private static final long EXPECTED_NEW_AUTHORS = 100_000;
+
+    private static final double EMAIL_FALSE_POSITIVE_RATE = 0.01;
+
+    private final AuthorRepository authorRepository;
+
+    private final BookRepository bookRepository;
+
+    private final AuthorMapper authorMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CatalogCacheService catalogCacheService;
+
+    private final AutocompleteService autocompleteService;
+
+    private final BookSearchService bookSearchService;
+
+    private final BookFacetService bookFacetService;
+
+    public ImportServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository,
+                             AuthorMapper authorMapper, ObjectMapper objectMapper, Validator validator,
+                             EntityManager entityManager, TransactionTemplate transactionTemplate,
+                             CatalogCacheService catalogCacheService, AutocompleteService autocompleteService,
+                             BookSearchService bookSearchService, BookFacetService bookFacetService) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.authorMapper = authorMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogCacheService = catalogCacheService;
+        this.autocompleteService = autocompleteService;
+        this.bookSearchService = bookSearchService;
+        this.bookFacetService = bookFacetService;
+    }
+
+    @Override
+    public ImportReportDTO importAuthors(InputStream input, ImportFormat format) throws IOException {
+        EmailBloomFilter knownEmails = loadKnownEmails();
+        try (RecordReader<AuthorDTO> reader = openReader(input, format, AuthorDTO.class, this::authorFromRow)) {
+            return runImport("authors", reader, (batch, report) -> writeAuthors(batch, knownEmails, report));
+        }
+    }
+
+    @Override
+    public ImportReportDTO importBooks(InputStream input, ImportFormat format) throws IOException {
+        try (RecordReader<BookDTO> reader = openReader(input, format, BookDTO.class, this::bookFromRow)) {
+            return runImport("books", reader, this::writeBooks);
+        }
+    }
+
+    private <T> ImportReportDTO runImport(String type, RecordReader<T> reader,
+                                          BiConsumer<List<ImportRecord<T>>, ImportReportDTO> writer) throws IOException {
+        long start = System.nanoTime();
+        logger.info("Importing {}", type);
+        ImportReportDTO report = new ImportReportDTO(type);
+
+        List<ImportRecord<T>> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        ImportRecord<T> record;
+        while ((record = reader.next()) != null) {
+            report.setProcessed(report.getProcessed() + 1);
+            String error = record.isValid() ? validate(record.value()) : record.error();
+            if (error != null) {
+                reject(report, record.line(), error);
+                continue;
+            }
+            batch.add(record);
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                writer.accept(batch, report);
+                batch.clear();
+                logger.info("Imported {} of {} {} so far, {} failed",
+                        report.getImported(), report.getProcessed(), type, report.getFailed());
+            }
+        }
+        if (!batch.isEmpty()) {
+            writer.accept(batch, report);
+        }
+
+        // rows rejected while parsing are reported before rows rejected at write time, so restore file order
+        report.getErrors().sort(Comparator.comparingLong(ImportErrorDTO::getLine));
+        report.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Import of {} finished: {} processed, {} imported, {} failed in {} ms", type,
+                report.getProcessed(), report.getImported(), report.getFailed(), report.getDurationMillis());
+        return report;
+    }
+
+    private void writeAuthors(List<ImportRecord<AuthorDTO>> batch, EmailBloomFilter knownEmails, ImportReportDTO report) {
+        Set<String> batchEmails = new HashSet<>();
+        List<ImportRecord<AuthorDTO>> candidates = new ArrayList<>(batch.size());
+        List<String> probableDuplicates = new ArrayList<>();
+        for (ImportRecord<AuthorDTO> record : batch) {
+            String email = record.value().getEmail();
+            if (!batchEmails.add(email.toLowerCase(Locale.ROOT))) {
+                reject(report, record.line(), "Duplicate author email " + email);
+                continue;
+            }
+            if (knownEmails.mightContain(email)) {
+                probableDuplicates.add(email);
+            }
+            candidates.add(record);
+        }
+
+        // only emails the filter cannot rule out are looked up, in one query per batch
+        Set<String> existingEmails = new HashSet<>();
+        if (!probableDuplicates.isEmpty()) {
+            authorRepository.findAllByEmailIn(probableDuplicates)
+                    .forEach(author -> existingEmails.add(author.getEmail().toLowerCase(Locale.ROOT)));
+        }
+
+        List<ImportRecord<AuthorDTO>> accepted = new ArrayList<>(candidates.size());
+        List<Author> authors = new ArrayList<>(candidates.size());
+        for (ImportRecord<AuthorDTO> record : candidates) {
+            String email = record.value().getEmail();
+            if (existingEmails.contains(email.toLowerCase(Locale.ROOT))) {
+                reject(report, record.line(), "Author already exists " + email);
+                continue;
+            }
+            Author author = authorMapper.authorDTOToAuthor(record.value());
+            author.setId(null);
+            author.setFlag(Flag.ENABLED);
+            authors.add(author);
+            accepted.add(record);
+        }
+
+        if (!saveBatch(authors, accepted, report, authorRepository::saveAll)) {
+            return;
+        }
+        List<Long> authorIds = new ArrayList<>(authors.size());
+        for (Author author : authors) {
+            knownEmails.put(author.getEmail());
+            autocompleteService.indexAuthor(author);
+            authorIds.add(author.getId());
+        }
+        // new authors were never cached, so replicas get one message per batch and no eviction
+        catalogCacheService.authorsCreated(authorIds);
+        report.setImported(report.getImported() + authors.size());
+    }
+
+    private void writeBooks(List<ImportRecord<BookDTO>> batch, ImportReportDTO report) {
+        Set<Long> authorIds = new HashSet<>();
+        for (ImportRecord<BookDTO> record : batch) {
+            record.value().getAuthors().forEach(authorDTO -> authorIds.add(authorDTO.getId()));
+        }
+        authorIds.remove(null);
+        Map<Long, Author> authorsById = authorRepository.findAllByIdIn(new ArrayList<>(authorIds)).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+
+        List<ImportRecord<BookDTO>> accepted = new ArrayList<>(batch.size());
+        List<Book> books = new ArrayList<>(batch.size());
+        for (ImportRecord<BookDTO> record : batch) {
+            BookDTO bookDTO = record.value();
+            List<Author> authors = new ArrayList<>(bookDTO.getAuthors().size());
+            Long missingAuthorId = null;
+            for (AuthorDTO authorDTO : bookDTO.getAuthors()) {
+                Author author = authorDTO.getId() != null ? authorsById.get(authorDTO.getId()) : null;
+                if (author == null) {
+                    missingAuthorId = authorDTO.getId();
+                    break;
+                }
+                authors.add(author);
+            }
+            if (authors.size() != bookDTO.getAuthors().size()) {
+                reject(report, record.line(), "Author Not Found " + missingAuthorId);
+                continue;
+            }
+
+            Book book = new Book();
+            book.setTitle(bookDTO.getTitle());
+            book.setGenre(bookDTO.getGenre());
+            book.setSynopsis(bookDTO.getSynopsis());
+            book.setStatus(bookDTO.getStatus() != null ? bookDTO.getStatus() : Status.DRAFT);
+            book.setAuthors(authors);
+            book.setFlag(Flag.ENABLED);
+            String error = validate(book);
+            if (error != null) {
+                reject(report, record.line(), error);
+                continue;
+            }
+            books.add(book);
+            accepted.add(record);
+        }
+
+        bookFacetService.beginWrite();
+        try {
+            if (!saveBatch(books, accepted, report, bookRepository::saveAll)) {
+                return;
+            }
+            books.forEach(book -> bookFacetService.record(null, book));
+        } finally {
+            bookFacetService.endWrite();
+        }
+        List<Long> bookIds = new ArrayList<>(books.size());
+        for (Book book : books) {
+            bookSearchService.index(book);
+            autocompleteService.indexBook(book);
+            bookIds.add(book.getId());
+        }
+        catalogCacheService.booksCreated(bookIds);
+        report.setImported(report.getImported() + books.size());
+    }
+
+    // one transaction per batch keeps memory bounded and limits a failure to the rows in that batch
+    private <E> boolean saveBatch(List<E> entities, List<? extends ImportRecord<?>> accepted,
+                                  ImportReportDTO report, Consumer<List<E>> save) {
+        if (entities.isEmpty()) {
+            return false;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                save.accept(entities);
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Import batch of {} rows rejected", entities.size(), e);
+            accepted.forEach(record -> reject(report, record.line(), "Batch rejected: " + e.getMessage()));
+            return false;
+        }
+    }
+
+    private EmailBloomFilter loadKnownEmails() {
+        EmailBloomFilter knownEmails = new EmailBloomFilter(
+                authorRepository.count() + EXPECTED_NEW_AUTHORS, EMAIL_FALSE_POSITIVE_RATE);
+        transactionTemplate.execute(status -> {
+            try (Stream<String> emails = authorRepository.streamAllEmails()) {
+                emails.forEach(knownEmails::put);
+            }
+            return null;
+        });
+        return knownEmails;
+    }
+
+    private <T> RecordReader<T> openReader(InputStream input, ImportFormat format, Class<T> type,
+                                           Function<Map<String, String>, T> rowMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (format == ImportFormat.CSV) {
+            return new CsvRecordReader<>(reader, rowMapper);
+        }
+        return new NdjsonRecordReader<>(reader, objectMapper.readerFor(type));
+    }
+
+    private AuthorDTO authorFromRow(Map<String, String> row) {
+        AuthorDTO authorDTO = new AuthorDTO();
+        authorDTO.setFirstName(row.get("firstname"));
+        authorDTO.setLastName(row.get("lastname"));
+        authorDTO.setEmail(row.get("email"));
+        authorDTO.setBio(row.get("bio"));
+        return authorDTO;
+    }
+
+    private BookDTO bookFromRow(Map<String, String> row) {
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setTitle(row.get("title"));
+        bookDTO.setSynopsis(row.get("synopsis"));
+        bookDTO.setGenre(parseEnum(Genre.class, "genre", row.get("genre")));
+        bookDTO.setStatus(parseEnum(Status.class, "status", row.get("status")));
+
+        List<AuthorDTO> authors = new ArrayList<>();
+        String authorIds = row.get("authorids");
+        if (authorIds != null) {
+            for (String authorId : authorIds.split(";")) {
+                AuthorDTO authorDTO = new AuthorDTO();
+                try {
+                    authorDTO.setId(Long.valueOf(authorId.trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("authorIds has an invalid id " + authorId);
+                }
+                authors.add(authorDTO);
+            }
+        }
+        bookDTO.setAuthors(authors);
+        return bookDTO;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(column + " has an unknown value " + value);
+        }
+    }
+
+    private String validate(Object value) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(value);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void reject(ImportReportDTO report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportErrorDTO(line, message));
+        }
+    }
+}
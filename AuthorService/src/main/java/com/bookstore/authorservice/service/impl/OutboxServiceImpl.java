@@ -0,0 +1,121 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.config.MessageProducer;
+import com.bookstore.authorservice.entity.OutboxEvent;
+import com.bookstore.authorservice.repository.OutboxEventRepository;
+import com.bookstore.authorservice.service.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    Logger logger = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    private static final int RELAY_BATCH_SIZE = 500;
+
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final MessageProducer messageProducer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration lease;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, MessageProducer messageProducer,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${bookstore.outbox.lease:PT1M}") Duration lease) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.messageProducer = messageProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.lease = lease;
+    }
+
+    // the row commits or rolls back together with the caller's own changes
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, byte[] payload) {
+        outboxEventRepository.save(new OutboxEvent(topic, key, payload));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${bookstore.outbox.relay-interval:PT0.5S}")
+    public int relay() {
+        int relayed = 0;
+        int sent;
+        do {
+            sent = relayBatch();
+            relayed += sent;
+        } while (sent == RELAY_BATCH_SIZE);
+
+        if (relayed > 0) {
+            logger.info("Relayed {} outbox events", relayed);
+        }
+        return relayed;
+    }
+
+    // rows are claimed in a short transaction and published without holding their locks; they are deleted only
+    // after the broker acknowledged every send, and a failure hands the lease back so the next run retries them
+    private int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            sends[i] = messageProducer.sendMessage(event.getTopic(), event.getMessageKey(), event.getPayload());
+        }
+        try {
+            CompletableFuture.allOf(sends).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(ids);
+            throw new IllegalStateException("Interrupted while relaying outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            release(ids);
+            throw new IllegalStateException("Outbox relay failed, will retry: " + e.getMessage(), e);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+        return events.size();
+    }
+
+    // the lease outlives the send timeout, so a relay that dies mid-batch only delays its rows
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository
+                .findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(now, Limit.of(RELAY_BATCH_SIZE));
+        if (!events.isEmpty()) {
+            outboxEventRepository.leaseAll(events.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+        }
+        return events;
+    }
+
+    private void release(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.leaseAll(ids, null));
+        } catch (RuntimeException e) {
+            logger.warn("Could not release {} outbox events, they are retried once their lease expires", ids.size(), e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.Util.FairJobQueue;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.enums.PublishJobStatus;
+import com.bookstore.authorservice.exception.JobQueueFullException;
+import com.bookstore.authorservice.exception.RecordNotFoundException;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.dtos.PublishJobDTO;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.service.BookService;
+import com.bookstore.authorservice.service.PublishJobService;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+@Service
+public class PublishJobServiceImpl implements PublishJobService {
+
+    Logger logger = LoggerFactory.getLogger(PublishJobServiceImpl.class);
+
+    static final String DEFAULT_PUBLISHER = "anonymous";
+
+    private final BookService bookService;
+
+    private final BookRepository bookRepository;
+
+    private final FairJobQueue<QueuedPublish> queue;
+
+    private final ExecutorService workers;
+
+    private final Cache<String, PublishJobDTO> jobs;
+
+    public PublishJobServiceImpl(BookService bookService, BookRepository bookRepository,
+                                 @Value("${bookstore.publish-jobs.workers:4}") int workers,
+                                 @Value("${bookstore.publish-jobs.capacity:10000}") int capacity,
+                                 @Value("${bookstore.publish-jobs.retention:PT1H}") Duration retention) {
+        this.bookService = bookService;
+        this.bookRepository = bookRepository;
+        this.queue = new FairJobQueue<>(capacity);
+        this.workers = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("publish-job-"));
+        this.jobs = Caffeine.newBuilder().expireAfter(finishedJobExpiry(retention)).build();
+    }
+
+    // the retention clock starts when a job finishes; queued and running jobs stay visible however long they wait
+    static Expiry<String, PublishJobDTO> finishedJobExpiry(Duration retention) {
+        long retentionNanos = retention.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String jobId, PublishJobDTO job, long currentTime) {
+                return lifetime(job);
+            }
+
+            @Override
+            public long expireAfterUpdate(String jobId, PublishJobDTO job, long currentTime, long currentDuration) {
+                return lifetime(job);
+            }
+
+            @Override
+            public long expireAfterRead(String jobId, PublishJobDTO job, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+
+            private long lifetime(PublishJobDTO job) {
+                return job.getFinishedAt() != null ? retentionNanos : Long.MAX_VALUE;
+            }
+        };
+    }
+
+    @Override
+    public PublishJobDTO submit(PublishDto<BookDTO> publishDto, String publisher) {
+        Long bookId = validate(publishDto);
+        String owner = publisher == null || publisher.isBlank() ? DEFAULT_PUBLISHER : publisher;
+
+        PublishJobDTO job = new PublishJobDTO(UUID.randomUUID().toString(), owner, bookId,
+                publishDto.getPublishedCopies(), PublishJobStatus.QUEUED, LocalDateTime.now(), null, null, null, null);
+        jobs.put(job.getId(), job);
+        if (!queue.offer(owner, new QueuedPublish(job.getId(), publishDto))) {
+            jobs.invalidate(job.getId());
+            throw new JobQueueFullException("Publish queue is full, please retry later");
+        }
+        workers.execute(this::runNext);
+
+        logger.info("Queued publish job {} for book {} from {}", job.getId(), bookId, owner);
+        return job;
+    }
+
+    @Override
+    public PublishJobDTO getJob(String jobId) {
+        PublishJobDTO job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new RecordNotFoundException("Publish Job Not Found " + jobId);
+        }
+        return job;
+    }
+
+    // the same checks the synchronous publish makes, so a queued job is rejected up front rather than failing later
+    private Long validate(PublishDto<BookDTO> publishDto) {
+        if (publishDto.getBookDTO() == null || publishDto.getBookDTO().getId() == null) {
+            throw new IllegalArgumentException("Book id is required");
+        }
+        if (publishDto.getPublishedCopies() == null || publishDto.getPublishedCopies() <= 0) {
+            throw new IllegalArgumentException("Published copies must be positive");
+        }
+        Long bookId = publishDto.getBookDTO().getId();
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new RecordNotFoundException("Book Not Found " + bookId));
+        if (book.getTotalCopies() == null || publishDto.getPublishedCopies() > book.getTotalCopies()) {
+            throw new IllegalArgumentException("Not enough copies available");
+        }
+        return bookId;
+    }
+
+    // every submit posts one task, and each task runs whichever job is fairly next rather than its own
+    private void runNext() {
+        QueuedPublish next = queue.poll();
+        if (next == null) {
+            return;
+        }
+        update(next.jobId(), job -> {
+            job.setStatus(PublishJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+        });
+        try {
+            BookDTO book = bookService.publishBook(next.publishDto());
+            update(next.jobId(), job -> {
+                job.setBook(book);
+                job.setStatus(PublishJobStatus.SUCCEEDED);
+                job.setFinishedAt(LocalDateTime.now());
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Publish job {} failed: {}", next.jobId(), e.getMessage());
+            update(next.jobId(), job -> {
+                job.setError(e.getMessage());
+                job.setStatus(PublishJobStatus.FAILED);
+                job.setFinishedAt(LocalDateTime.now());
+            });
+        }
+    }
+
+    // stored jobs are never mutated in place, so a status read never sees a half-applied change
+    private void update(String jobId, Consumer<PublishJobDTO> change) {
+        jobs.asMap().computeIfPresent(jobId, (id, job) -> {
+            PublishJobDTO copy = new PublishJobDTO(job.getId(), job.getPublisher(), job.getBookId(),
+                    job.getPublishedCopies(), job.getStatus(), job.getSubmittedAt(), job.getStartedAt(),
+                    job.getFinishedAt(), job.getBook(), job.getError());
+            change.accept(copy);
+            return copy;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private record QueuedPublish(String jobId, PublishDto<BookDTO> publishDto) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.bookstore.authorservice.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FairJobQueueTest {
+
+    @Test
+    void poll_alternatesBetweenKeys() {
+        FairJobQueue<String> queue = new FairJobQueue<>(10);
+        queue.offer("busy", "b1");
+        queue.offer("busy", "b2");
+        queue.offer("busy", "b3");
+        queue.offer("quiet", "q1");
+
+        assertEquals("b1", queue.poll());
+        assertEquals("q1", queue.poll());
+        assertEquals("b2", queue.poll());
+        assertEquals("b3", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void offer_rejectsWhenAtCapacity() {
+        FairJobQueue<String> queue = new FairJobQueue<>(2);
+
+        assertTrue(queue.offer("a", "1"));
+        assertTrue(queue.offer("b", "2"));
+        assertFalse(queue.offer("c", "3"));
+        assertEquals(2, queue.size());
+
+        queue.poll();
+        assertTrue(queue.offer("c", "3"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.bookstore.authorservice.config;
+
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.bookstore.bookstorestarter.config.KafkaTopics.AUTHOR_CHANGED;
+import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOKS_CREATED;
+import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOK_CHANGED;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class MessageConsumerTest {
+
+    @Mock
+    private CatalogCacheService catalogCacheService;
+
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private BookFacetService bookFacetService;
+
+    private final ReplicaIdentity replicaIdentity = new ReplicaIdentity("replica-a");
+
+    private MessageConsumer messageConsumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        messageConsumer = new MessageConsumer(catalogCacheService, bookSearchService, autocompleteService,
+                bookFacetService, replicaIdentity);
+    }
+
+    @Test
+    void listenToAuthorChanged_fromAnotherReplica_evictsAndReindexes() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(AUTHOR_CHANGED, 0, 0L, "1", "1");
+        record.headers().add(new RecordHeader(ReplicaIdentity.ORIGIN_HEADER, "other".getBytes(StandardCharsets.UTF_8)));
+
+        messageConsumer.listenToAuthorChanged(record);
+
+        verify(catalogCacheService).evictAuthor(1L);
+        verify(bookSearchService).reindexAuthorBooks(1L);
+        verify(autocompleteService).reindexAuthor(1L);
+    }
+
+    @Test
+    void listenToAuthorChanged_fromThisReplica_isSkipped() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(AUTHOR_CHANGED, 0, 0L, "1", "1");
+        record.headers().add(replicaIdentity.originHeader());
+
+        messageConsumer.listenToAuthorChanged(record);
+
+        verifyNoInteractions(catalogCacheService, bookSearchService, autocompleteService);
+    }
+
+    @Test
+    void listenToBookChanged_fromThisReplica_isSkipped() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(BOOK_CHANGED, 0, 0L, "10", "10");
+        record.headers().add(replicaIdentity.originHeader());
+
+        messageConsumer.listenToBookChanged(record);
+
+        verifyNoInteractions(catalogCacheService, bookSearchService, autocompleteService, bookFacetService);
+    }
+
+    @Test
+    void listenToBookChanged_withoutOrigin_evictsAndReindexes() {
+        messageConsumer.listenToBookChanged(new ConsumerRecord<>(BOOK_CHANGED, 0, 0L, "10", "10"));
+
+        verify(catalogCacheService).evictBook(10L);
+        verify(bookSearchService).reindex(10L);
+        verify(autocompleteService).reindexBook(10L);
+        verify(bookFacetService).refresh();
+    }
+
+    @Test
+    void listenToBooksCreated_indexesAllIdsWithoutEvicting() {
+        messageConsumer.listenToBooksCreated(new ConsumerRecord<>(BOOKS_CREATED, 0, 0L, null, "10,11"));
+
+        verify(bookSearchService).reindex(List.of(10L, 11L));
+        verify(autocompleteService).reindexBooks(List.of(10L, 11L));
+        verify(bookFacetService).refresh();
+        verifyNoInteractions(catalogCacheService);
+    }
+}
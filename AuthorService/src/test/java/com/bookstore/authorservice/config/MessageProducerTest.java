@@ -0,0 +1,122 @@
+package com.bookstore.authorservice.config;
+
+import com.bookstore.authorservice.mapper.dtos.ProducerStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageProducerTest {
+
+    @Mock
+    private KafkaTemplate<String, byte[]> defaultTemplate;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> publishTemplate;
+
+    private ProducerMetrics producerMetrics;
+
+    private MessageProducer messageProducer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        producerMetrics = new ProducerMetrics();
+        TopicTemplates topicTemplates = new TopicTemplates(new TopicTemplates.Route(defaultTemplate, true),
+                Map.of("book.published", new TopicTemplates.Route(publishTemplate, false)), List.of());
+        messageProducer = new MessageProducer(topicTemplates, producerMetrics);
+    }
+
+    @Test
+    void sendMessage_routesByTopicAndDropsKeyForUnkeyedTopics() {
+        when(publishTemplate.send("book.published", null, bytes("payload"))).thenReturn(new CompletableFuture<>());
+        when(defaultTemplate.send("book.changed", "7", bytes("7"))).thenReturn(new CompletableFuture<>());
+
+        messageProducer.sendMessage("book.published", "1", "payload");
+        messageProducer.sendMessage("book.changed", "7", "7");
+
+        verify(publishTemplate).send("book.published", null, bytes("payload"));
+        verify(defaultTemplate).send("book.changed", "7", bytes("7"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendMessage_withHeaders_sendsThemOnTheRecord() {
+        when(defaultTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+        messageProducer.sendMessage("book.changed", "7", "7", List.of(new RecordHeader("origin", bytes("replica-1"))));
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(defaultTemplate).send(captor.capture());
+        ProducerRecord<String, byte[]> record = captor.getValue();
+        assertEquals("book.changed", record.topic());
+        assertEquals("7", record.key());
+        assertArrayEquals(bytes("7"), record.value());
+        assertArrayEquals(bytes("replica-1"), record.headers().lastHeader("origin").value());
+        assertEquals(1, stats().getInFlight());
+    }
+
+    @Test
+    void sendMessage_recordsInFlightSentAndFailed() {
+        CompletableFuture<SendResult<String, byte[]>> first = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, byte[]>> second = new CompletableFuture<>();
+        when(defaultTemplate.send("book.changed", "1", bytes("1"))).thenReturn(first);
+        when(defaultTemplate.send("book.changed", "2", bytes("2"))).thenReturn(second);
+
+        messageProducer.sendMessage("book.changed", "1", "1");
+        CompletableFuture<SendResult<String, byte[]>> failing = messageProducer.sendMessage("book.changed", "2", "2");
+        assertEquals(2, stats().getInFlight());
+
+        first.complete(null);
+        second.completeExceptionally(new IllegalStateException("broker down"));
+
+        ProducerStatsDTO stats = stats();
+        assertEquals(0, stats.getInFlight());
+        assertEquals(1, stats.getSent());
+        assertEquals(1, stats.getFailed());
+        assertTrue(failing.isCompletedExceptionally());
+    }
+
+    @Test
+    void profileFor_fallsBackToDefaults() {
+        KafkaProducerProperties properties = new KafkaProducerProperties();
+        properties.getDefaults().setCompression("lz4");
+        properties.getDefaults().setBatchSize(16384);
+        KafkaProducerProperties.Profile publish = new KafkaProducerProperties.Profile();
+        publish.setBatchSize(65536);
+        publish.setKeyed(false);
+        properties.getTopics().put("book.published", publish);
+
+        KafkaProducerProperties.Profile merged = properties.profileFor("book.published");
+
+        assertEquals(65536, merged.getBatchSize());
+        assertEquals("lz4", merged.getCompression());
+        assertEquals(false, merged.isKeyed());
+        assertTrue(properties.profileFor("book.changed").isKeyed());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private ProducerStatsDTO stats() {
+        return producerMetrics.getStats().get(0);
+    }
+}
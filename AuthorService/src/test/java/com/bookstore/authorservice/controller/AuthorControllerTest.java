@@ -2,8 +2,10 @@ package com.bookstore.authorservice.controller;
 
 import com.bookstore.authorservice.exception.RecordAlreadyExistException;
 import com.bookstore.authorservice.exception.RecordNotFoundException;
+import com.bookstore.authorservice.mapper.dtos.AuthorBatchDTO;
 import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
 import com.bookstore.authorservice.service.AuthorService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.enums.Flag;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -12,17 +14,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static com.bookstore.authorservice.mock.MockData.getAuthorDTOs;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuthorController.class)
@@ -55,6 +66,35 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$.data[0].id").value(responseDTO.getId()));
     }
 
+    @Test
+    void createAuthors_shouldReturnSuccess() throws Exception {
+        List<AuthorDTO> responseDTOs = getAuthorDTOs();
+
+        when(authorService.createAuthors(anyList())).thenReturn(responseDTOs);
+
+        mockMvc.perform(
+                post(AuthorController.BASE_URL + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getAuthorDTOs())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Authors created successfully"))
+                .andExpect(jsonPath("$.data.length()").value(responseDTOs.size()));
+    }
+
+    @Test
+    void createAuthors_shouldReturnConflict_whenEmailAlreadyExists() throws Exception {
+        when(authorService.createAuthors(anyList()))
+                .thenThrow(new RecordAlreadyExistException("Author already exists test@test.com"));
+
+        mockMvc.perform(post(AuthorController.BASE_URL + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getAuthorDTOs())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.message").value("Author already exists test@test.com"));
+    }
+
     @Test
     void updateAuthor_shouldReturnSuccess() throws Exception {
         Long authorId = 1L;
@@ -98,17 +138,36 @@ class AuthorControllerTest {
     void getAuthors_shouldReturnSuccess() throws Exception {
         List<AuthorDTO> responseDTO = getAuthorDTOs();
 
-        when(authorService.getAllAuthors()).thenReturn(responseDTO);
+        String nextCursor = CursorPage.encode(responseDTO.get(1).getId());
+
+        when(authorService.getAllAuthors("abc", 2)).thenReturn(new CursorPage<>(responseDTO, nextCursor));
 
         mockMvc.perform(
                         get(AuthorController.BASE_URL)
+                                .param("cursor", "abc")
+                                .param("limit", "2")
                                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.valid").value(true))
                 .andExpect(jsonPath("$.message").value("Authors retrieved successfully"))
                 .andExpect(jsonPath("$.data.size()").value(responseDTO.size()))
                 .andExpect(jsonPath("$.data[0].id").value(responseDTO.get(0).getId()))
-                .andExpect(jsonPath("$.data[1].id").value(responseDTO.get(1).getId()));
+                .andExpect(jsonPath("$.data[1].id").value(responseDTO.get(1).getId()))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor));
+    }
+
+    @Test
+    void getAuthors_whenLimitInvalid_shouldReturnBadRequest() throws Exception {
+        when(authorService.getAllAuthors(null, 0))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 500"));
+
+        mockMvc.perform(
+                        get(AuthorController.BASE_URL)
+                                .param("limit", "0")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.message").value("Limit must be between 1 and 500"));
     }
 
     @Test
@@ -203,4 +262,77 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$.message").value("Author Not Found "+requestDto.getId()))
                 .andExpect(jsonPath("$.data").doesNotExist());
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportAuthors_shouldStreamNdjson() throws Exception {
+        List<AuthorDTO> responseDTO = getAuthorDTOs();
+        String expected = objectMapper.writeValueAsString(responseDTO.get(0)) + "\n"
+                + objectMapper.writeValueAsString(responseDTO.get(1)) + "\n";
+
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(expected.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(authorService).exportAuthors(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(AuthorController.BASE_URL + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expected));
+    }
+
+    @Test
+    void getAuthorsByIds_shouldReturnSuccess() throws Exception {
+        List<AuthorDTO> responseDTO = getAuthorDTOs();
+        List<Long> authorIds = List.of(1L, 2L, 3L);
+
+        when(authorService.getAuthorsByIds(authorIds)).thenReturn(new AuthorBatchDTO(responseDTO, List.of(3L)));
+
+        mockMvc.perform(
+                        post(AuthorController.BASE_URL + "/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(authorIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Authors retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].authors.size()").value(responseDTO.size()))
+                .andExpect(jsonPath("$.data[0].authors[0].id").value(responseDTO.get(0).getId()))
+                .andExpect(jsonPath("$.data[0].missingIds[0]").value(3));
+    }
+
+    @Test
+    void getAuthorById_shouldReturnETag() throws Exception {
+        Long authorId = 1L;
+
+        AuthorDTO author = getAuthorDTOs().get(0);
+        when(authorService.getAuthorById(authorId)).thenReturn(author);
+        when(authorService.getAuthorETag(author)).thenReturn("1-5f1e");
+
+        mockMvc.perform(
+                        get(AuthorController.BASE_URL+"/{authorId}", authorId)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-5f1e\""))
+                .andExpect(jsonPath("$.data[0].id").value(authorId));
+    }
+
+    @Test
+    void getAuthorById_whenETagMatches_shouldReturnNotModified() throws Exception {
+        Long authorId = 1L;
+
+        AuthorDTO author = getAuthorDTOs().get(0);
+        when(authorService.getAuthorById(authorId)).thenReturn(author);
+        when(authorService.getAuthorETag(author)).thenReturn("1-5f1e");
+
+        mockMvc.perform(
+                        get(AuthorController.BASE_URL+"/{authorId}", authorId)
+                                .header("If-None-Match", "\"1-5f1e\"")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+}
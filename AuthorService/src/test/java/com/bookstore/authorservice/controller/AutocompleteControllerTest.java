@@ -0,0 +1,46 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.mapper.dtos.SuggestionDTO;
+import com.bookstore.authorservice.search.SuggestionType;
+import com.bookstore.authorservice.service.AutocompleteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AutocompleteController.class)
+class AutocompleteControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    AutocompleteService autocompleteService;
+
+    @Test
+    void suggest_shouldReturnSuccess() throws Exception {
+        when(autocompleteService.suggest("jo", 5))
+                .thenReturn(List.of(new SuggestionDTO(SuggestionType.AUTHOR, 1L, "John Doe")));
+
+        mockMvc.perform(
+                        get(AutocompleteController.BASE_URL)
+                                .param("q", "jo")
+                                .param("limit", "5")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Suggestions retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].type").value("AUTHOR"))
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$.data[0].text").value("John Doe"));
+    }
+}
@@ -1,10 +1,20 @@
 package com.bookstore.authorservice.controller;
 
+import com.bookstore.authorservice.enums.PublishJobStatus;
+import com.bookstore.authorservice.exception.JobQueueFullException;
 import com.bookstore.authorservice.exception.RecordNotFoundException;
 import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.dtos.BookFacetsDTO;
+import com.bookstore.authorservice.mapper.dtos.PublishJobDTO;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
 import com.bookstore.authorservice.service.BookService;
+import com.bookstore.authorservice.service.PublishJobService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.dtos.PublishDto;
 import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,16 +22,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static com.bookstore.authorservice.mock.MockData.getBookDTOs;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookController.class)
@@ -36,6 +59,15 @@ class BookControllerTest {
     @MockitoBean
     BookService bookService;
 
+    @MockitoBean
+    BookSearchService bookSearchService;
+
+    @MockitoBean
+    BookFacetService bookFacetService;
+
+    @MockitoBean
+    PublishJobService publishJobService;
+
 
     @Test
     void createBook_shouldReturnSuccess() throws Exception {
@@ -56,6 +88,23 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.data[0].id").value(responseDTO.getId()));
     }
 
+    @Test
+    void createBooks_shouldReturnSuccess() throws Exception {
+        List<BookDTO> responseDTOs = getBookDTOs();
+
+        when(bookService.createBooks(anyList())).thenReturn(responseDTOs);
+
+        mockMvc.perform(
+                post(BookController.BASE_URL + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getBookDTOs())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Books created successfully"))
+                .andExpect(jsonPath("$.data.length()").value(responseDTOs.size()))
+                .andExpect(jsonPath("$.data[1].id").value(responseDTOs.get(1).getId()));
+    }
+
     @Test
     void updateBook_shouldReturnSuccess() throws Exception {
         Long bookId = 1L;
@@ -101,7 +150,7 @@ class BookControllerTest {
     void getBooks_shouldReturnSuccess() throws Exception {
         List<BookDTO> responseDTO = getBookDTOs();
 
-        when(bookService.getAllBooks(List.of())).thenReturn(responseDTO);
+        when(bookService.getAllBooks(List.of(), null, null)).thenReturn(new CursorPage<>(responseDTO, null));
 
         mockMvc.perform(
                 post(BookController.BASE_URL+"/all")
@@ -111,7 +160,8 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.message").value("Books retrieved successfully"))
                 .andExpect(jsonPath("$.data.size()").value(responseDTO.size()))
                 .andExpect(jsonPath("$.data[0].id").value(responseDTO.get(0).getId()))
-                .andExpect(jsonPath("$.data[1].id").value(responseDTO.get(1).getId()));
+                .andExpect(jsonPath("$.data[1].id").value(responseDTO.get(1).getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 
     @Test
@@ -277,6 +327,63 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.data[0]").isNotEmpty());
     }
 
+    @Test
+    void publishBookAsync_shouldReturnAccepted() throws Exception {
+        PublishDto<BookDTO> publishDto = new PublishDto<BookDTO>();
+        publishDto.setBookDTO(getBookDTOs().get(0));
+        publishDto.setPublishedCopies(10);
+
+        PublishJobDTO job = new PublishJobDTO();
+        job.setId("job-1");
+        job.setPublisher("acme");
+        job.setStatus(PublishJobStatus.QUEUED);
+        when(publishJobService.submit(publishDto, "acme")).thenReturn(job);
+
+        mockMvc.perform(
+                        post(BookController.BASE_URL+"/publish")
+                                .param("async", "true")
+                                .header("X-Publisher-Id", "acme")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(publishDto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", BookController.BASE_URL+"/publish-jobs/job-1"))
+                .andExpect(jsonPath("$.message").value("Publish job accepted"))
+                .andExpect(jsonPath("$.data[0].status").value("QUEUED"));
+        verify(bookService, never()).publishBook(any());
+    }
+
+    @Test
+    void publishBookAsync_shouldReturnServiceUnavailable_whenQueueIsFull() throws Exception {
+        PublishDto<BookDTO> publishDto = new PublishDto<BookDTO>();
+        publishDto.setBookDTO(getBookDTOs().get(0));
+        publishDto.setPublishedCopies(10);
+
+        when(publishJobService.submit(any(), any()))
+                .thenThrow(new JobQueueFullException("Publish queue is full, please retry later"));
+
+        mockMvc.perform(
+                        post(BookController.BASE_URL+"/publish")
+                                .param("async", "true")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(publishDto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.message").value("Publish queue is full, please retry later"));
+    }
+
+    @Test
+    void getPublishJob_shouldReturnJob() throws Exception {
+        PublishJobDTO job = new PublishJobDTO();
+        job.setId("job-1");
+        job.setStatus(PublishJobStatus.SUCCEEDED);
+        when(publishJobService.getJob("job-1")).thenReturn(job);
+
+        mockMvc.perform(get(BookController.BASE_URL+"/publish-jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Publish job retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].status").value("SUCCEEDED"));
+    }
+
     @Test
     void publishBook_shouldReturnNotFound_whenServiceThrowsRecordNotFoundException() throws Exception {
         PublishDto<BookDTO> publishDto = new PublishDto<BookDTO>();
@@ -316,4 +423,107 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.message").value("Not enough copies available"))
                 .andExpect(jsonPath("$.data").doesNotExist());
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportBooks_shouldStreamNdjson() throws Exception {
+        List<BookDTO> responseDTO = getBookDTOs();
+        String expected = objectMapper.writeValueAsString(responseDTO.get(0)) + "\n"
+                + objectMapper.writeValueAsString(responseDTO.get(1)) + "\n";
+
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(expected.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookService).exportBooks(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(BookController.BASE_URL + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expected));
+    }
+
+    @Test
+    void searchBooks_shouldReturnSuccess() throws Exception {
+        List<BookDTO> responseDTO = getBookDTOs();
+
+        when(bookSearchService.search("songs", 5)).thenReturn(responseDTO);
+
+        mockMvc.perform(
+                        get(BookController.BASE_URL + "/search")
+                                .param("q", "songs")
+                                .param("limit", "5")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Books retrieved successfully"))
+                .andExpect(jsonPath("$.data.size()").value(responseDTO.size()))
+                .andExpect(jsonPath("$.data[0].id").value(responseDTO.get(0).getId()));
+    }
+
+    @Test
+    void searchBooks_whenQueryBlank_shouldReturnBadRequest() throws Exception {
+        when(bookSearchService.search(" ", null))
+                .thenThrow(new IllegalArgumentException("Search query cannot be empty"));
+
+        mockMvc.perform(
+                        get(BookController.BASE_URL + "/search")
+                                .param("q", " ")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.message").value("Search query cannot be empty"));
+    }
+
+    @Test
+    void getBookFacets_shouldReturnSuccess() throws Exception {
+        when(bookFacetService.getFacets())
+                .thenReturn(new BookFacetsDTO(3, Map.of(Genre.FICTION, 3L), Map.of(Status.DRAFT, 1L, Status.PUBLISHED, 2L)));
+
+        mockMvc.perform(
+                        get(BookController.BASE_URL + "/facets")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Book facets retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].total").value(3))
+                .andExpect(jsonPath("$.data[0].genres.FICTION").value(3))
+                .andExpect(jsonPath("$.data[0].statuses.PUBLISHED").value(2));
+    }
+
+    @Test
+    void getBookById_whenETagMatches_shouldReturnNotModified() throws Exception {
+        Long bookId = 1L;
+
+        BookDTO book = getBookDTOs().get(0);
+        when(bookService.getBookById(bookId)).thenReturn(book);
+        when(bookService.getBookETag(book)).thenReturn("1-5f1e");
+
+        mockMvc.perform(
+                        get(BookController.BASE_URL + "/{bookId}", bookId)
+                                .header("If-None-Match", "\"1-5f1e\"")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getBookById_whenETagStale_shouldReturnBody() throws Exception {
+        Long bookId = 1L;
+
+        BookDTO book = getBookDTOs().get(0);
+        when(bookService.getBookById(bookId)).thenReturn(book);
+        when(bookService.getBookETag(book)).thenReturn("1-5f1f");
+
+        mockMvc.perform(
+                        get(BookController.BASE_URL + "/{bookId}", bookId)
+                                .header("If-None-Match", "\"1-5f1e\"")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-5f1f\""))
+                .andExpect(jsonPath("$.data[0].id").value(bookId));
+    }
+}
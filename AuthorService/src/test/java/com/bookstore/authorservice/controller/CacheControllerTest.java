@@ -0,0 +1,44 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.mapper.dtos.CacheStatsDTO;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CacheController.class)
+class CacheControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    CatalogCacheService catalogCacheService;
+
+    @Test
+    void getCacheStats_shouldReturnSuccess() throws Exception {
+        when(catalogCacheService.getCacheStats())
+                .thenReturn(List.of(new CacheStatsDTO("books", 3, 8, 2, 0.8, 1)));
+
+        mockMvc.perform(
+                        get(CacheController.BASE_URL + "/stats")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Cache statistics retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].name").value("books"))
+                .andExpect(jsonPath("$.data[0].hits").value(8))
+                .andExpect(jsonPath("$.data[0].misses").value(2))
+                .andExpect(jsonPath("$.data[0].evictions").value(1));
+    }
+}
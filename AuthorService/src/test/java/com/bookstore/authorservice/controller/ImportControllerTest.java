@@ -0,0 +1,73 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.importer.ImportFormat;
+import com.bookstore.authorservice.mapper.dtos.ImportErrorDTO;
+import com.bookstore.authorservice.mapper.dtos.ImportReportDTO;
+import com.bookstore.authorservice.service.ImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ImportController.class)
+class ImportControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    ImportService importService;
+
+    @Test
+    void importAuthors_shouldReturnReport() throws Exception {
+        ImportReportDTO report = new ImportReportDTO("authors");
+        report.setProcessed(2);
+        report.setImported(1);
+        report.setFailed(1);
+        report.getErrors().add(new ImportErrorDTO(3, "email must be a well-formed email address"));
+        when(importService.importAuthors(any(), eq(ImportFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(
+                        post(ImportController.BASE_URL + "/authors")
+                                .contentType(ImportController.CSV)
+                                .content("firstName,lastName,email\nAda,Lovelace,ada@example.com\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Imported 1 of 2 authors"))
+                .andExpect(jsonPath("$.data[0].failed").value(1))
+                .andExpect(jsonPath("$.data[0].errors[0].line").value(3));
+    }
+
+    @Test
+    void importBooks_shouldReadNdjson() throws Exception {
+        when(importService.importBooks(any(), eq(ImportFormat.NDJSON))).thenReturn(new ImportReportDTO("books"));
+
+        mockMvc.perform(
+                        post(ImportController.BASE_URL + "/books")
+                                .contentType(ImportController.NDJSON)
+                                .content("{\"title\":\"Dune\",\"authors\":[{\"id\":1}]}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Imported 0 of 0 books"));
+    }
+
+    @Test
+    void importAuthors_shouldRejectOtherContentTypes() throws Exception {
+        mockMvc.perform(
+                        post(ImportController.BASE_URL + "/authors")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(importService);
+    }
+}
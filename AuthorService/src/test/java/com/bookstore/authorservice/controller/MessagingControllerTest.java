@@ -0,0 +1,43 @@
+package com.bookstore.authorservice.controller;
+
+import com.bookstore.authorservice.config.ProducerMetrics;
+import com.bookstore.authorservice.mapper.dtos.ProducerStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MessagingController.class)
+class MessagingControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    ProducerMetrics producerMetrics;
+
+    @Test
+    void getProducerStats_shouldReturnSuccess() throws Exception {
+        when(producerMetrics.getStats())
+                .thenReturn(List.of(new ProducerStatsDTO("book.published", 40, 2, 3, 4.5, 12.0)));
+
+        mockMvc.perform(
+                        get(MessagingController.BASE_URL + "/producer-stats")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.message").value("Producer statistics retrieved successfully"))
+                .andExpect(jsonPath("$.data[0].topic").value("book.published"))
+                .andExpect(jsonPath("$.data[0].failed").value(2))
+                .andExpect(jsonPath("$.data[0].inFlight").value(3));
+    }
+}
@@ -0,0 +1,79 @@
+package com.bookstore.authorservice.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void next_mapsRowsByHeaderAndHandlesQuotedFields() throws IOException {
+        String csv = "Email,Bio\n"
+                + "a@example.com,\"Writes, edits\"\n"
+                + "\n"
+                + "b@example.com,\"Said \"\"hi\"\"\nthen left\"\n"
+                + "c@example.com,\n";
+
+        try (RecordReader<Map<String, String>> reader = reader(csv)) {
+            ImportRecord<Map<String, String>> first = reader.next();
+            assertEquals(2, first.line());
+            assertEquals("a@example.com", first.value().get("email"));
+            assertEquals("Writes, edits", first.value().get("bio"));
+
+            ImportRecord<Map<String, String>> second = reader.next();
+            assertEquals(5, second.line());
+            assertEquals("Said \"hi\"\nthen left", second.value().get("bio"));
+
+            ImportRecord<Map<String, String>> third = reader.next();
+            assertNull(third.value().get("bio"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void next_reportsBadRowsAndKeepsReading() throws IOException {
+        String csv = "email,bio\n"
+                + "a@example.com\n"
+                + "reject@example.com,x\n"
+                + "c@example.com,\"never closed\n";
+
+        try (RecordReader<Map<String, String>> reader = reader(csv)) {
+            ImportRecord<Map<String, String>> shortRow = reader.next();
+            assertFalse(shortRow.isValid());
+            assertEquals("Expected 2 columns but found 1", shortRow.error());
+
+            ImportRecord<Map<String, String>> rejected = reader.next();
+            assertEquals(3, rejected.line());
+            assertEquals("rejected by mapper", rejected.error());
+
+            ImportRecord<Map<String, String>> unterminated = reader.next();
+            assertEquals("Unterminated quoted field", unterminated.error());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void next_returnsNullForEmptyInput() throws IOException {
+        try (RecordReader<Map<String, String>> reader = reader("")) {
+            assertNull(reader.next());
+        }
+    }
+
+    private RecordReader<Map<String, String>> reader(String csv) {
+        return new CsvRecordReader<>(new BufferedReader(new StringReader(csv)), row -> {
+            if ("reject@example.com".equals(row.get("email"))) {
+                throw new IllegalArgumentException("rejected by mapper");
+            }
+            assertTrue(row.containsKey("email"));
+            return row;
+        });
+    }
+}
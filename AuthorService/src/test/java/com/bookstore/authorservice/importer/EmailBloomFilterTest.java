@@ -0,0 +1,43 @@
+package com.bookstore.authorservice.importer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailBloomFilterTest {
+
+    @Test
+    void mightContain_neverMissesAnAddedEmail() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("author" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("author" + i + "@example.com"));
+        }
+        assertTrue(filter.mightContain("AUTHOR42@Example.com"));
+    }
+
+    @Test
+    void mightContain_keepsFalsePositivesNearTheConfiguredRate() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("author" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("reader" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void mightContain_isFalseWhenEmpty() {
+        assertFalse(new EmailBloomFilter(100, 0.01).mightContain("author@example.com"));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Arrays;
@@ -80,4 +81,17 @@ class AuthorRepositoryTest {
         assertThat(authors.get(0).getEmail()).isEqualTo("john@example.com");
         assertThat(authors.get(1).getEmail()).isEqualTo("tems@example.com");
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByFlagAndIdGreaterThanOrderByIdAsc() {
+        List<Author> firstPage = authorRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(1));
+
+        assertThat(firstPage.size()).isEqualTo(1);
+        assertThat(firstPage.get(0).getId()).isEqualTo(author1.getId());
+
+        List<Author> secondPage = authorRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, firstPage.get(0).getId(), Limit.of(2));
+
+        assertThat(secondPage.size()).isEqualTo(1);
+        assertThat(secondPage.get(0).getId()).isEqualTo(author2.getId());
+    }
+}
@@ -2,6 +2,9 @@ package com.bookstore.authorservice.repository;
 
 import com.bookstore.authorservice.entity.Author;
 import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.repository.projection.BookAuthorRow;
+import com.bookstore.authorservice.repository.projection.BookFacetCount;
+import com.bookstore.authorservice.repository.projection.BookListRow;
 import com.bookstore.bookstorestarter.enums.Flag;
 import com.bookstore.bookstorestarter.enums.Genre;
 import com.bookstore.bookstorestarter.enums.Status;
@@ -10,10 +13,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -91,6 +96,35 @@ class BookRepositoryTest {
         assertThat(authorBooks.get(0).getAuthors().get(0)).isEqualTo(activeAuthor);
     }
 
+    @Test
+    void findListRowsByAuthorIds() {
+        List<BookListRow> rows = bookRepository.findListRowsByAuthorIds(
+                List.of(activeAuthor.getId(), activeAuthor2.getId(), -1L), Flag.ENABLED, 0L, Limit.of(10));
+
+        assertThat(rows.size()).isEqualTo(2);
+        assertThat(rows.get(0).id() < rows.get(1).id()).isTrue();
+        assertThat(rows.get(0).isbn()).isEqualTo("1234");
+        assertThat(rows.get(0).status()).isEqualTo(Status.REVIEW);
+        assertThat(rows.get(1).suggestedRetailPrice()).isEqualByComparingTo(BigDecimal.TEN);
+
+        List<BookListRow> afterFirst = bookRepository.findListRowsByAuthorIds(
+                List.of(activeAuthor.getId(), activeAuthor2.getId()), Flag.ENABLED, rows.get(0).id(), Limit.of(10));
+        assertThat(afterFirst.size()).isEqualTo(1);
+        assertThat(afterFirst.get(0).isbn()).isEqualTo("1234589");
+    }
+
+    @Test
+    void findAuthorRowsByBookIds() {
+        Long bookId = bookRepository.findIdsByAuthorId(activeAuthor.getId()).get(0);
+
+        List<BookAuthorRow> rows = bookRepository.findAuthorRowsByBookIds(List.of(bookId));
+
+        assertThat(rows.size()).isEqualTo(1);
+        assertThat(rows.get(0).bookId()).isEqualTo(bookId);
+        assertThat(rows.get(0).id()).isEqualTo(activeAuthor.getId());
+        assertThat(rows.get(0).email()).isEqualTo(activeAuthor.getEmail());
+    }
+
     @Test
     void findAllByFlag() {
         List<Book> authorBooks = bookRepository.findAllByFlag(Flag.ENABLED);
@@ -106,4 +140,31 @@ class BookRepositoryTest {
         assertThat(authorBooks.get(1).getAuthors().get(0)).isEqualTo(activeAuthor2);
         assertThat(authorBooks.get(1).getAuthors().size()).isEqualTo(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamAllByFlagOrderByIdAsc() {
+        try (Stream<Book> books = bookRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)) {
+            List<String> isbns = books.map(Book::getIsbn).toList();
+
+            assertThat(isbns.size()).isEqualTo(2);
+            assertThat(isbns.get(0)).isEqualTo("1234");
+            assertThat(isbns.get(1)).isEqualTo("1234589");
+        }
+    }
+
+    @Test
+    void findIdsByAuthorId() {
+        List<Long> bookIds = bookRepository.findIdsByAuthorId(activeAuthor.getId());
+
+        assertThat(bookIds.size()).isEqualTo(1);
+        assertThat(bookRepository.findById(bookIds.get(0)).get().getIsbn()).isEqualTo("1234");
+    }
+
+    @Test
+    void countFacetsByFlag() {
+        List<BookFacetCount> rows = bookRepository.countFacetsByFlag(Flag.ENABLED);
+
+        assertThat(rows.size()).isEqualTo(2);
+        assertThat(rows.contains(new BookFacetCount(Genre.FANTASY, Status.REVIEW, 1L))).isTrue();
+    }
+}
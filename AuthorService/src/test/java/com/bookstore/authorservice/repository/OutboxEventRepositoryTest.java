@@ -0,0 +1,50 @@
+package com.bookstore.authorservice.repository;
+
+import com.bookstore.authorservice.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOK_PUBLISHED;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void findAllByLeasedUntilIsNullOrLeasedUntilBefore_locksOldestUnleasedEventsFirst() {
+        for (int i = 0; i < 5; i++) {
+            outboxEventRepository.save(new OutboxEvent(BOOK_PUBLISHED, String.valueOf(i), ("{\"copies\":" + i + "}").getBytes(StandardCharsets.UTF_8)));
+        }
+        outboxEventRepository.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(now, Limit.of(3));
+
+        assertThat(batch.size()).isEqualTo(3);
+        assertThat(batch.get(0).getMessageKey()).isEqualTo("0");
+        assertThat(batch.get(2).getMessageKey()).isEqualTo("2");
+
+        // leased rows stay hidden from other relays until the lease runs out
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        assertThat(outboxEventRepository.leaseAll(ids, now.plusMinutes(1))).isEqualTo(3);
+        List<OutboxEvent> rest = outboxEventRepository.findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(now, Limit.of(3));
+        assertThat(rest.size()).isEqualTo(2);
+        assertThat(rest.get(0).getMessageKey()).isEqualTo("3");
+        assertThat(outboxEventRepository.findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(now.plusMinutes(2), Limit.of(10)).size())
+                .isEqualTo(5);
+
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+        assertThat(outboxEventRepository.count()).isEqualTo(2L);
+    }
+}
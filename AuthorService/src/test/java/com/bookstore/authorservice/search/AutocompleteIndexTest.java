@@ -0,0 +1,81 @@
+package com.bookstore.authorservice.search;
+
+import com.bookstore.authorservice.mapper.dtos.SuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex autocompleteIndex;
+
+    @BeforeEach
+    void setUp() {
+        autocompleteIndex = new AutocompleteIndex();
+        autocompleteIndex.put(SuggestionType.AUTHOR, 1L, "Robin Hobb");
+        autocompleteIndex.put(SuggestionType.AUTHOR, 2L, "Émile Zola");
+        autocompleteIndex.put(SuggestionType.BOOK, 1L, "The Robber Bride");
+        autocompleteIndex.put(SuggestionType.BOOK, 2L, "Robots of Dawn");
+    }
+
+    @Test
+    void suggest_prefersMatchesAtStartOfText() {
+        List<SuggestionDTO> result = autocompleteIndex.suggest("rob", 10);
+
+        assertEquals(List.of("Robin Hobb", "Robots of Dawn", "The Robber Bride"),
+                result.stream().map(SuggestionDTO::getText).toList());
+    }
+
+    @Test
+    void suggest_matchesAnyWordIgnoringCaseAndAccents() {
+        assertEquals(List.of(1L), ids(autocompleteIndex.suggest("HOB", 10)));
+        assertEquals(SuggestionType.AUTHOR, autocompleteIndex.suggest("emi", 10).get(0).getType());
+    }
+
+    @Test
+    void suggest_respectsLimit() {
+        assertEquals(1, autocompleteIndex.suggest("r", 1).size());
+    }
+
+    @Test
+    void suggest_ranksEveryMatchNotJustTheFirstFew() {
+        for (long id = 10; id < 30; id++) {
+            autocompleteIndex.put(SuggestionType.BOOK, id, "Tales of Roa" + (char) ('a' + id - 10));
+        }
+
+        assertEquals(List.of("Robin Hobb"), autocompleteIndex.suggest("ro", 1).stream().map(SuggestionDTO::getText).toList());
+    }
+
+    @Test
+    void suggest_countsASuggestionOnceWhenSeveralWordsMatch() {
+        autocompleteIndex.put(SuggestionType.BOOK, 3L, "Rob Roy Robson");
+
+        assertEquals(List.of(1L, 3L, 2L, 1L), ids(autocompleteIndex.suggest("rob", 10)));
+        assertEquals(List.of(3L), ids(autocompleteIndex.suggest("robs", 10)));
+    }
+
+    @Test
+    void put_replacesPreviousText() {
+        autocompleteIndex.put(SuggestionType.BOOK, 2L, "Caves of Steel");
+
+        assertTrue(autocompleteIndex.suggest("robo", 10).isEmpty());
+        assertEquals(List.of(2L), ids(autocompleteIndex.suggest("steel", 10)));
+        assertEquals(4, autocompleteIndex.size());
+    }
+
+    @Test
+    void remove_dropsOnlyThatSuggestion() {
+        autocompleteIndex.remove(SuggestionType.AUTHOR, 1L);
+
+        assertTrue(autocompleteIndex.suggest("hobb", 10).isEmpty());
+        assertEquals(List.of(2L, 1L), ids(autocompleteIndex.suggest("rob", 10)));
+    }
+
+    private static List<Long> ids(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getId).toList();
+    }
+}
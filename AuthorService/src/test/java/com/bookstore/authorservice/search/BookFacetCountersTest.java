@@ -0,0 +1,94 @@
+package com.bookstore.authorservice.search;
+
+import com.bookstore.authorservice.mapper.dtos.BookFacetsDTO;
+import com.bookstore.authorservice.repository.projection.BookFacetCount;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookFacetCountersTest {
+
+    private BookFacetCounters bookFacetCounters;
+
+    @BeforeEach
+    void setUp() {
+        bookFacetCounters = new BookFacetCounters();
+        bookFacetCounters.apply(null, new BookFacet(Genre.FICTION, Status.DRAFT));
+        bookFacetCounters.apply(null, new BookFacet(Genre.FICTION, Status.PUBLISHED));
+        bookFacetCounters.apply(null, new BookFacet(Genre.POETRY, Status.DRAFT));
+    }
+
+    @Test
+    void snapshot_countsEveryGenreAndStatus() {
+        BookFacetsDTO facets = bookFacetCounters.snapshot();
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(2L, facets.getGenres().get(Genre.FICTION));
+        assertEquals(0L, facets.getGenres().get(Genre.HISTORY));
+        assertEquals(2L, facets.getStatuses().get(Status.DRAFT));
+        assertEquals(0L, facets.getStatuses().get(Status.ARCHIVED));
+    }
+
+    @Test
+    void apply_movesBookBetweenFacetsAndIgnoresNoChange() {
+        bookFacetCounters.apply(new BookFacet(Genre.FICTION, Status.DRAFT), new BookFacet(Genre.HISTORY, Status.PUBLISHED));
+        bookFacetCounters.apply(new BookFacet(Genre.HISTORY, Status.PUBLISHED), new BookFacet(Genre.HISTORY, Status.PUBLISHED));
+
+        BookFacetsDTO facets = bookFacetCounters.snapshot();
+        assertEquals(3, facets.getTotal());
+        assertEquals(1L, facets.getGenres().get(Genre.FICTION));
+        assertEquals(1L, facets.getGenres().get(Genre.HISTORY));
+        assertEquals(2L, facets.getStatuses().get(Status.PUBLISHED));
+    }
+
+    @Test
+    void apply_withoutAfter_removesBook() {
+        bookFacetCounters.apply(new BookFacet(Genre.POETRY, Status.DRAFT), null);
+
+        BookFacetsDTO facets = bookFacetCounters.snapshot();
+        assertEquals(2, facets.getTotal());
+        assertEquals(0L, facets.getGenres().get(Genre.POETRY));
+    }
+
+    @Test
+    void replaceAll_correctsDrift() {
+        long drift = bookFacetCounters.replaceAll(bookFacetCounters.version(), List.of(
+                new BookFacetCount(Genre.FICTION, Status.DRAFT, 1L),
+                new BookFacetCount(Genre.FICTION, Status.ARCHIVED, 1L),
+                new BookFacetCount(Genre.SCIENCE, Status.REVIEW, 1L)));
+
+        BookFacetsDTO facets = bookFacetCounters.snapshot();
+        assertEquals(6, drift);
+        assertEquals(3, facets.getTotal());
+        assertEquals(0L, facets.getGenres().get(Genre.POETRY));
+        assertEquals(1L, facets.getStatuses().get(Status.ARCHIVED));
+        assertEquals(0L, facets.getStatuses().get(Status.PUBLISHED));
+    }
+
+    @Test
+    void replaceAll_afterConcurrentDelta_isDiscarded() {
+        long version = bookFacetCounters.version();
+        bookFacetCounters.apply(null, new BookFacet(Genre.SCIENCE, Status.DRAFT));
+
+        long drift = bookFacetCounters.replaceAll(version, List.of());
+
+        assertEquals(BookFacetCounters.STALE, drift);
+        assertEquals(4, bookFacetCounters.snapshot().getTotal());
+    }
+
+    @Test
+    void replaceAll_whileWriteIsOpen_isDiscarded() {
+        bookFacetCounters.beginWrite();
+        long version = bookFacetCounters.version();
+
+        long drift = bookFacetCounters.replaceAll(version, List.of());
+
+        assertEquals(BookFacetCounters.STALE, drift);
+        assertEquals(3, bookFacetCounters.snapshot().getTotal());
+    }
+}
@@ -0,0 +1,93 @@
+package com.bookstore.authorservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookSearchIndex = new BookSearchIndex();
+        bookSearchIndex.put(1L, "The Dragon Keeper", "A young girl raises a dragon in the mountains.", List.of("Robin Hobb"));
+        bookSearchIndex.put(2L, "Mountain Walks", "Trails and maps for hikers.", List.of("Jane Smith"));
+        bookSearchIndex.put(3L, "Cooking at Home", "Recipes, including a dragon fruit salad.", List.of("John Doe"));
+    }
+
+    @Test
+    void search_ranksTitleMatchesFirst() {
+        List<Long> result = bookSearchIndex.search("dragon", 10);
+
+        assertEquals(List.of(1L, 3L), result);
+    }
+
+    @Test
+    void search_matchesAuthorNamesAndIgnoresCaseAndAccents() {
+        assertEquals(List.of(1L), bookSearchIndex.search("HÖBB", 10));
+        assertEquals(List.of(2L), bookSearchIndex.search("jane", 10));
+    }
+
+    @Test
+    void search_combinesTermsAndRespectsLimit() {
+        List<Long> result = bookSearchIndex.search("dragon mountains", 1);
+
+        assertEquals(List.of(1L), result);
+    }
+
+    @Test
+    void search_returnsEmptyForUnknownOrStopWords() {
+        assertTrue(bookSearchIndex.search("unicorn", 10).isEmpty());
+        assertTrue(bookSearchIndex.search("the and of", 10).isEmpty());
+        assertTrue(bookSearchIndex.search("", 10).isEmpty());
+    }
+
+    @Test
+    void put_replacesExistingDocument() {
+        bookSearchIndex.put(3L, "Baking Bread", "Sourdough basics.", List.of("John Doe"));
+
+        assertEquals(List.of(1L), bookSearchIndex.search("dragon", 10));
+        assertEquals(List.of(3L), bookSearchIndex.search("sourdough", 10));
+        assertEquals(3, bookSearchIndex.size());
+    }
+
+    @Test
+    void remove_dropsDocument() {
+        bookSearchIndex.remove(1L);
+
+        assertEquals(List.of(3L), bookSearchIndex.search("dragon", 10));
+        assertTrue(bookSearchIndex.search("hobb", 10).isEmpty());
+        assertEquals(2, bookSearchIndex.size());
+    }
+
+    @Test
+    void search_prunedTopKMatchesFullRanking() {
+        Random random = new Random(7);
+        String[] words = {"dragon", "mountain", "river", "night", "garden", "stone", "winter", "song"};
+        BookSearchIndex index = new BookSearchIndex();
+        for (long id = 500; id > 0; id--) {
+            StringBuilder synopsis = new StringBuilder();
+            for (int i = random.nextInt(12); i >= 0; i--) {
+                synopsis.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            index.put(id, words[random.nextInt(words.length)], synopsis.toString(), List.of());
+        }
+
+        for (String query : List.of("dragon", "dragon river", "night garden stone", "winter song mountain river")) {
+            List<Long> full = index.search(query, 500);
+            assertEquals(full.subList(0, 10), index.search(query, 10), query);
+            assertEquals(full.subList(0, 1), index.search(query, 1), query);
+        }
+    }
+
+    @Test
+    void tokenize_splitsOnPunctuationAndDropsStopWords() {
+        assertEquals(List.of("war", "peace", "vol", "2"), BookSearchIndex.tokenize("War and Peace, Vol. 2"));
+    }
+}
@@ -3,24 +3,42 @@ package com.bookstore.authorservice.service.impl;
 import com.bookstore.authorservice.entity.Author;
 import com.bookstore.authorservice.exception.RecordAlreadyExistException;
 import com.bookstore.authorservice.exception.RecordNotFoundException;
+import com.bookstore.authorservice.mapper.dtos.AuthorBatchDTO;
 import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
 import com.bookstore.authorservice.mapper.mappers.AuthorMapper;
 import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.enums.Flag;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static com.bookstore.authorservice.mock.MockData.getAuthorDTOs;
 import static com.bookstore.authorservice.mock.MockData.getAuthors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -36,12 +54,32 @@ class AuthorServiceImplTest {
     @Mock
     private AuthorMapper authorMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CatalogCacheService catalogCacheService;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private AuthorServiceImpl authorService;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(authorService, "objectMapper", objectMapper);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -94,7 +132,10 @@ class AuthorServiceImplTest {
         when(authorRepository.findByEmail(any())).thenReturn(Optional.empty());
         when(authorMapper.authorDTOToAuthor(authorDTO)).thenReturn(author);
         when(authorMapper.authorToAuthorDTO(author)).thenReturn(authorDTO);
-        when(authorRepository.save(author)).thenReturn(author);
+        when(authorRepository.save(author)).thenAnswer(invocation -> {
+            author.setId(1L);
+            return author;
+        });
 
         //when
         AuthorDTO result = authorService.createAuthor(authorDTO);
@@ -108,6 +149,78 @@ class AuthorServiceImplTest {
         verify(authorMapper).authorDTOToAuthor(authorDTO);
         verify(authorMapper).authorToAuthorDTO(author);
         verify(authorRepository).save(author);
+        verify(catalogCacheService).authorsCreated(List.of(1L));
+        verify(autocompleteService).indexAuthor(author);
+    }
+
+    @Test
+    void createAuthors() {
+        //Given
+        List<Author> authors = getAuthors();
+        List<AuthorDTO> authorDTOs = getAuthorDTOs();
+        for (int i = 0; i < authors.size(); i++) {
+            when(authorMapper.authorDTOToAuthor(authorDTOs.get(i))).thenReturn(authors.get(i));
+            when(authorMapper.authorToAuthorDTO(authors.get(i))).thenReturn(authorDTOs.get(i));
+        }
+        when(authorRepository.findAllByEmailIn(anyList())).thenReturn(List.of());
+        when(authorRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Author> saved = invocation.getArgument(0);
+            for (int i = 0; i < saved.size(); i++) {
+                saved.get(i).setId(i + 1L);
+            }
+            return saved;
+        });
+
+        //when
+        List<AuthorDTO> result = authorService.createAuthors(authorDTOs);
+
+        //then
+        assertEquals(authorDTOs.size(), result.size());
+        assertEquals(Flag.ENABLED, authors.get(0).getFlag());
+        verify(authorRepository).findAllByEmailIn(List.of(authorDTOs.get(0).getEmail(), authorDTOs.get(1).getEmail()));
+        verify(authorRepository).saveAll(authors);
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+        verify(autocompleteService).indexAuthor(authors.get(0));
+        verify(autocompleteService).indexAuthor(authors.get(1));
+        verify(catalogCacheService).authorsCreated(List.of(1L, 2L));
+        verify(catalogCacheService, never()).authorChanged(any());
+    }
+
+    @Test
+    void createAuthors_whenEmailRepeatsInRequest_throwsException() {
+        //given
+        AuthorDTO authorDTO = getAuthorDTOs().get(0);
+
+        //when
+        assertThrows(RecordAlreadyExistException.class,
+                () -> authorService.createAuthors(List.of(authorDTO, authorDTO)));
+
+        //then
+        verify(authorRepository, never()).saveAll(anyList());
+        verifyNoInteractions(autocompleteService);
+    }
+
+    @Test
+    void createAuthors_whenEmailAlreadyExists_throwsException() {
+        //given
+        List<AuthorDTO> authorDTOs = getAuthorDTOs();
+        when(authorRepository.findAllByEmailIn(anyList())).thenReturn(List.of(getAuthors().get(1)));
+
+        //when
+        RecordAlreadyExistException exception = assertThrows(RecordAlreadyExistException.class,
+                () -> authorService.createAuthors(authorDTOs));
+
+        //then
+        assertEquals("Author already exists " + getAuthors().get(1).getEmail(), exception.getMessage());
+        verify(authorRepository, never()).saveAll(anyList());
+        verifyNoInteractions(catalogCacheService);
+    }
+
+    @Test
+    void createAuthors_whenListIsEmpty_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> authorService.createAuthors(List.of()));
+        verifyNoInteractions(authorRepository);
     }
 
     @Test
@@ -164,6 +277,8 @@ class AuthorServiceImplTest {
         assertEquals("new@example.com", result.getEmail());
         verify(authorRepository).findById(authorId);
         verify(authorRepository).save(any(Author.class));
+        verify(bookSearchService).reindexAuthorBooks(authorId);
+        verify(catalogCacheService).authorChanged(authorId);
         verify(authorMapper).authorToAuthorDTO(updatedAuthor);
     }
 
@@ -181,31 +296,58 @@ class AuthorServiceImplTest {
         assertEquals("Author Not Found 999", exception.getMessage());
         verify(authorRepository).findById(authorId);
         verify(authorRepository, never()).save(any());
-        verifyNoInteractions(authorMapper);
+        verifyNoInteractions(authorMapper, catalogCacheService);
     }
     @Test
     void getAllAuthors() {
         List<Author> authors = getAuthors();
         List<AuthorDTO> authorDTOs = getAuthorDTOs();
-        when(authorRepository.findAllByFlag(Flag.ENABLED)).thenReturn(authors);
+        when(authorRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(authors);
         when(authorMapper.authorToAuthorDTO(authors.get(0))).thenReturn(authorDTOs.get(0));
         when(authorMapper.authorToAuthorDTO(authors.get(1))).thenReturn(authorDTOs.get(1));
 
         //when
-        List<AuthorDTO> result = authorService.getAllAuthors();
+        CursorPage<AuthorDTO> result = authorService.getAllAuthors(null, null);
 
         //then
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(authorDTOs.get(0).getId(), result.get(0).getId());
-        assertEquals(authorDTOs.get(0), result.get(0));
-        assertEquals(authorDTOs.get(1), result.get(1));
-        assertEquals(authorDTOs.get(1), result.get(1));
+        assertEquals(2, result.getData().size());
+        assertEquals(authorDTOs.get(0).getId(), result.getData().get(0).getId());
+        assertEquals(authorDTOs.get(0), result.getData().get(0));
+        assertEquals(authorDTOs.get(1), result.getData().get(1));
+        assertNull(result.getNextCursor());
 
-        verify(authorRepository).findAllByFlag(Flag.ENABLED);
+        verify(authorRepository).findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
         verify(authorMapper, times(2)).authorToAuthorDTO(any());
     }
 
+    @Test
+    void getAllAuthors_whenMoreRowsThanLimit() {
+        List<Author> authors = getAuthors();
+        List<AuthorDTO> authorDTOs = getAuthorDTOs();
+        String cursor = CursorPage.encode(0L);
+        when(authorRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(2)))
+                .thenReturn(authors);
+        when(authorMapper.authorToAuthorDTO(authors.get(0))).thenReturn(authorDTOs.get(0));
+
+        //when
+        CursorPage<AuthorDTO> result = authorService.getAllAuthors(cursor, 1);
+
+        //then
+        assertEquals(1, result.getData().size());
+        assertEquals(CursorPage.encode(authors.get(0).getId()), result.getNextCursor());
+        verify(authorMapper, times(1)).authorToAuthorDTO(any());
+    }
+
+    @Test
+    void getAllAuthors_whenLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> authorService.getAllAuthors(null, CursorPage.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class, () -> authorService.getAllAuthors("not-a-cursor", null));
+
+        verifyNoInteractions(authorRepository);
+    }
+
     @Test
     void deleteAuthor() {
         //Given
@@ -227,6 +369,8 @@ class AuthorServiceImplTest {
         assertEquals(Flag.DISABLED, result.getFlag());
         verify(authorRepository).findById(authorId);
         verify(authorMapper).authorToAuthorDTO(author);
+        verify(bookSearchService).reindexAuthorBooks(authorId);
+        verify(catalogCacheService).authorChanged(authorId);
     }
 
     @Test
@@ -244,4 +388,83 @@ class AuthorServiceImplTest {
         verify(authorRepository).findById(authorId);
         verifyNoInteractions(authorMapper);
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportAuthors() throws IOException {
+        List<Author> authors = getAuthors();
+        List<AuthorDTO> authorDTOs = getAuthorDTOs();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(authorRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)).thenReturn(authors.stream());
+        when(authorMapper.authorToAuthorDTO(authors.get(0))).thenReturn(authorDTOs.get(0));
+        when(authorMapper.authorToAuthorDTO(authors.get(1))).thenReturn(authorDTOs.get(1));
+
+        //when
+        authorService.exportAuthors(outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(authorDTOs.get(0).getId(), objectMapper.readValue(lines[0], AuthorDTO.class).getId());
+        assertEquals(authorDTOs.get(1).getId(), objectMapper.readValue(lines[1], AuthorDTO.class).getId());
+
+        verify(entityManager).detach(authors.get(0));
+        verify(entityManager).detach(authors.get(1));
+    }
+
+    @Test
+    void exportAuthors_whenNoAuthors() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(authorRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)).thenReturn(Stream.empty());
+
+        authorService.exportAuthors(outputStream);
+
+        assertEquals(0, outputStream.size());
+        verifyNoInteractions(authorMapper, entityManager);
+    }
+
+    @Test
+    void getAuthorsByIds_returnsRequestOrderAndMissingIds() {
+        List<Author> authors = getAuthors();
+        List<AuthorDTO> authorDTOs = getAuthorDTOs();
+
+        when(authorRepository.findAllByIdIn(List.of(2L, 3L, 1L))).thenReturn(authors);
+        when(authorMapper.authorToAuthorDTO(authors.get(0))).thenReturn(authorDTOs.get(0));
+        when(authorMapper.authorToAuthorDTO(authors.get(1))).thenReturn(authorDTOs.get(1));
+
+        //when
+        AuthorBatchDTO result = authorService.getAuthorsByIds(List.of(2L, 3L, 2L, 1L));
+
+        //then
+        assertEquals(2, result.getAuthors().size());
+        assertEquals(2L, result.getAuthors().get(0).getId());
+        assertEquals(1L, result.getAuthors().get(1).getId());
+        assertEquals(List.of(3L), result.getMissingIds());
+        verify(authorRepository).findAllByIdIn(List.of(2L, 3L, 1L));
+    }
+
+    @Test
+    void getAuthorsByIds_splitsIdsIntoChunks() {
+        List<Long> authorIds = LongStream.rangeClosed(1, 1200).boxed().toList();
+
+        when(authorRepository.findAllByIdIn(anyList())).thenReturn(List.of());
+
+        AuthorBatchDTO result = authorService.getAuthorsByIds(authorIds);
+
+        assertEquals(0, result.getAuthors().size());
+        assertEquals(1200, result.getMissingIds().size());
+        verify(authorRepository, times(3)).findAllByIdIn(anyList());
+        verifyNoInteractions(authorMapper);
+    }
+
+    @Test
+    void getAuthorsByIds_whenTooManyIds() {
+        List<Long> authorIds = LongStream.rangeClosed(1, 5001).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> authorService.getAuthorsByIds(authorIds));
+        assertThrows(IllegalArgumentException.class, () -> authorService.getAuthorsByIds(List.of()));
+
+        verifyNoInteractions(authorRepository);
+    }
+}
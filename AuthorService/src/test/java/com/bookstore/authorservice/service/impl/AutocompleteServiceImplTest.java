@@ -0,0 +1,107 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.SuggestionDTO;
+import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.search.AutocompleteIndex;
+import com.bookstore.authorservice.search.SuggestionType;
+import com.bookstore.bookstorestarter.enums.Flag;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.bookstore.authorservice.mock.MockData.getAuthors;
+import static com.bookstore.authorservice.mock.MockData.getBooks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class AutocompleteServiceImplTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private AutocompleteServiceImpl autocompleteService;
+
+    private final AutocompleteIndex autocompleteIndex = new AutocompleteIndex();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(autocompleteService, "autocompleteIndex", autocompleteIndex);
+    }
+
+    @Test
+    void suggest_returnsAuthorsAndBooks() {
+        autocompleteService.indexAuthor(getAuthors().get(0));
+        autocompleteService.indexBook(getBooks().get(0));
+
+        //when
+        List<SuggestionDTO> result = autocompleteService.suggest("j", null);
+
+        //then
+        assertEquals(1, result.size());
+        assertEquals(SuggestionType.AUTHOR, result.get(0).getType());
+        assertEquals("John Doe", result.get(0).getText());
+        assertEquals(SuggestionType.BOOK, autocompleteService.suggest("tit", null).get(0).getType());
+    }
+
+    @Test
+    void suggest_whenPrefixOrLimitInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> autocompleteService.suggest(" ", null));
+        assertThrows(IllegalArgumentException.class, () -> autocompleteService.suggest("jo", 51));
+    }
+
+    @Test
+    void reindexAuthor_removesDisabledAuthors() {
+        Author author = getAuthors().get(0);
+        autocompleteService.indexAuthor(author);
+        author.setFlag(Flag.DISABLED);
+
+        when(authorRepository.findById(author.getId())).thenReturn(Optional.of(author));
+
+        autocompleteService.reindexAuthor(author.getId());
+
+        assertTrue(autocompleteService.suggest("john", null).isEmpty());
+    }
+
+    @Test
+    void reindexBook_whenBookMissing_removesSuggestion() {
+        Book book = getBooks().get(1);
+        autocompleteService.indexBook(book);
+
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.empty());
+
+        autocompleteService.reindexBook(book.getId());
+
+        assertTrue(autocompleteService.suggest("songs", null).isEmpty());
+    }
+
+    @Test
+    void rebuildIndex_loadsEnabledAuthorsAndBooks() {
+        when(authorRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)).thenReturn(getAuthors().stream());
+        when(bookRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)).thenReturn(getBooks().stream());
+
+        autocompleteService.rebuildIndex();
+
+        assertEquals(4, autocompleteIndex.size());
+        assertEquals(2, autocompleteService.suggest("john", null).size());
+    }
+}
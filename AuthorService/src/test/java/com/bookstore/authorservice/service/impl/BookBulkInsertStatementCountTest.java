@@ -0,0 +1,115 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.mappers.BookMapperImpl;
+import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.authorservice.service.OutboxService;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookServiceImpl.class, BookMapperImpl.class})
+class BookBulkInsertStatementCountTest {
+
+    @Autowired
+    private BookServiceImpl bookService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private CatalogCacheService catalogCacheService;
+
+    @MockitoBean
+    private BookSearchService bookSearchService;
+
+    @MockitoBean
+    private AutocompleteService autocompleteService;
+
+    @MockitoBean
+    private BookFacetService bookFacetService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createBooks_sendsInsertsInJdbcBatches() {
+        List<Author> authors = saveAuthors(3);
+        List<BookDTO> bookDTOs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            AuthorDTO authorDTO = new AuthorDTO();
+            authorDTO.setId(authors.get(i % authors.size()).getId());
+            BookDTO bookDTO = new BookDTO();
+            bookDTO.setTitle("Book " + i);
+            bookDTO.setGenre(Genre.FANTASY);
+            bookDTO.setAuthors(List.of(authorDTO));
+            bookDTOs.add(bookDTO);
+        }
+        statistics.clear();
+
+        List<BookDTO> created = bookService.createBooks(bookDTOs);
+
+        assertThat(created.size()).isEqualTo(1000);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1000L);
+        // one author lookup, one id block and one statement per batch, not two per book
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30L);
+        assertThat(authorRepository.count()).isEqualTo(3L);
+        // new books need no eviction, so replicas hear about the whole request in one message
+        verify(catalogCacheService).booksCreated(argThat(bookIds -> bookIds.size() == 1000));
+        verify(catalogCacheService, never()).bookChanged(any());
+    }
+
+    private List<Author> saveAuthors(int count) {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Author author = new Author();
+            author.setFirstName("First" + i);
+            author.setLastName("Last" + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setFlag(Flag.ENABLED);
+            authors.add(authorRepository.save(author));
+        }
+        authorRepository.flush();
+        return authors;
+    }
+}
@@ -0,0 +1,160 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.BookFacetsDTO;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.repository.projection.BookFacetCount;
+import com.bookstore.authorservice.search.BookFacet;
+import com.bookstore.authorservice.search.BookFacetCounters;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static com.bookstore.authorservice.mock.MockData.getBooks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookFacetServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookFacetServiceImpl bookFacetService;
+
+    private final BookFacetCounters bookFacetCounters = new BookFacetCounters();
+
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bookFacetService = new BookFacetServiceImpl(bookFacetCounters, bookRepository,
+                Duration.ofSeconds(2), Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(bookFacetService, "ticker", (LongSupplier) now::get);
+    }
+
+    @Test
+    void record_countsEnabledBooksOnly() {
+        Book book = getBooks().get(0);
+        bookFacetService.record(null, book);
+        assertEquals(1, bookFacetService.getFacets().getTotal());
+
+        BookFacet before = BookFacet.of(book);
+        book.setFlag(Flag.DISABLED);
+        bookFacetService.record(before, book);
+        assertEquals(0, bookFacetService.getFacets().getTotal());
+    }
+
+    @Test
+    void record_movesBookToItsNewStatus() {
+        Book book = getBooks().get(1);
+        bookFacetService.record(null, book);
+        BookFacet before = BookFacet.of(book);
+        book.setStatus(Status.PUBLISHED);
+
+        bookFacetService.record(before, book);
+
+        BookFacetsDTO facets = bookFacetService.getFacets();
+        assertEquals(1, facets.getTotal());
+        assertEquals(0L, facets.getStatuses().get(before.status()));
+        assertEquals(1L, facets.getStatuses().get(Status.PUBLISHED));
+    }
+
+    @Test
+    void reconcile_replacesCountsWithDatabaseAggregates() {
+        bookFacetService.record(null, getBooks().get(0));
+
+        when(bookRepository.countFacetsByFlag(Flag.ENABLED)).thenReturn(List.of(
+                new BookFacetCount(Genre.CHILDREN, Status.DRAFT, 1L),
+                new BookFacetCount(Genre.POETRY, Status.REVIEW, 1L)));
+
+        bookFacetService.reconcile();
+
+        BookFacetsDTO facets = bookFacetService.getFacets();
+        assertEquals(2, facets.getTotal());
+        assertEquals(1L, facets.getGenres().get(Genre.CHILDREN));
+        assertEquals(1L, facets.getStatuses().get(Status.REVIEW));
+    }
+
+    @Test
+    void reconcile_whenDeltaLandsDuringRead_retriesWithFreshRead() {
+        when(bookRepository.countFacetsByFlag(Flag.ENABLED))
+                .thenAnswer(invocation -> {
+                    // a local change commits while the first aggregate read is running
+                    bookFacetService.record(null, getBooks().get(0));
+                    return List.of();
+                })
+                .thenReturn(List.of(new BookFacetCount(Genre.POETRY, Status.REVIEW, 1L)));
+
+        bookFacetService.reconcile();
+
+        verify(bookRepository, times(2)).countFacetsByFlag(Flag.ENABLED);
+        BookFacetsDTO facets = bookFacetService.getFacets();
+        assertEquals(1, facets.getTotal());
+        assertEquals(1L, facets.getGenres().get(Genre.POETRY));
+    }
+
+    @Test
+    void reconcile_whileWriteIsOpen_doesNotCountItTwice() {
+        // the write has committed, so the aggregate read sees it, but its delta is not applied yet
+        bookFacetService.beginWrite();
+        when(bookRepository.countFacetsByFlag(Flag.ENABLED))
+                .thenReturn(List.of(new BookFacetCount(Genre.POETRY, Status.REVIEW, 1L)));
+
+        bookFacetService.reconcile();
+        bookFacetService.record(null, getBooks().get(0));
+        bookFacetService.endWrite();
+
+        assertEquals(1, bookFacetService.getFacets().getTotal());
+    }
+
+    @Test
+    void refresh_coalescesIntoOneReconcileOnceQuiet() {
+        when(bookRepository.countFacetsByFlag(Flag.ENABLED)).thenReturn(List.of());
+
+        bookFacetService.reconcileIfStale();
+        verify(bookRepository, never()).countFacetsByFlag(Flag.ENABLED);
+
+        bookFacetService.refresh();
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        bookFacetService.refresh();
+        bookFacetService.reconcileIfStale();
+        verify(bookRepository, never()).countFacetsByFlag(Flag.ENABLED);
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        bookFacetService.reconcileIfStale();
+        bookFacetService.reconcileIfStale();
+
+        verify(bookRepository, times(1)).countFacetsByFlag(Flag.ENABLED);
+    }
+
+    @Test
+    void refresh_whileChangesKeepArriving_reconcilesAfterMaxDelay() {
+        when(bookRepository.countFacetsByFlag(Flag.ENABLED)).thenReturn(List.of());
+
+        for (int second = 0; second < 30; second++) {
+            bookFacetService.refresh();
+            bookFacetService.reconcileIfStale();
+            now.addAndGet(Duration.ofSeconds(1).toNanos());
+        }
+        verify(bookRepository, never()).countFacetsByFlag(Flag.ENABLED);
+
+        bookFacetService.refresh();
+        bookFacetService.reconcileIfStale();
+
+        verify(bookRepository, times(1)).countFacetsByFlag(Flag.ENABLED);
+    }
+}
@@ -0,0 +1,160 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.config.MessageProducer;
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.exception.ConcurrentUpdateException;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.mappers.BookMapperImpl;
+import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.repository.OutboxEventRepository;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+// run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@ActiveProfiles("test")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookServiceImpl.class, BookMapperImpl.class, OutboxServiceImpl.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class BookPublishConcurrencyBenchmarkTest {
+
+    private static final int CALLERS = 32;
+
+    private static final int PUBLISHES_PER_CALLER = 25;
+
+    @Autowired
+    private BookServiceImpl bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private MessageProducer messageProducer;
+
+    @MockitoBean
+    private CatalogCacheService catalogCacheService;
+
+    @MockitoBean
+    private BookSearchService bookSearchService;
+
+    @MockitoBean
+    private AutocompleteService autocompleteService;
+
+    @MockitoBean
+    private BookFacetService bookFacetService;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void publishHotBook() throws Exception {
+        int initialCopies = CALLERS * PUBLISHES_PER_CALLER;
+        Long bookId = createBook(initialCopies);
+
+        AtomicInteger published = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(callers.submit(() -> {
+                start.await();
+                for (int j = 0; j < PUBLISHES_PER_CALLER; j++) {
+                    try {
+                        bookService.publishBook(publishOne(bookId));
+                        published.incrementAndGet();
+                    } catch (ConcurrentUpdateException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        callers.shutdown();
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("publish on a hot book: %d callers, %d published, %d gave up, %.1f publishes/s%n",
+                CALLERS, published.get(), conflicts.get(), published.get() / seconds);
+
+        // no lost updates: every successful publish is reflected in the stored count
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        assertThat(book.getTotalCopies()).isEqualTo(initialCopies - published.get());
+        assertThat(published.get()).isGreaterThan(0);
+        // rolled back attempts leave no event behind
+        assertThat(outboxEventRepository.count()).isEqualTo((long) published.get());
+    }
+
+    private Long createBook(int totalCopies) {
+        Author author = new Author();
+        author.setFirstName("John");
+        author.setLastName("Doe");
+        author.setEmail("john@example.com");
+        author.setFlag(Flag.ENABLED);
+        authorRepository.save(author);
+
+        Book book = new Book();
+        book.setTitle("Hot Book");
+        book.setGenre(Genre.FICTION);
+        book.setFlag(Flag.ENABLED);
+        book.setTotalCopies(totalCopies);
+        book.setAuthors(List.of(author));
+        return bookRepository.save(book).getId();
+    }
+
+    private static PublishDto<BookDTO> publishOne(Long bookId) {
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setId(bookId);
+        PublishDto<BookDTO> publishDto = new PublishDto<>();
+        publishDto.setBookDTO(bookDTO);
+        publishDto.setPublishedCopies(1);
+        return publishDto;
+    }
+}
@@ -0,0 +1,171 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.mappers.BookMapperImpl;
+import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.authorservice.service.OutboxService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookServiceImpl.class, BookMapperImpl.class})
+class BookReadPathStatementCountTest {
+
+    @Autowired
+    private BookServiceImpl bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private CatalogCacheService catalogCacheService;
+
+    @MockitoBean
+    private BookSearchService bookSearchService;
+
+    @MockitoBean
+    private AutocompleteService autocompleteService;
+
+    @MockitoBean
+    private BookFacetService bookFacetService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllBooks_statementCountDoesNotGrowWithPageSize() {
+        List<Author> authors = saveAuthors(3);
+        saveBooks(50, authors);
+
+        long fewBooks = countStatements(() -> assertPageSize(bookService.getAllBooks(null, null, 5), 5));
+        long manyBooks = countStatements(() -> assertPageSize(bookService.getAllBooks(null, null, 50), 50));
+
+        assertThat(manyBooks).isEqualTo(fewBooks);
+    }
+
+    @Test
+    void getAllBooks_byAuthors_statementCountDoesNotGrowWithPageSize() {
+        List<Author> authors = saveAuthors(3);
+        saveBooks(50, authors);
+        List<Long> authorIds = List.of(authors.get(0).getId(), authors.get(1).getId());
+
+        long fewBooks = countStatements(() -> assertPageSize(bookService.getAllBooks(authorIds, null, 5), 5));
+        long manyBooks = countStatements(() -> assertPageSize(bookService.getAllBooks(authorIds, null, 50), 50));
+
+        assertThat(manyBooks).isEqualTo(fewBooks);
+    }
+
+    @Test
+    void getAllBooks_byFiveThousandAuthors_costsOneStatementPerChunkPlusAuthors() {
+        List<Author> authors = saveAuthors(3);
+        saveBooks(50, authors);
+        List<Long> authorIds = new ArrayList<>();
+        authors.forEach(author -> authorIds.add(author.getId()));
+        for (long id = 1_000_000; authorIds.size() < 5000; id++) {
+            authorIds.add(id);
+        }
+
+        long statements = countStatements(() -> assertPageSize(bookService.getAllBooks(authorIds, null, 50), 50));
+
+        assertThat(statements).isEqualTo(6L);
+    }
+
+    @Test
+    void getBookById_loadsAuthorsInSingleStatement() {
+        List<Author> authors = saveAuthors(3);
+        Book book = saveBooks(1, authors).get(0);
+
+        long statements = countStatements(() -> {
+            BookDTO bookDTO = bookService.getBookById(book.getId());
+            assertThat(bookDTO.getAuthors().size()).isEqualTo(3);
+            assertThat(bookDTO.getAuthors().get(0).getBio()).isNull();
+        });
+
+        assertThat(statements).isEqualTo(1L);
+    }
+
+    private long countStatements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertPageSize(CursorPage<BookDTO> page, int expected) {
+        assertThat(page.getData().size()).isEqualTo(expected);
+        page.getData().forEach(book -> assertThat(book.getAuthors().isEmpty()).isFalse());
+    }
+
+    private List<Author> saveAuthors(int count) {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Author author = new Author();
+            author.setFirstName("First" + i);
+            author.setLastName("Last" + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setBio("Bio " + i);
+            author.setFlag(Flag.ENABLED);
+            authors.add(authorRepository.save(author));
+        }
+        return authors;
+    }
+
+    private List<Book> saveBooks(int count, List<Author> authors) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setGenre(Genre.FANTASY);
+            book.setFlag(Flag.ENABLED);
+            book.setAuthors(new ArrayList<>(authors));
+            books.add(bookRepository.save(book));
+        }
+        return books;
+    }
+}
@@ -0,0 +1,119 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.mappers.BookMapper;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.search.BookSearchIndex;
+import com.bookstore.bookstorestarter.enums.Flag;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.bookstore.authorservice.mock.MockData.getBookDTOs;
+import static com.bookstore.authorservice.mock.MockData.getBooks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BookSearchServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookMapper bookMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private BookSearchServiceImpl bookSearchService;
+
+    private final BookSearchIndex bookSearchIndex = new BookSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bookSearchService, "bookSearchIndex", bookSearchIndex);
+    }
+
+    @Test
+    void search_returnsBooksInRankOrder() {
+        List<Book> books = getBooks();
+        List<BookDTO> bookDTOs = getBookDTOs();
+        bookSearchIndex.put(1L, "Garden birds", null, List.of());
+        bookSearchIndex.put(2L, "Birds of prey and birds of the sea", null, List.of());
+
+        when(bookRepository.findAllById(List.of(2L, 1L))).thenReturn(books);
+        when(bookMapper.bookToBookDTO(books.get(0))).thenReturn(bookDTOs.get(0));
+        when(bookMapper.bookToBookDTO(books.get(1))).thenReturn(bookDTOs.get(1));
+
+        //when
+        List<BookDTO> result = bookSearchService.search("birds", null);
+
+        //then
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    void reindex_loadsAllBooksWithTheirAuthorsInOneQuery() {
+        List<Book> books = getBooks();
+        when(bookRepository.findAllWithAuthorsByIdIn(List.of(1L, 2L))).thenReturn(books);
+
+        bookSearchService.reindex(List.of(1L, 2L));
+
+        assertEquals(books.size(), bookSearchIndex.size());
+    }
+
+    @Test
+    void search_whenNoMatches() {
+        List<BookDTO> result = bookSearchService.search("nothing", 5);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void search_whenQueryOrLimitInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> bookSearchService.search(" ", null));
+        assertThrows(IllegalArgumentException.class, () -> bookSearchService.search("birds", 101));
+    }
+
+    @Test
+    void index_indexesTitleAndAuthorNames() {
+        Book book = getBooks().get(0);
+        book.setTitle("Quiet Rivers");
+
+        bookSearchService.index(book);
+
+        assertEquals(List.of(book.getId()), bookSearchIndex.search("rivers", 10));
+        String firstName = book.getAuthors().get(0).getFirstName();
+        assertEquals(List.of(book.getId()), bookSearchIndex.search(firstName, 10));
+    }
+
+    @Test
+    void reindex_removesDisabledBooks() {
+        Book book = getBooks().get(0);
+        book.setTitle("Quiet Rivers");
+        bookSearchService.index(book);
+        book.setFlag(Flag.DISABLED);
+
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+
+        bookSearchService.reindex(book.getId());
+
+        assertTrue(bookSearchIndex.search("rivers", 10).isEmpty());
+    }
+}
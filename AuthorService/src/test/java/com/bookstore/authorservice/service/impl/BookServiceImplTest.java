@@ -1,29 +1,49 @@
 package com.bookstore.authorservice.service.impl;
 
-import com.bookstore.authorservice.config.MessageProducer;
 import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.exception.ConcurrentUpdateException;
 import com.bookstore.authorservice.exception.RecordNotFoundException;
+import com.bookstore.authorservice.mapper.dtos.AuthorDTO;
 import com.bookstore.authorservice.mapper.dtos.BookDTO;
 import com.bookstore.authorservice.mapper.mappers.BookMapper;
 import com.bookstore.authorservice.repository.AuthorRepository;
 import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.repository.projection.BookAuthorRow;
+import com.bookstore.authorservice.repository.projection.BookListRow;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.search.BookFacet;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.authorservice.service.OutboxService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.dtos.PublishDto;
 import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
 import com.bookstore.bookstorestarter.enums.Status;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 
 import static com.bookstore.authorservice.mock.MockData.getAuthorDTOs;
 import static com.bookstore.authorservice.mock.MockData.getAuthors;
@@ -31,12 +51,16 @@ import static com.bookstore.authorservice.mock.MockData.getBookDTOs;
 import static com.bookstore.authorservice.mock.MockData.getBooks;
 import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOK_PUBLISHED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -54,11 +78,29 @@ class BookServiceImplTest {
     private AuthorRepository authorRepository;
 
     @Mock
-    private MessageProducer messageProducer;
+    private OutboxService outboxService;
 
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CatalogCacheService catalogCacheService;
+
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private BookFacetService bookFacetService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
@@ -66,6 +108,8 @@ class BookServiceImplTest {
         MockitoAnnotations.openMocks(this);
         objectMapper.registerModule(new JavaTimeModule());
         ReflectionTestUtils.setField(bookService, "objectMapper", objectMapper);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -86,6 +130,10 @@ class BookServiceImplTest {
         assertEquals(bookDTO.getId(), createdBookDTO.getId());
         assertEquals(1, bookDTO.getAuthors().size());
         assertEquals(getAuthorDTOs().get(0).getId(), bookDTO.getAuthors().get(0).getId());
+        verify(catalogCacheService).booksCreated(List.of(book.getId()));
+        verify(bookSearchService).index(book);
+        verify(autocompleteService).indexBook(book);
+        verify(bookFacetService).record(null, book);
     }
 
     @Test
@@ -119,6 +167,61 @@ class BookServiceImplTest {
         assertEquals("Some authors were not found", exception.getMessage());
     }
 
+    @Test
+    void createBooks_resolvesAuthorsOnceForTheWholeRequest() {
+        // Given
+        List<BookDTO> bookDTOs = getBookDTOs();
+        when(authorRepository.findAllByIdIn(anyList())).thenReturn(getAuthors());
+        when(bookMapper.bookToBookDTO(any(Book.class))).thenAnswer(invocation -> new BookDTO());
+
+        //when
+        List<BookDTO> created = bookService.createBooks(bookDTOs);
+
+        //then
+        assertEquals(bookDTOs.size(), created.size());
+        verify(authorRepository, times(1)).findAllByIdIn(anyList());
+        verify(bookRepository).saveAll(anyList());
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+        verify(bookSearchService, times(2)).index(any(Book.class));
+        verify(autocompleteService, times(2)).indexBook(any(Book.class));
+        verify(bookFacetService, times(2)).record(isNull(), any(Book.class));
+        verify(catalogCacheService).booksCreated(anyList());
+        verify(catalogCacheService, never()).bookChanged(any());
+    }
+
+    @Test
+    void createBooks_throwsRecordNotFoundWhenAnAuthorIsMissing() {
+        // Given
+        List<BookDTO> bookDTOs = getBookDTOs();
+        when(authorRepository.findAllByIdIn(anyList())).thenReturn(List.of(getAuthors().get(0)));
+
+        //when
+        RecordNotFoundException exception = assertThrows(
+                RecordNotFoundException.class, () -> bookService.createBooks(bookDTOs));
+
+        //then
+        assertEquals("Some authors were not found", exception.getMessage());
+        verify(bookRepository, never()).saveAll(anyList());
+        verifyNoInteractions(bookSearchService);
+    }
+
+    @Test
+    void createBooks_throwsExceptionWhenABookHasNoAuthors() {
+        // Given
+        List<BookDTO> bookDTOs = getBookDTOs();
+        bookDTOs.get(1).setAuthors(List.of());
+
+        //when
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class, () -> bookService.createBooks(bookDTOs));
+
+        //then
+        assertEquals("Author list cannot be empty", exception.getMessage());
+        verifyNoInteractions(authorRepository);
+    }
+
 
     @Test
     void updateBook() {
@@ -134,6 +237,7 @@ class BookServiceImplTest {
         when(authorRepository.findAllByIdIn(anyList())).thenReturn(List.of(getAuthors().get(0)));
         when(bookRepository.save(any(Book.class))).thenReturn(book);
         when(bookMapper.bookToBookDTO(book)).thenReturn(bookDTO);
+        BookFacet before = BookFacet.of(book);
 
         //when
         BookDTO updateBook = bookService.updateBook(bookDTO, bookId);
@@ -148,6 +252,10 @@ class BookServiceImplTest {
         verify(bookRepository).findById(bookId);
         verify(authorRepository).findAllByIdIn(anyList());
         verify(bookRepository).save(any(Book.class));
+        verify(catalogCacheService).bookChanged(bookId);
+        verify(bookSearchService).index(book);
+        verify(autocompleteService).indexBook(book);
+        verify(bookFacetService).record(before, book);
     }
 
     @Test
@@ -197,40 +305,81 @@ class BookServiceImplTest {
         AtomicInteger index = new AtomicInteger(0);
 
 
-        when(bookRepository.findAllByFlag(Flag.ENABLED)).thenReturn(books);
+        when(bookRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(books);
         when(bookMapper.bookToBookDTO(any(Book.class)))
                 .thenAnswer(invocation -> expectedBookDTOs.get(index.getAndIncrement()));
 
         //when
-        List<BookDTO> result = bookService.getAllBooks(authorIds);
+        CursorPage<BookDTO> result = bookService.getAllBooks(authorIds, null, null);
 
         //then
         assertNotNull(result);
-        assertEquals(expectedBookDTOs.size(), result.size());
-        assertEquals(expectedBookDTOs.get(0).getId(), result.get(0).getId());
-        assertEquals(expectedBookDTOs.get(1).getId(), result.get(1).getId());
+        assertEquals(expectedBookDTOs.size(), result.getData().size());
+        assertEquals(expectedBookDTOs.get(0).getId(), result.getData().get(0).getId());
+        assertEquals(expectedBookDTOs.get(1).getId(), result.getData().get(1).getId());
+        assertNull(result.getNextCursor());
     }
 
     @Test
     void getAllBooks_whenAuthors() {
         // Given
         List<Long> authorIds = List.of(1L, 2L);
-        List<Book> books = getBooks();
-        List<BookDTO> expectedBookDTOs = getBookDTOs();
-        AtomicInteger index = new AtomicInteger(0);
+        List<BookListRow> rows = List.of(bookListRow(2L), bookListRow(3L));
+        BookAuthorRow authorRow = new BookAuthorRow(2L, 1L, Flag.ENABLED, null, null, null, null, "John", "Doe", "john.doe@gmail.com");
+        AuthorDTO authorDTO = getAuthorDTOs().get(0);
+
+        when(bookRepository.findListRowsByAuthorIds(authorIds, Flag.ENABLED, 1L, Limit.of(2))).thenReturn(rows);
+        when(bookRepository.findAuthorRowsByBookIds(List.of(2L))).thenReturn(List.of(authorRow));
+        when(bookMapper.bookListRowToBookDTO(any(BookListRow.class))).thenAnswer(invocation -> {
+            BookDTO bookDTO = new BookDTO();
+            bookDTO.setId(invocation.<BookListRow>getArgument(0).id());
+            return bookDTO;
+        });
+        when(bookMapper.bookAuthorRowToAuthorSummaryDTO(authorRow)).thenReturn(authorDTO);
 
-        when(authorRepository.findAllByIdIn(authorIds)).thenReturn(getAuthors());
-        when(bookRepository.findAllByAuthorsAndFlag(getAuthors(), Flag.ENABLED)).thenReturn(books);
-        when(bookMapper.bookToBookDTO(any(Book.class)))
-                .thenAnswer(invocation -> expectedBookDTOs.get(index.getAndIncrement()));
         //when
-        List<BookDTO> result = bookService.getAllBooks(authorIds);
+        CursorPage<BookDTO> result = bookService.getAllBooks(authorIds, CursorPage.encode(1L), 1);
 
         //then
         assertNotNull(result);
-        assertEquals(expectedBookDTOs.size(), result.size());
-        assertEquals(expectedBookDTOs.get(0).getId(), result.get(0).getId());
-        assertEquals(expectedBookDTOs.get(1).getId(), result.get(1).getId());
+        assertEquals(1, result.getData().size());
+        assertEquals(2L, result.getData().get(0).getId());
+        assertEquals(List.of(authorDTO), result.getData().get(0).getAuthors());
+        assertEquals(CursorPage.encode(2L), result.getNextCursor());
+        verifyNoInteractions(authorRepository);
+        verify(bookRepository, never()).findAllByFlagAndIdGreaterThanOrderByIdAsc(any(), any(), any());
+    }
+
+    @Test
+    void getAllBooks_whenManyAuthors_mergesChunksInIdOrder() {
+        // Given
+        List<Long> authorIds = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(bookRepository.findListRowsByAuthorIds(anyList(), eq(Flag.ENABLED), eq(0L), eq(Limit.of(3))))
+                .thenReturn(List.of(bookListRow(5L), bookListRow(9L), bookListRow(12L)))
+                .thenReturn(List.of(bookListRow(3L), bookListRow(9L)))
+                .thenReturn(List.of());
+        when(bookRepository.findAuthorRowsByBookIds(anyList())).thenReturn(List.of());
+        when(bookMapper.bookListRowToBookDTO(any(BookListRow.class))).thenAnswer(invocation -> {
+            BookDTO bookDTO = new BookDTO();
+            bookDTO.setId(invocation.<BookListRow>getArgument(0).id());
+            return bookDTO;
+        });
+
+        //when
+        CursorPage<BookDTO> result = bookService.getAllBooks(authorIds, null, 2);
+
+        //then
+        verify(bookRepository, times(3)).findListRowsByAuthorIds(anyList(), eq(Flag.ENABLED), eq(0L), eq(Limit.of(3)));
+        verify(bookRepository).findAuthorRowsByBookIds(List.of(3L, 5L));
+        assertEquals(3L, result.getData().get(0).getId());
+        assertEquals(5L, result.getData().get(1).getId());
+        assertEquals(CursorPage.encode(5L), result.getNextCursor());
+    }
+
+    private static BookListRow bookListRow(Long id) {
+        return new BookListRow(id, Flag.ENABLED, null, null, null, null, "Book " + id, null, null,
+                null, null, null, null, Genre.FICTION, Status.DRAFT);
     }
 
     @Test
@@ -240,7 +389,7 @@ class BookServiceImplTest {
         Book book = getBooks().get(0);
         BookDTO bookDTO = getBookDTOs().get(0);
 
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.findWithAuthorsById(bookId)).thenReturn(Optional.of(book));
         when(bookMapper.bookToBookDTO(book)).thenReturn(bookDTO);
 
         //when
@@ -253,14 +402,14 @@ class BookServiceImplTest {
         assertEquals(Status.REVIEW, result.getStatus());
         assertEquals(1, result.getAuthors().size());
         assertEquals(getAuthorDTOs().get(0), result.getAuthors().get(0));
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findWithAuthorsById(bookId);
     }
 
     @Test
     void getBookById_recordNotFound() {
         // Given
         Long bookId = 1L;
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findWithAuthorsById(bookId)).thenReturn(Optional.empty());
 
         //when
         RecordNotFoundException exception = assertThrows(
@@ -268,7 +417,7 @@ class BookServiceImplTest {
 
         assertNotNull(exception);
         assertEquals("Book Not Found 1", exception.getMessage());
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findWithAuthorsById(bookId);
         verifyNoInteractions(bookMapper);
     }
 
@@ -283,6 +432,7 @@ class BookServiceImplTest {
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
         when(bookMapper.bookToBookDTO(book)).thenReturn(bookDTO);
         when(bookRepository.save(any(Book.class))).thenReturn(book);
+        BookFacet before = BookFacet.of(book);
 
         //when
         BookDTO result = bookService.deleteBook(bookId);
@@ -293,13 +443,18 @@ class BookServiceImplTest {
         assertEquals(Flag.DISABLED, result.getFlag());
         verify(bookRepository).findById(bookId);
         verify(bookRepository).save(any(Book.class));
+        verify(catalogCacheService).bookChanged(bookId);
+        verify(bookSearchService).remove(bookId);
+        verify(autocompleteService).removeBook(bookId);
+        verify(bookFacetService).record(before, book);
+        assertNull(BookFacet.of(book));
     }
 
     @Test
     void getDeleteById_recordNotFound() {
         // Given
         Long bookId = 1L;
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findWithAuthorsById(bookId)).thenReturn(Optional.empty());
 
         //when
         RecordNotFoundException exception = assertThrows(
@@ -307,7 +462,7 @@ class BookServiceImplTest {
 
         assertNotNull(exception);
         assertEquals("Book Not Found 1", exception.getMessage());
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findWithAuthorsById(bookId);
         verifyNoInteractions(bookMapper);
     }
 
@@ -337,10 +492,58 @@ class BookServiceImplTest {
 
         // Assert
         assertEquals(80, publishDto.getRemainingCopies());
+        assertNotNull(publishDto.getEventId());
+        assertNotNull(publishDto.getOccurredAt());
         assertEquals(expectedBookDTO, savedBookDTO);
         verify(bookRepository).findById(bookDTO.getId());
         verify(bookRepository).save(any(Book.class));
-        verify(messageProducer).sendMessage(eq(BOOK_PUBLISHED), anyString());
+        verify(catalogCacheService).bookChanged(existingBook.getId());
+        verify(outboxService).enqueue(eq(BOOK_PUBLISHED), eq("1"), any(byte[].class));
+    }
+
+    @Test
+    void testPublishBook_RetriesOnConcurrentUpdate() {
+        BookDTO bookDTO = getBookDTOs().get(0);
+
+        PublishDto publishDto = new PublishDto();
+        publishDto.setBookDTO(bookDTO);
+        publishDto.setPublishedCopies(20);
+
+        Book savedBook = getBooks().get(0);
+
+        when(bookRepository.findById(bookDTO.getId()))
+                .thenReturn(Optional.of(getBooks().get(0)), Optional.of(getBooks().get(0)));
+        when(bookRepository.save(any(Book.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Book.class, bookDTO.getId()))
+                .thenReturn(savedBook);
+        when(bookMapper.bookToBookDTO(savedBook)).thenReturn(getBookDTOs().get(0));
+
+        bookService.publishBook(publishDto);
+
+        verify(bookRepository, times(2)).findById(bookDTO.getId());
+        verify(bookRepository, times(2)).save(any(Book.class));
+        verify(outboxService).enqueue(eq(BOOK_PUBLISHED), eq("1"), any(byte[].class));
+    }
+
+    @Test
+    void testPublishBook_WhenConflictsPersist_ThrowsConcurrentUpdateException() {
+        BookDTO bookDTO = getBookDTOs().get(0);
+
+        PublishDto publishDto = new PublishDto();
+        publishDto.setBookDTO(bookDTO);
+        publishDto.setPublishedCopies(20);
+
+        when(bookRepository.findById(bookDTO.getId())).thenAnswer(invocation -> Optional.of(getBooks().get(0)));
+        when(bookRepository.save(any(Book.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Book.class, bookDTO.getId()));
+
+        ConcurrentUpdateException ex = assertThrows(ConcurrentUpdateException.class, () -> {
+            bookService.publishBook(publishDto);
+        });
+
+        assertEquals("Book 1 was modified concurrently, please retry", ex.getMessage());
+        verify(bookRepository, times(10)).save(any(Book.class));
+        verifyNoInteractions(catalogCacheService, outboxService);
     }
 
     @Test
@@ -358,7 +561,8 @@ class BookServiceImplTest {
 
         assertEquals("Book Not Found 1", ex.getMessage());
         verify(bookRepository).findById(1L);
-        verifyNoMoreInteractions(bookRepository, bookMapper, messageProducer);
+        verifyNoMoreInteractions(bookRepository, bookMapper, outboxService);
+        verifyNoInteractions(catalogCacheService);
     }
 
     @Test
@@ -380,6 +584,44 @@ class BookServiceImplTest {
 
         assertEquals("Not enough copies available", ex.getMessage());
         verify(bookRepository).findById(1L);
-        verifyNoMoreInteractions(bookRepository, bookMapper, messageProducer);
+        verifyNoMoreInteractions(bookRepository, bookMapper, outboxService);
+    }
+
+    @Test
+    void exportBooks() throws IOException {
+        // Given
+        List<Book> books = getBooks();
+        List<BookDTO> bookDTOs = getBookDTOs();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(bookRepository.streamAllByFlagOrderByIdAsc(Flag.ENABLED)).thenReturn(books.stream());
+        when(bookMapper.bookToBookDTO(books.get(0))).thenReturn(bookDTOs.get(0));
+        when(bookMapper.bookToBookDTO(books.get(1))).thenReturn(bookDTOs.get(1));
+
+        //when
+        bookService.exportBooks(outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(bookDTOs.get(0).getId(), objectMapper.readValue(lines[0], BookDTO.class).getId());
+        assertEquals(bookDTOs.get(1).getId(), objectMapper.readValue(lines[1], BookDTO.class).getId());
+
+        verify(entityManager).detach(books.get(0));
+        verify(entityManager).detach(books.get(1));
+    }
+
+    @Test
+    void getBookETag_changesWhenAnEmbeddedAuthorChanges() {
+        BookDTO book = getBookDTOs().get(0);
+        book.setCreatedDate(LocalDateTime.of(2024, 1, 1, 0, 0));
+        book.setLastModifiedDate(LocalDateTime.of(2024, 1, 2, 0, 0));
+        book.getAuthors().get(0).setLastModifiedDate(LocalDateTime.of(2024, 1, 3, 0, 0));
+        String before = bookService.getBookETag(book);
+
+        book.getAuthors().get(0).setLastModifiedDate(LocalDateTime.of(2024, 1, 4, 0, 0));
+
+        assertNotEquals(before, bookService.getBookETag(book));
+        verifyNoInteractions(bookRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.config.CacheConfig;
+import com.bookstore.authorservice.config.MessageProducer;
+import com.bookstore.authorservice.config.ReplicaIdentity;
+import com.bookstore.authorservice.mapper.dtos.CacheStatsDTO;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.bookstorestarter.config.KafkaTopics;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CatalogCacheServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MessageProducer messageProducer;
+
+    private final ReplicaIdentity replicaIdentity = new ReplicaIdentity("replica-a");
+
+    private CaffeineCacheManager cacheManager;
+
+    private CatalogCacheServiceImpl catalogCacheService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cacheManager = new CaffeineCacheManager(CacheConfig.AUTHORS_CACHE, CacheConfig.BOOKS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+        catalogCacheService = new CatalogCacheServiceImpl(cacheManager, bookRepository, messageProducer, replicaIdentity);
+    }
+
+    @Test
+    void evictAuthor_evictsAuthorAndTheirBooks() {
+        cacheManager.getCache(CacheConfig.AUTHORS_CACHE).put(1L, "author");
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).put(10L, "book");
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).put(11L, "other book");
+        when(bookRepository.findIdsByAuthorId(1L)).thenReturn(List.of(10L));
+
+        catalogCacheService.evictAuthor(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.AUTHORS_CACHE).get(1L));
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(10L));
+        assertNotNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(11L));
+        verify(bookRepository).findIdsByAuthorId(1L);
+        verifyNoInteractions(messageProducer);
+    }
+
+    @Test
+    void evictBook_evictsOnlyThatBook() {
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).put(10L, "book");
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).put(11L, "other book");
+
+        catalogCacheService.evictBook(10L);
+
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(10L));
+        assertNotNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(11L));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void authorChanged_evictsLocallyAndPublishesId() {
+        cacheManager.getCache(CacheConfig.AUTHORS_CACHE).put(1L, "author");
+        when(bookRepository.findIdsByAuthorId(1L)).thenReturn(List.of());
+
+        catalogCacheService.authorChanged(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.AUTHORS_CACHE).get(1L));
+        verify(messageProducer).sendMessage(KafkaTopics.AUTHOR_CHANGED, "1", "1", List.of(replicaIdentity.originHeader()));
+    }
+
+    @Test
+    void authorsCreated_publishesOneMessageWithoutLookingUpBooks() {
+        catalogCacheService.authorsCreated(List.of(1L, 2L, 3L));
+
+        verify(messageProducer).sendMessage(KafkaTopics.AUTHORS_CREATED, null, "1,2,3", List.of(replicaIdentity.originHeader()));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void booksCreated_publishesOneMessage() {
+        catalogCacheService.booksCreated(List.of(10L, 11L));
+
+        verify(messageProducer).sendMessage(KafkaTopics.BOOKS_CREATED, null, "10,11", List.of(replicaIdentity.originHeader()));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void bookChanged_evictsLocallyAndPublishesId() {
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).put(10L, "book");
+
+        catalogCacheService.bookChanged(10L);
+
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(10L));
+        verify(messageProducer).sendMessage(KafkaTopics.BOOK_CHANGED, "10", "10", List.of(replicaIdentity.originHeader()));
+    }
+
+    @Test
+    void getCacheStats() {
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).put(10L, "book");
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(10L);
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(11L);
+
+        List<CacheStatsDTO> stats = catalogCacheService.getCacheStats();
+
+        CacheStatsDTO bookStats = stats.stream()
+                .filter(cacheStats -> cacheStats.getName().equals(CacheConfig.BOOKS_CACHE))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, stats.size());
+        assertEquals(1, bookStats.getSize());
+        assertEquals(1, bookStats.getHits());
+        assertEquals(1, bookStats.getMisses());
+        assertEquals(0.5, bookStats.getHitRate());
+    }
+}
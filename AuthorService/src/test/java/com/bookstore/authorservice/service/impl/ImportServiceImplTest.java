@@ -0,0 +1,206 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Author;
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.importer.ImportFormat;
+import com.bookstore.authorservice.mapper.dtos.ImportReportDTO;
+import com.bookstore.authorservice.mapper.mappers.AuthorMapperImpl;
+import com.bookstore.authorservice.repository.AuthorRepository;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.service.AutocompleteService;
+import com.bookstore.authorservice.service.BookFacetService;
+import com.bookstore.authorservice.service.BookSearchService;
+import com.bookstore.authorservice.service.CatalogCacheService;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.Genre;
+import com.bookstore.bookstorestarter.enums.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.bookstore.authorservice.mock.MockData.getAuthors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ImportServiceImplTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CatalogCacheService catalogCacheService;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private BookFacetService bookFacetService;
+
+    @InjectMocks
+    private ImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(importService, "authorMapper", new AuthorMapperImpl());
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void importAuthors_reportsInvalidDuplicateAndExistingRows() throws IOException {
+        // Given
+        String csv = "firstName,lastName,email,bio\n"
+                + "Ada,Lovelace,ada@example.com,Mathematician\n"
+                + "Bad,Email,not-an-email,\n"
+                + "Ada,Again,ADA@example.com,\n"
+                + "John,Doe,john.doe@gmail.com,\n";
+        when(authorRepository.count()).thenReturn(1L);
+        when(authorRepository.streamAllEmails()).thenReturn(Stream.of("john.doe@gmail.com"));
+        when(authorRepository.findAllByEmailIn(anyList())).thenReturn(List.of(getAuthors().get(0)));
+
+        //when
+        ImportReportDTO report = importService.importAuthors(input(csv), ImportFormat.CSV);
+
+        //then
+        assertEquals(4, report.getProcessed());
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("email "));
+        assertEquals("Duplicate author email ADA@example.com", report.getErrors().get(1).getMessage());
+        assertEquals(5, report.getErrors().get(2).getLine());
+        assertEquals("Author already exists john.doe@gmail.com", report.getErrors().get(2).getMessage());
+
+        // ada@example.com is ruled out by the filter and never looked up
+        verify(authorRepository).findAllByEmailIn(List.of("john.doe@gmail.com"));
+        verify(authorRepository, never()).findByEmail(any());
+        ArgumentCaptor<List<Author>> saved = ArgumentCaptor.forClass(List.class);
+        verify(authorRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(Flag.ENABLED, saved.getValue().get(0).getFlag());
+        verify(autocompleteService).indexAuthor(saved.getValue().get(0));
+        verify(catalogCacheService).authorsCreated(anyList());
+        verify(catalogCacheService, never()).authorChanged(any());
+    }
+
+    @Test
+    void importAuthors_rejectsEveryRowOfAFailedBatch() throws IOException {
+        // Given
+        String ndjson = "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"email\":\"ada@example.com\"}\n"
+                + "{\"firstName\":\"Alan\",\"lastName\":\"Turing\",\"email\":\"alan@example.com\"}\n";
+        when(authorRepository.streamAllEmails()).thenReturn(Stream.empty());
+        when(authorRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        //when
+        ImportReportDTO report = importService.importAuthors(input(ndjson), ImportFormat.NDJSON);
+
+        //then
+        assertEquals(0, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals("Batch rejected: duplicate key", report.getErrors().get(1).getMessage());
+        verifyNoInteractions(autocompleteService, catalogCacheService);
+    }
+
+    @Test
+    void importBooks_resolvesAuthorsOncePerBatchAndReportsBadRows() throws IOException {
+        // Given
+        String ndjson = "{\"title\":\"Dune\",\"genre\":\"FICTION\",\"authors\":[{\"id\":1}]}\n"
+                + "{\"title\":\n"
+                + "{\"title\":\"Orphan\",\"authors\":[{\"id\":9}]}\n"
+                + "\n"
+                + "{\"title\":\"Nobody\",\"authors\":[]}\n"
+                + "{\"genre\":\"FICTION\",\"authors\":[{\"id\":1}]}\n";
+        when(authorRepository.findAllByIdIn(anyList())).thenReturn(List.of(getAuthors().get(0)));
+
+        //when
+        ImportReportDTO report = importService.importBooks(input(ndjson), ImportFormat.NDJSON);
+
+        //then
+        assertEquals(5, report.getProcessed());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(3, report.getErrors().get(1).getLine());
+        assertEquals("Author Not Found 9", report.getErrors().get(1).getMessage());
+        assertEquals(5, report.getErrors().get(2).getLine());
+        assertTrue(report.getErrors().get(2).getMessage().startsWith("authors "));
+        assertEquals(6, report.getErrors().get(3).getLine());
+        assertTrue(report.getErrors().get(3).getMessage().startsWith("title "));
+
+        verify(authorRepository, times(1)).findAllByIdIn(anyList());
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository).saveAll(saved.capture());
+        Book book = saved.getValue().get(0);
+        assertEquals("Dune", book.getTitle());
+        assertEquals(Genre.FICTION, book.getGenre());
+        assertEquals(Status.DRAFT, book.getStatus());
+        verify(bookSearchService).index(book);
+        verify(bookFacetService).record(null, book);
+        verify(catalogCacheService).booksCreated(anyList());
+        verify(catalogCacheService, never()).bookChanged(any());
+    }
+
+    @Test
+    void importBooks_parsesCsvAuthorIdsAndRejectsUnknownGenres() throws IOException {
+        // Given
+        String csv = "title,genre,synopsis,status,authorIds\n"
+                + "Dune,fiction,Spice,PUBLISHED,1;2\n"
+                + "Odd,NOT_A_GENRE,,,1\n";
+        when(authorRepository.findAllByIdIn(anyList())).thenReturn(getAuthors());
+
+        //when
+        ImportReportDTO report = importService.importBooks(input(csv), ImportFormat.CSV);
+
+        //then
+        assertEquals(1, report.getImported());
+        assertEquals("genre has an unknown value NOT_A_GENRE", report.getErrors().get(0).getMessage());
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().get(0).getAuthors().size());
+        assertEquals(Status.PUBLISHED, saved.getValue().get(0).getStatus());
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
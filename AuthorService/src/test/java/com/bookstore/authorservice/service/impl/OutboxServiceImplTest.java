@@ -0,0 +1,138 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.config.MessageProducer;
+import com.bookstore.authorservice.entity.OutboxEvent;
+import com.bookstore.authorservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOK_PUBLISHED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private MessageProducer messageProducer;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxServiceImpl outboxService;
+
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        outboxService = new OutboxServiceImpl(outboxEventRepository, messageProducer, transactionTemplate, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void enqueue_storesTheEvent() {
+        outboxService.enqueue(BOOK_PUBLISHED, "1", "{}".getBytes(StandardCharsets.UTF_8));
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(saved.capture());
+        assertEquals(BOOK_PUBLISHED, saved.getValue().getTopic());
+        assertEquals("1", saved.getValue().getMessageKey());
+        assertEquals("{}", new String(saved.getValue().getPayload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void relay_sendsInOrderAndDeletesAcknowledgedBatches() {
+        // Given
+        List<OutboxEvent> fullBatch = events(500);
+        List<OutboxEvent> lastBatch = events(3);
+        when(outboxEventRepository.findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(any(), eq(Limit.of(500))))
+                .thenReturn(fullBatch, lastBatch);
+        when(messageProducer.sendMessage(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        //when
+        int relayed = outboxService.relay();
+
+        //then
+        assertEquals(503, relayed);
+        verify(messageProducer, times(503)).sendMessage(anyString(), anyString(), any(byte[].class));
+        verify(outboxEventRepository).leaseAll(eq(ids(fullBatch)), any(LocalDateTime.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(ids(fullBatch));
+        verify(outboxEventRepository).deleteAllByIdInBatch(ids(lastBatch));
+    }
+
+    @Test
+    void relay_releasesTheBatchWhenTheBrokerRejectsASend() {
+        // Given
+        List<OutboxEvent> batch = events(2);
+        when(outboxEventRepository.findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(any(), eq(Limit.of(500))))
+                .thenReturn(batch);
+        when(messageProducer.sendMessage(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        //when
+        assertThrows(IllegalStateException.class, () -> outboxService.relay());
+
+        //then
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(outboxEventRepository).leaseAll(ids(batch), null);
+    }
+
+    @Test
+    void relay_isANoOpWhenEmpty() {
+        when(outboxEventRepository.findAllByLeasedUntilIsNullOrLeasedUntilBeforeOrderByIdAsc(any(), eq(Limit.of(500))))
+                .thenReturn(List.of());
+
+        assertEquals(0, outboxService.relay());
+        verify(outboxEventRepository, never()).leaseAll(anyList(), any());
+        verify(messageProducer, never()).sendMessage(anyString(), anyString(), any(byte[].class));
+    }
+
+    private List<OutboxEvent> events(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    OutboxEvent event = new OutboxEvent(BOOK_PUBLISHED, String.valueOf(i), ("{\"id\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+                    event.setId(nextId++);
+                    return event;
+                })
+                .toList();
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+}
@@ -0,0 +1,170 @@
+package com.bookstore.authorservice.service.impl;
+
+import com.bookstore.authorservice.entity.Book;
+import com.bookstore.authorservice.enums.PublishJobStatus;
+import com.bookstore.authorservice.exception.ConcurrentUpdateException;
+import com.bookstore.authorservice.exception.JobQueueFullException;
+import com.bookstore.authorservice.exception.RecordNotFoundException;
+import com.bookstore.authorservice.mapper.dtos.BookDTO;
+import com.bookstore.authorservice.mapper.dtos.PublishJobDTO;
+import com.bookstore.authorservice.repository.BookRepository;
+import com.bookstore.authorservice.service.BookService;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PublishJobServiceImplTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private PublishJobServiceImpl publishJobService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        publishJobService = new PublishJobServiceImpl(bookService, bookRepository, 1, 2, Duration.ofMinutes(5));
+
+        Book book = new Book();
+        book.setId(1L);
+        book.setTotalCopies(100);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+    }
+
+    @AfterEach
+    void tearDown() {
+        publishJobService.shutdown();
+    }
+
+    @Test
+    void submit_runsJobInBackground() throws Exception {
+        BookDTO published = new BookDTO();
+        published.setId(1L);
+        when(bookService.publishBook(any())).thenReturn(published);
+
+        PublishJobDTO job = publishJobService.submit(publishDto(1L, 10), "acme");
+
+        assertEquals(PublishJobStatus.QUEUED, job.getStatus());
+        assertEquals("acme", job.getPublisher());
+
+        PublishJobDTO finished = awaitFinished(job.getId());
+        assertEquals(PublishJobStatus.SUCCEEDED, finished.getStatus());
+        assertEquals(1L, finished.getBook().getId());
+        assertNotNull(finished.getStartedAt());
+        assertNotNull(finished.getFinishedAt());
+    }
+
+    @Test
+    void submit_recordsFailure() throws Exception {
+        when(bookService.publishBook(any())).thenThrow(new ConcurrentUpdateException("Book 1 is being updated concurrently"));
+
+        PublishJobDTO job = publishJobService.submit(publishDto(1L, 10), null);
+
+        assertEquals("anonymous", job.getPublisher());
+        PublishJobDTO finished = awaitFinished(job.getId());
+        assertEquals(PublishJobStatus.FAILED, finished.getStatus());
+        assertEquals("Book 1 is being updated concurrently", finished.getError());
+    }
+
+    @Test
+    void submit_rejectsInvalidRequestsUpFront() {
+        when(bookRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> publishJobService.submit(publishDto(1L, 0), "acme"));
+        assertThrows(IllegalArgumentException.class, () -> publishJobService.submit(publishDto(1L, 101), "acme"));
+        assertThrows(RecordNotFoundException.class, () -> publishJobService.submit(publishDto(2L, 1), "acme"));
+        verify(bookService, never()).publishBook(any());
+    }
+
+    @Test
+    void submit_throwsWhenQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookService.publishBook(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return new BookDTO();
+        });
+
+        // the single worker holds the first job, so the next two fill the queue
+        publishJobService.submit(publishDto(1L, 1), "acme");
+        running.await(5, TimeUnit.SECONDS);
+        publishJobService.submit(publishDto(1L, 1), "acme");
+        publishJobService.submit(publishDto(1L, 1), "acme");
+
+        assertThrows(JobQueueFullException.class, () -> publishJobService.submit(publishDto(1L, 1), "acme"));
+        release.countDown();
+    }
+
+    @Test
+    void finishedJobExpiry_keepsWaitingJobsPastTheRetention() {
+        AtomicLong now = new AtomicLong();
+        Cache<String, PublishJobDTO> jobs = Caffeine.newBuilder()
+                .expireAfter(PublishJobServiceImpl.finishedJobExpiry(Duration.ofMinutes(5)))
+                .ticker(now::get)
+                .executor(Runnable::run)
+                .build();
+        PublishJobDTO queued = new PublishJobDTO("queued", "acme", 1L, 1, PublishJobStatus.QUEUED,
+                LocalDateTime.now(), null, null, null, null);
+        jobs.put("queued", queued);
+
+        now.addAndGet(Duration.ofHours(2).toNanos());
+        assertNotNull(jobs.getIfPresent("queued"));
+
+        PublishJobDTO finished = new PublishJobDTO("queued", "acme", 1L, 1, PublishJobStatus.SUCCEEDED,
+                queued.getSubmittedAt(), LocalDateTime.now(), LocalDateTime.now(), null, null);
+        jobs.put("queued", finished);
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertNotNull(jobs.getIfPresent("queued"));
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertNull(jobs.getIfPresent("queued"));
+    }
+
+    @Test
+    void getJob_throwsForUnknownJob() {
+        assertThrows(RecordNotFoundException.class, () -> publishJobService.getJob("missing"));
+    }
+
+    private PublishJobDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        PublishJobDTO job = publishJobService.getJob(jobId);
+        while (job.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = publishJobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private static PublishDto<BookDTO> publishDto(Long bookId, int copies) {
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setId(bookId);
+        PublishDto<BookDTO> publishDto = new PublishDto<>();
+        publishDto.setBookDTO(bookDTO);
+        publishDto.setPublishedCopies(copies);
+        return publishDto;
+    }
+}
@@ -1,33 +1,97 @@
 package com.bookstore.bookinventoryservice.config;
 
+import com.bookstore.bookstorestarter.codec.JsonEventDeserializer;
+import com.bookstore.bookstorestarter.codec.JsonEventSerializer;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
 public class KafkaConsumerConfig {
 
+    private static final Duration IDLE_COMMIT_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Duration REVOKE_TIMEOUT = Duration.ofSeconds(30);
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, Object> consumerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "my-group-id");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // a payload that cannot be decoded is handed to the error handler instead of failing every poll
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonEventDeserializer.class);
         return new DefaultKafkaConsumerFactory<>(configProps);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        return factory;
+    }
+
+    // events that keep failing are parked on the topic's dead letter topic in the same encoding, ready to be replayed
+    @Bean
+    public KafkaTemplate<Object, Object> deadLetterTemplate() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonEventSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps));
+    }
+
+    @Bean
+    public KeyedEventDispatcher keyedEventDispatcher(
+            @Value("${bookstore.consumer.lanes:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int lanes,
+            @Value("${bookstore.consumer.lane-capacity:1000}") int laneCapacity,
+            @Value("${bookstore.consumer.retry-interval:PT1S}") Duration retryInterval,
+            @Value("${bookstore.consumer.retry-attempts:3}") long retryAttempts,
+            KafkaTemplate<Object, Object> deadLetterTemplate) {
+        return new KeyedEventDispatcher(lanes, laneCapacity, new FixedBackOff(retryInterval.toMillis(), retryAttempts),
+                new DeadLetterPublishingRecoverer(deadLetterTemplate));
+    }
+
+    // hands a listener everything one poll returned and leaves offset commits to the dispatcher
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> keyedListenerContainerFactory(
+            KeyedEventDispatcher keyedEventDispatcher) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        // idle events arrive on the consumer thread, so work finished after the last poll still gets committed
+        containerProperties.setIdleEventInterval(IDLE_COMMIT_INTERVAL.toMillis());
+        containerProperties.setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                keyedEventDispatcher.release(consumer, partitions, REVOKE_TIMEOUT);
+            }
+        });
         return factory;
     }
 
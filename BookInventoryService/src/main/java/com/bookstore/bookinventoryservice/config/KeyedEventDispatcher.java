@@ -0,0 +1,259 @@
+package com.bookstore.bookinventoryservice.config;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+// records with the same key always land on the same single-threaded lane, so each key keeps its order
+// while different keys run in parallel; offsets are only committed below the lowest record still in flight
+// and a record that keeps failing is only released once the recoverer has taken it
+public class KeyedEventDispatcher implements DisposableBean {
+
+    Logger logger = LoggerFactory.getLogger(KeyedEventDispatcher.class);
+
+    private final List<BlockingQueue<Runnable>> lanes = new ArrayList<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final ConcurrentMap<TopicPartition, PartitionProgress> progress = new ConcurrentHashMap<>();
+
+    private final BackOff backOff;
+
+    private final ConsumerRecordRecoverer recoverer;
+
+    public KeyedEventDispatcher(int laneCount, int laneCapacity, BackOff backOff, ConsumerRecordRecoverer recoverer) {
+        this.backOff = backOff;
+        this.recoverer = recoverer;
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Runnable> lane = new ArrayBlockingQueue<>(laneCapacity);
+            Thread worker = new Thread(() -> drain(lane), "inventory-lane-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            lanes.add(lane);
+            workers.add(worker);
+        }
+    }
+
+    // blocks the consumer thread once a lane is full, which is the back-pressure on the poll loop
+    public <T> void dispatch(List<ConsumerRecord<String, Object>> records, Function<T, Object> keyOf,
+                             java.util.function.Consumer<List<T>> handler) {
+        Map<Integer, List<ConsumerRecord<String, Object>>> byLane = new LinkedHashMap<>();
+        for (ConsumerRecord<String, Object> record : records) {
+            PartitionProgress partition = progressFor(new TopicPartition(record.topic(), record.partition()));
+            partition.dispatched(record.offset());
+            // undecodable records arrive as nulls; the recoverer takes their raw bytes from the deserializer's
+            // header, and one it cannot take stays in flight like any other unrecovered record
+            if (record.value() == null) {
+                if (!recover(record, new IllegalArgumentException("Event could not be decoded"))) {
+                    partition.inFlight.add(record.offset());
+                }
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            T value = (T) record.value();
+            partition.inFlight.add(record.offset());
+            byLane.computeIfAbsent(laneOf(keyOf.apply(value)), lane -> new ArrayList<>()).add(record);
+        }
+
+        for (Map.Entry<Integer, List<ConsumerRecord<String, Object>>> entry : byLane.entrySet()) {
+            List<ConsumerRecord<String, Object>> laneRecords = entry.getValue();
+            enqueue(entry.getKey(), () -> {
+                for (ConsumerRecord<String, Object> record : handle(laneRecords, handler)) {
+                    progressFor(new TopicPartition(record.topic(), record.partition())).inFlight.remove(record.offset());
+                }
+            });
+        }
+    }
+
+    // must run on the consumer thread, like every other Consumer call
+    public void commit(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = commitableOffsets(consumer.assignment());
+        if (!offsets.isEmpty()) {
+            // the callback runs on the consumer thread; until it succeeds the same offsets are offered again,
+            // at the latest on the next idle event
+            consumer.commitAsync(offsets, (committed, error) -> {
+                if (error != null) {
+                    logger.warn("Offset commit failed, it will be retried with the next one: {}", error.getMessage());
+                } else {
+                    markCommitted(committed);
+                }
+            });
+        }
+    }
+
+    // gives in-flight records of revoked partitions a chance to finish before their offsets move to another consumer
+    public void release(Consumer<?, ?> consumer, Collection<TopicPartition> partitions, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (TopicPartition partition : partitions) {
+            PartitionProgress tracked = progress.get(partition);
+            while (tracked != null && !tracked.inFlight.isEmpty() && System.nanoTime() < deadline) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        Map<TopicPartition, OffsetAndMetadata> offsets = commitableOffsets(partitions);
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+        partitions.forEach(progress::remove);
+    }
+
+    Map<TopicPartition, OffsetAndMetadata> commitableOffsets(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            PartitionProgress tracked = progress.get(partition);
+            if (tracked == null) {
+                continue;
+            }
+            long safe = tracked.safeOffset();
+            if (safe > tracked.committed) {
+                offsets.put(partition, new OffsetAndMetadata(safe));
+            }
+        }
+        return offsets;
+    }
+
+    void markCommitted(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        offsets.forEach((partition, offset) -> {
+            // a partition revoked meanwhile has already been committed synchronously
+            PartitionProgress tracked = progress.get(partition);
+            if (tracked != null) {
+                tracked.committed = Math.max(tracked.committed, offset.offset());
+            }
+        });
+    }
+
+    // returns the records whose offsets may be released: handled, or handed to the recoverer
+    private <T> List<ConsumerRecord<String, Object>> handle(List<ConsumerRecord<String, Object>> records,
+                                                            java.util.function.Consumer<List<T>> handler) {
+        try {
+            handler.accept(values(records));
+            return records;
+        } catch (Exception e) {
+            logger.warn("Failed to process {} events, retrying them one at a time: {}", records.size(), e.getMessage());
+        }
+
+        List<ConsumerRecord<String, Object>> settled = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Object> record : records) {
+            if (handleOne(record, handler)) {
+                settled.add(record);
+            }
+        }
+        return settled;
+    }
+
+    private <T> boolean handleOne(ConsumerRecord<String, Object> record, java.util.function.Consumer<List<T>> handler) {
+        BackOffExecution execution = backOff.start();
+        while (true) {
+            try {
+                handler.accept(values(List.of(record)));
+                return true;
+            } catch (Exception e) {
+                long wait = execution.nextBackOff();
+                if (wait == BackOffExecution.STOP) {
+                    return recover(record, e);
+                }
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    private boolean recover(ConsumerRecord<String, Object> record, Exception cause) {
+        try {
+            recoverer.accept(record, cause);
+            logger.error("Event {}-{}@{} failed and was handed to the recoverer: {}",
+                    record.topic(), record.partition(), record.offset(), cause.getMessage(), cause);
+            return true;
+        } catch (RuntimeException e) {
+            // keeping it in flight holds the partition's commit below it, so it is redelivered after a restart
+            logger.error("Could not recover event {}-{}@{}, its offset stays uncommitted: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> values(List<ConsumerRecord<String, Object>> records) {
+        return records.stream().map(record -> (T) record.value()).toList();
+    }
+
+    private int laneOf(Object key) {
+        return Math.floorMod(key == null ? 0 : key.hashCode(), lanes.size());
+    }
+
+    private void enqueue(int lane, Runnable task) {
+        try {
+            lanes.get(lane).put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching events", e);
+        }
+    }
+
+    private void drain(BlockingQueue<Runnable> lane) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                lane.take().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private PartitionProgress progressFor(TopicPartition partition) {
+        return progress.computeIfAbsent(partition, key -> new PartitionProgress());
+    }
+
+    @Override
+    public void destroy() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    private static final class PartitionProgress {
+        private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+        // written by the consumer thread only
+        private volatile long next = -1;
+
+        private long committed = -1;
+
+        void dispatched(long offset) {
+            next = Math.max(next, offset + 1);
+        }
+
+        long safeOffset() {
+            Long lowest = inFlight.ceiling(Long.MIN_VALUE);
+            return lowest != null ? lowest : next;
+        }
+    }
+}
@@ -3,14 +3,20 @@ package com.bookstore.bookinventoryservice.config;
 import com.bookstore.bookinventoryservice.service.InventoryService;
 import com.bookstore.bookinventoryservice.service.InventoryTransactionService;
 import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.dtos.DomainEvent;
 import com.bookstore.bookstorestarter.dtos.PublishEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 import static com.bookstore.bookstorestarter.config.KafkaTopics.BOOK_PUBLISHED;
 import static com.bookstore.bookstorestarter.config.KafkaTopics.USER_BORROWED_BOOK;
 import static com.bookstore.bookstorestarter.config.KafkaTopics.USER_RETURNED_BOOK;
@@ -18,42 +24,61 @@ import static com.bookstore.bookstorestarter.config.KafkaTopics.USER_RETURNED_BO
 @Component
 public class MessageConsumer {
 
-    private ObjectMapper objectMapper;
-
     @Autowired
     private InventoryService inventoryService;
 
     @Autowired
     private InventoryTransactionService inventoryTransactionService;
 
+    @Autowired
+    private KeyedEventDispatcher keyedEventDispatcher;
+
     Logger logger = LoggerFactory.getLogger(MessageConsumer.class);
 
-    @KafkaListener(topics = BOOK_PUBLISHED, groupId = "my-group-id")
-    public void listenToPublishedBookMessage(String message) {
-        logger.info("Message received for book published: {}", message);
-        PublishEvent publishEvent = objectMapper.convertValue(message, PublishEvent.class);
-        inventoryService.handleBookPublishedEvent(publishEvent);
+    @KafkaListener(topics = BOOK_PUBLISHED, groupId = "my-group-id",
+            containerFactory = "keyedListenerContainerFactory")
+    public void listenToPublishedBookMessage(List<ConsumerRecord<String, Object>> records, Consumer<?, ?> consumer) {
+        logger.info("Message received for {} books published", records.size());
+        stampEventIds(records);
+        keyedEventDispatcher.<PublishEvent>dispatch(records,
+                event -> event.getBookDTO() == null ? null : event.getBookDTO().getId(),
+                events -> events.forEach(inventoryService::handleBookPublishedEvent));
+        keyedEventDispatcher.commit(consumer);
     }
 
-    @KafkaListener(topics = USER_BORROWED_BOOK, groupId = "inventory-group")
-    public void listenToBookBorrowed(String message) {
-        logger.info("Received Kafka message for user book action: {}", message);
-        try {
-            BorrowAndReturnEvent event = objectMapper.readValue(message, BorrowAndReturnEvent.class);
-            inventoryTransactionService.handleBorrowAndReturnEvent(event);
-        } catch (Exception e) {
-            logger.error("Failed to process borrow/return event: {}", e.getMessage(), e);
-        }
+    @KafkaListener(topics = USER_BORROWED_BOOK, groupId = "inventory-group",
+            containerFactory = "keyedListenerContainerFactory")
+    public void listenToBookBorrowed(List<ConsumerRecord<String, Object>> records, Consumer<?, ?> consumer) {
+        logger.info("Received {} Kafka messages for user book action", records.size());
+        dispatchBorrowAndReturnEvents(records, consumer);
+    }
+
+    @KafkaListener(topics = USER_RETURNED_BOOK, groupId = "my-group-id",
+            containerFactory = "keyedListenerContainerFactory")
+    public void listenToBookReturned(List<ConsumerRecord<String, Object>> records, Consumer<?, ?> consumer) {
+        logger.info("Message received for {} books returned", records.size());
+        dispatchBorrowAndReturnEvents(records, consumer);
+    }
+
+    @EventListener
+    public void onContainerIdle(ListenerContainerIdleEvent event) {
+        keyedEventDispatcher.commit(event.getConsumer());
+    }
+
+    // each lane still aggregates its share of the poll per inventory
+    private void dispatchBorrowAndReturnEvents(List<ConsumerRecord<String, Object>> records, Consumer<?, ?> consumer) {
+        stampEventIds(records);
+        keyedEventDispatcher.<BorrowAndReturnEvent>dispatch(records, BorrowAndReturnEvent::getInventoryId,
+                inventoryTransactionService::handleBorrowAndReturnEvents);
+        keyedEventDispatcher.commit(consumer);
     }
 
-    @KafkaListener(topics = USER_RETURNED_BOOK, groupId = "my-group-id")
-    public void listenToBookReturned(String message) {
-        logger.info("Message received for book returned: {}", message);
-        try {
-            BorrowAndReturnEvent event = objectMapper.readValue(message, BorrowAndReturnEvent.class);
-            inventoryTransactionService.handleBorrowAndReturnEvent(event);
-        } catch (Exception e) {
-            logger.error("Failed to process borrow/return event: {}", e.getMessage(), e);
+    // events from producers without ids are de-duplicated by their position in the log instead
+    private static void stampEventIds(List<ConsumerRecord<String, Object>> records) {
+        for (ConsumerRecord<String, Object> record : records) {
+            if (record.value() instanceof DomainEvent event && event.getEventId() == null) {
+                event.setEventId(record.topic() + "-" + record.partition() + "@" + record.offset());
+            }
         }
     }
 }
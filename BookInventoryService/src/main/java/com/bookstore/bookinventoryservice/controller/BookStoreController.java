@@ -12,7 +12,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -50,8 +52,12 @@ public class BookStoreController {
     }
 
     @GetMapping(value = "{bookStoreId}")
-    public IDataResponse<BookStoreDTO> getBookStoreById(@PathVariable Long bookStoreId) {
+    public IDataResponse<BookStoreDTO> getBookStoreById(@PathVariable Long bookStoreId, WebRequest webRequest) {
         logger.info("Getting book store details {}", bookStoreId);
+        String eTag = bookStoreService.getBookStoreETag(bookStoreId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         IDataResponse<BookStoreDTO> response = new IDataResponse<>();
         response.setData(List.of(bookStoreService.getBookStoreById(bookStoreId)));
         response.setValid(true);
@@ -60,10 +66,11 @@ public class BookStoreController {
     }
 
     @GetMapping()
-    public IDataResponse<BookStoreDTO> getAllBookStores() {
+    public IDataResponse<BookStoreDTO> getAllBookStores(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
         logger.info("Getting book stores details");
         IDataResponse<BookStoreDTO> response = new IDataResponse<>();
-        response.setData(bookStoreService.getAllBookStores());
+        response.setPage(bookStoreService.getAllBookStores(cursor, limit));
         response.setValid(true);
         response.setMessage("Book stores retrieved successfully");
         return response;
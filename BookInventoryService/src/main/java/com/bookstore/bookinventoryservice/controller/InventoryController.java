@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -52,8 +53,12 @@ public class InventoryController {
     }
 
     @GetMapping(value = "{inventoryId}")
-    public IDataResponse<InventoryDTO> getInventoryById(@PathVariable Long inventoryId) {
+    public IDataResponse<InventoryDTO> getInventoryById(@PathVariable Long inventoryId, WebRequest webRequest) {
         logger.info("Getting inventory details {}", inventoryId);
+        String eTag = inventoryService.getInventoryETag(inventoryId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         IDataResponse<InventoryDTO> response = new IDataResponse<>();
         response.setData(List.of(inventoryService.getInventoryById(inventoryId)));
         response.setValid(true);
@@ -63,10 +68,12 @@ public class InventoryController {
 
     @GetMapping()
     public IDataResponse<InventoryDTO> getInventories(@RequestParam(required = false) Long storeId,
-                                                      @RequestParam(required = false) Long bookId) {
+                                                      @RequestParam(required = false) Long bookId,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit) {
         logger.info("Getting inventories details by {} or  {}", storeId, bookId);
         IDataResponse<InventoryDTO> response = new IDataResponse<>();
-        response.setData(inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId));
+        response.setPage(inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId, cursor, limit));
         response.setValid(true);
         response.setMessage("Inventories retrieved successfully");
         return response;
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -38,10 +39,12 @@ public class InventoryTransactionController {
     }
 
     @GetMapping(value = "view-history/{inventoryId}")
-    public IDataResponse<InventoryTransactionDTO> viewTransactionHistory(@PathVariable Long inventoryId) {
+    public IDataResponse<InventoryTransactionDTO> viewTransactionHistory(@PathVariable Long inventoryId,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer limit) {
         logger.info("Retrieving transaction history for inventory {}", inventoryId);
         IDataResponse<InventoryTransactionDTO> response = new IDataResponse<>();
-        response.setData(inventoryTransactionService.viewTransactionHistory(inventoryId));
+        response.setPage(inventoryTransactionService.viewTransactionHistory(inventoryId, cursor, limit));
         response.setValid(true);
         response.setMessage("Transaction history retrieved successfully");
         return response;
@@ -7,6 +7,7 @@ import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -16,7 +17,7 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "BookStores")
+@Table(name = "BookStores", indexes = @Index(name = "idx_book_stores_flag_id", columnList = "flag, id"))
 public class BookStore extends FlagableAuditableEntity {
 
     private String name;
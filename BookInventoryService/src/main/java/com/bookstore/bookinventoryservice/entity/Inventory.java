@@ -7,6 +7,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -19,7 +20,11 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "Inventories")
+@Table(name = "Inventories", indexes = {
+        @Index(name = "idx_inventories_flag_id", columnList = "flag, id"),
+        @Index(name = "idx_inventories_book_flag_id", columnList = "bookId, flag, id"),
+        @Index(name = "idx_inventories_store_flag_id", columnList = "bookstore_id, flag, id")
+})
 public class Inventory extends FlagableAuditableEntity {
 
    private Long bookId;
@@ -5,6 +5,7 @@ import com.bookstore.bookstorestarter.enums.InventoryAction;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -12,7 +13,7 @@ import lombok.Data;
 
 @Entity
 @Data
-@Table(name = "InventoryTransactions")
+@Table(name = "InventoryTransactions", indexes = @Index(name = "idx_inventory_transactions_inventory_id", columnList = "inventory_id, id"))
 public class InventoryTransaction extends FlagableAuditableEntity {
 
     @ManyToOne
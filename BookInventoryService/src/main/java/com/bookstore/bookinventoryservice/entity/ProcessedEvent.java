@@ -0,0 +1,53 @@
+package com.bookstore.bookinventoryservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "ProcessedEvents", indexes = @Index(name = "idx_processed_events_processed_at", columnList = "processedAt"))
+public class ProcessedEvent implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String eventId;
+
+    private LocalDateTime processedAt;
+
+    // the id is assigned, so without this saveAll would merge and select every row first
+    @Transient
+    private boolean persisted;
+
+    public ProcessedEvent(String eventId, LocalDateTime processedAt) {
+        this.eventId = eventId;
+        this.processedAt = processedAt;
+    }
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
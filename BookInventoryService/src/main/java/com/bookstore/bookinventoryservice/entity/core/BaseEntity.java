@@ -1,9 +1,8 @@
 package com.bookstore.bookinventoryservice.entity.core;
 
 import com.bookstore.bookinventoryservice.model.Model;
+import com.bookstore.bookstorestarter.Util.PooledId;
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
@@ -16,7 +15,7 @@ public abstract class BaseEntity implements Model, Serializable {
     @Setter
     @Getter
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @PooledId
     @Column(name = "id")
     protected Long id;
 
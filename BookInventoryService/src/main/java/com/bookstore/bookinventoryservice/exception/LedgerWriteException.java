@@ -0,0 +1,11 @@
+package com.bookstore.bookinventoryservice.exception;
+
+public class LedgerWriteException extends RuntimeException {
+    public LedgerWriteException(String message) {
+        super(message);
+    }
+
+    public LedgerWriteException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
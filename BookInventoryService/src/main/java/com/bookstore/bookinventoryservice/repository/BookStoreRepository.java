@@ -1,8 +1,12 @@
 package com.bookstore.bookinventoryservice.repository;
 
 import com.bookstore.bookinventoryservice.entity.BookStore;
+import com.bookstore.bookstorestarter.Util.AuditStamp;
 import com.bookstore.bookstorestarter.enums.Flag;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +18,9 @@ public interface BookStoreRepository extends JpaRepository<BookStore, Long> {
     Optional<BookStore> findByName(String name);
 
     List<BookStore> findAllByFlag(Flag flag);
+
+    List<BookStore> findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag flag, Long id, Limit limit);
+
+    @Query("select new com.bookstore.bookstorestarter.Util.AuditStamp(s.id, s.createdDate, s.lastModifiedDate) from BookStore s where s.id = :id")
+    Optional<AuditStamp> findAuditStampById(@Param("id") Long id);
 }
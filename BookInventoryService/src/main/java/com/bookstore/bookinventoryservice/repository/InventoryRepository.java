@@ -2,11 +2,19 @@ package com.bookstore.bookinventoryservice.repository;
 
 import com.bookstore.bookinventoryservice.entity.BookStore;
 import com.bookstore.bookinventoryservice.entity.Inventory;
+import com.bookstore.bookinventoryservice.repository.projection.InventoryStoreRow;
+import com.bookstore.bookstorestarter.Util.AuditStamp;
 import com.bookstore.bookstorestarter.enums.Flag;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.awt.print.Book;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +30,49 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findAllByFlag(Flag flag);
 
     Optional<Inventory> findByBookIdAndFlag(Long bookId, Flag flag);
+
+    List<Inventory> findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag flag, Long id, Limit limit);
+
+    List<Inventory> findAllByBookIdAndFlagAndIdGreaterThanOrderByIdAsc(Long bookId, Flag flag, Long id, Limit limit);
+
+    List<Inventory> findAllByBookStoreAndFlagAndIdGreaterThanOrderByIdAsc(BookStore bookStore, Flag flag, Long id, Limit limit);
+
+    List<Inventory> findAllByBookStoreAndBookIdAndFlagAndIdGreaterThanOrderByIdAsc(BookStore bookStore, Long bookId, Flag flag, Long id, Limit limit);
+
+    // status is assigned first because MySQL evaluates SET clauses left to right against updated values
+    @Modifying
+    @Query("update Inventory i set " +
+            "i.status = case when i.availableCopies = :quantity " +
+            "then com.bookstore.bookstorestarter.enums.InventoryStatus.OUT_OF_STOCK " +
+            "else com.bookstore.bookstorestarter.enums.InventoryStatus.ACTIVE end, " +
+            "i.availableCopies = i.availableCopies - :quantity, i.lastModifiedDate = :now " +
+            "where i.id = :id and i.availableCopies >= :quantity")
+    int borrowCopies(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Inventory i set " +
+            "i.status = com.bookstore.bookstorestarter.enums.InventoryStatus.ACTIVE, " +
+            "i.availableCopies = i.availableCopies + :quantity, i.lastModifiedDate = :now " +
+            "where i.id = :id and i.availableCopies + :quantity <= i.totalCopies")
+    int returnCopies(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // applies a batch's net delta only if every running balance along the way stays within the bounds
+    @Modifying
+    @Query("update Inventory i set " +
+            "i.status = case when i.availableCopies + :delta = 0 " +
+            "then com.bookstore.bookstorestarter.enums.InventoryStatus.OUT_OF_STOCK " +
+            "else com.bookstore.bookstorestarter.enums.InventoryStatus.ACTIVE end, " +
+            "i.availableCopies = i.availableCopies + :delta, i.lastModifiedDate = :now " +
+            "where i.id = :id and i.availableCopies + :lowest >= 0 and i.availableCopies + :highest <= i.totalCopies")
+    int applyBoundedDelta(@Param("id") Long id, @Param("delta") int delta, @Param("lowest") int lowest,
+                          @Param("highest") int highest, @Param("now") LocalDateTime now);
+
+    @Query("select new com.bookstore.bookinventoryservice.repository.projection.InventoryStoreRow(i.id, s.id) " +
+            "from Inventory i left join i.bookStore s where i.id in :ids")
+    List<InventoryStoreRow> findStoresByIdIn(@Param("ids") Collection<Long> ids);
+
+    // the inventory representation embeds its book store, so store edits change the validator too
+    @Query("select new com.bookstore.bookstorestarter.Util.AuditStamp(i.id, i.createdDate, i.lastModifiedDate, s.lastModifiedDate) " +
+            "from Inventory i left join i.bookStore s where i.id = :id")
+    Optional<AuditStamp> findAuditStampById(@Param("id") Long id);
 }
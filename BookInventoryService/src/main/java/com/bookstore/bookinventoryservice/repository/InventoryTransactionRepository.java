@@ -2,6 +2,7 @@ package com.bookstore.bookinventoryservice.repository;
 
 import com.bookstore.bookinventoryservice.entity.Inventory;
 import com.bookstore.bookinventoryservice.entity.InventoryTransaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +12,6 @@ import java.util.List;
 public interface InventoryTransactionRepository extends JpaRepository<InventoryTransaction, Long> {
 
     List<InventoryTransaction> findAllByInventory(Inventory inventory);
+
+    List<InventoryTransaction> findAllByInventoryAndIdGreaterThanOrderByIdAsc(Inventory inventory, Long id, Limit limit);
 }
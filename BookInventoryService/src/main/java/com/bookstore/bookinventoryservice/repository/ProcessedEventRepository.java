@@ -0,0 +1,23 @@
+package com.bookstore.bookinventoryservice.repository;
+
+import com.bookstore.bookinventoryservice.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    @Query("select p.eventId from ProcessedEvent p where p.eventId in :eventIds")
+    Set<String> findProcessedIds(@Param("eventIds") Collection<String> eventIds);
+
+    @Modifying
+    @Query("delete from ProcessedEvent p where p.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
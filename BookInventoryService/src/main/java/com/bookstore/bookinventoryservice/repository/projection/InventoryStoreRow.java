@@ -0,0 +1,4 @@
+package com.bookstore.bookinventoryservice.repository.projection;
+
+public record InventoryStoreRow(Long inventoryId, Long storeId) {
+}
@@ -0,0 +1,20 @@
+package com.bookstore.bookinventoryservice.service;
+
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AvailabilityLedgerService {
+
+    boolean tracks(Long inventoryId);
+
+    void track(Long inventoryId);
+
+    void reload(Long inventoryId);
+
+    CompletableFuture<Void> apply(BorrowAndReturnEvent borrowAndReturnEvent);
+
+    Integer availableCopies(Long inventoryId);
+
+    int flush();
+}
@@ -1,8 +1,7 @@
 package com.bookstore.bookinventoryservice.service;
 
 import com.bookstore.bookinventoryservice.mapper.dtos.BookStoreDTO;
-
-import java.util.List;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 
 public interface BookStoreService {
 
@@ -10,7 +9,9 @@ public interface BookStoreService {
 
     BookStoreDTO getBookStoreById(Long id);
 
-    List<BookStoreDTO> getAllBookStores();
+    String getBookStoreETag(Long id);
+
+    CursorPage<BookStoreDTO> getAllBookStores(String cursor, Integer limit);
 
     BookStoreDTO updateBookStore(BookStoreDTO bookStoreDTO, Long bookId);
 
@@ -1,11 +1,10 @@
 package com.bookstore.bookinventoryservice.service;
 
 import com.bookstore.bookinventoryservice.mapper.dtos.InventoryDTO;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.dtos.PublishEvent;
 import com.bookstore.bookstorestarter.enums.Flag;
 
-import java.util.List;
-
 public interface InventoryService {
 
     InventoryDTO createInventory(InventoryDTO inventoryDTO);
@@ -16,7 +15,9 @@ public interface InventoryService {
 
     InventoryDTO getInventoryById(Long inventoryId);
 
-    List<InventoryDTO> getAllInventory(Flag flag, Long storeId, Long bookId);
+    String getInventoryETag(Long inventoryId);
+
+    CursorPage<InventoryDTO> getAllInventory(Flag flag, Long storeId, Long bookId, String cursor, Integer limit);
 
     void handleBookPublishedEvent(PublishEvent publishEvent);
 }
@@ -1,6 +1,7 @@
 package com.bookstore.bookinventoryservice.service;
 
 import com.bookstore.bookinventoryservice.mapper.dtos.InventoryTransactionDTO;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
 
 import java.util.List;
@@ -9,9 +10,9 @@ public interface InventoryTransactionService {
 
     InventoryTransactionDTO create(InventoryTransactionDTO inventoryTransactionDTO);
 
-    List<InventoryTransactionDTO> viewTransactionHistory(Long inventoryId);
+    CursorPage<InventoryTransactionDTO> viewTransactionHistory(Long inventoryId, String cursor, Integer limit);
 
     InventoryTransactionDTO getTransaction(Long transactionId);
 
-    void handleBorrowAndReturnEvent(BorrowAndReturnEvent borrowAndReturnEvent);
+    int handleBorrowAndReturnEvents(List<BorrowAndReturnEvent> borrowAndReturnEvents);
 }
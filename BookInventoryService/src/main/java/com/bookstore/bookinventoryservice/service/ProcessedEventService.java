@@ -0,0 +1,17 @@
+package com.bookstore.bookinventoryservice.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface ProcessedEventService {
+
+    boolean isProcessed(String eventId);
+
+    Set<String> findProcessed(Collection<String> eventIds);
+
+    void record(Collection<String> eventIds);
+
+    void remember(Collection<String> eventIds);
+
+    int purge();
+}
@@ -0,0 +1,400 @@
+package com.bookstore.bookinventoryservice.service.impl;
+
+import com.bookstore.bookinventoryservice.entity.Inventory;
+import com.bookstore.bookinventoryservice.entity.InventoryTransaction;
+import com.bookstore.bookinventoryservice.exception.LedgerWriteException;
+import com.bookstore.bookinventoryservice.exception.RecordNotFoundException;
+import com.bookstore.bookinventoryservice.repository.InventoryRepository;
+import com.bookstore.bookinventoryservice.repository.InventoryTransactionRepository;
+import com.bookstore.bookinventoryservice.service.AvailabilityLedgerService;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.enums.InventoryAction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// hot inventories are admitted in memory and written behind; the database stays the source of truth on restart,
+// and each admission hands back a future that completes once its change is committed. The flusher writes as soon as
+// a change is waiting, and whatever is admitted while it commits goes out together in the next transaction
+@Service
+public class AvailabilityLedgerServiceImpl implements AvailabilityLedgerService {
+
+    Logger logger = LoggerFactory.getLogger(AvailabilityLedgerServiceImpl.class);
+
+    static final int FLUSH_BATCH_SIZE = 1000;
+
+    static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final InventoryRepository inventoryRepository;
+
+    private final InventoryTransactionRepository inventoryTransactionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ProcessedEventService processedEventService;
+
+    private final List<Long> hotInventories;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+
+    // a permit per change not yet committed; while the database is down, admissions wait instead of piling up
+    private final Semaphore capacity;
+
+    // survives a failed flush so the same changes are retried first, in order
+    private final List<Change> batch = new ArrayList<>();
+
+    private int failedAttempts;
+
+    private final Duration retryInterval;
+
+    private final Thread flusher = new Thread(this::runFlusher, "availability-ledger-flusher");
+
+    private volatile boolean running = true;
+
+    public AvailabilityLedgerServiceImpl(InventoryRepository inventoryRepository,
+                                         InventoryTransactionRepository inventoryTransactionRepository,
+                                         TransactionTemplate transactionTemplate,
+                                         ProcessedEventService processedEventService,
+                                         @Value("${bookstore.ledger.hot-inventories:}") List<Long> hotInventories,
+                                         @Value("${bookstore.ledger.max-pending:10000}") int maxPending,
+                                         @Value("${bookstore.ledger.retry-interval:PT1S}") Duration retryInterval) {
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryTransactionRepository = inventoryTransactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.processedEventService = processedEventService;
+        this.hotInventories = hotInventories;
+        this.capacity = new Semaphore(maxPending);
+        this.retryInterval = retryInterval;
+        flusher.setDaemon(true);
+    }
+
+    // runs while the context starts, before the listener containers do, so no hot event takes the database path first
+    @PostConstruct
+    public void start() {
+        recover();
+        flusher.start();
+    }
+
+    public void recover() {
+        for (Long inventoryId : hotInventories) {
+            try {
+                track(inventoryId);
+            } catch (RecordNotFoundException e) {
+                logger.warn("Hot inventory {} is not in the database, it stays on the database path", inventoryId);
+            }
+        }
+    }
+
+    @Override
+    public boolean tracks(Long inventoryId) {
+        return inventoryId != null && entries.containsKey(inventoryId);
+    }
+
+    @Override
+    public synchronized void track(Long inventoryId) {
+        if (!entries.containsKey(inventoryId)) {
+            Inventory inventory = find(inventoryId);
+            entries.put(inventoryId, new Entry(new AtomicReference<>(
+                    new State(storeOf(inventory), inventory.getTotalCopies(), inventory.getAvailableCopies(), 0))));
+            logger.info("Tracking inventory {} in the availability ledger", inventoryId);
+        }
+    }
+
+    // shares the flush lock, so the stored row holds exactly the flushed changes and the rest are re-applied;
+    // the entry is refreshed in place by the same CAS admissions use, so none admitted meanwhile is lost
+    @Override
+    public synchronized void reload(Long inventoryId) {
+        Entry entry = entries.get(inventoryId);
+        if (entry != null) {
+            Inventory inventory = find(inventoryId);
+            entry.state.updateAndGet(current -> new State(storeOf(inventory), inventory.getTotalCopies(),
+                    inventory.getAvailableCopies() + current.unflushed(), current.unflushed()));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> apply(BorrowAndReturnEvent event) {
+        Long inventoryId = event.getInventoryId();
+        Entry entry = inventoryId == null ? null : entries.get(inventoryId);
+        if (entry == null) {
+            throw new RecordNotFoundException("Inventory Not Found " + inventoryId);
+        }
+        try {
+            capacity.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ledger to flush", e);
+        }
+
+        // a rejected event is queued too, so its id is recorded with the flush like the batch consumer's rejections
+        int delta = 0;
+        RuntimeException rejection = null;
+        try {
+            delta = admit(entry, event);
+        } catch (RuntimeException e) {
+            rejection = e;
+        }
+        Change change = new Change(inventoryId, delta, event, rejection, new CompletableFuture<>());
+        pending.add(change);
+        LockSupport.unpark(flusher);
+        return change.flushed;
+    }
+
+    private static int admit(Entry entry, BorrowAndReturnEvent event) {
+        if (event.getAction() == null || event.getQuantity() == null || event.getQuantity() <= 0) {
+            throw new RuntimeException("Event needs an action and a positive quantity.");
+        }
+
+        int delta = 0;
+        if (event.getAction() == InventoryAction.BORROWED) {
+            delta = -event.getQuantity();
+        } else if (event.getAction() == InventoryAction.RETURNED) {
+            delta = event.getQuantity();
+        }
+        // the whole state is checked and moved by a single CAS, so a borrow either fits whole or is refused,
+        // and a concurrent reload either sees it or makes it retry against the reloaded counts
+        while (true) {
+            State current = entry.state.get();
+            if (!Objects.equals(current.storeId(), event.getStoreId())) {
+                throw InventoryTransactionServiceImpl.foreignStore(event);
+            }
+            if (current.available() + delta < 0) {
+                throw new RuntimeException("Not enough available copies to borrow.");
+            }
+            if (current.available() + delta > current.totalCopies()) {
+                throw new RuntimeException("Cannot return more books than were borrowed.");
+            }
+            if (delta == 0 || entry.state.compareAndSet(current, current.moved(delta, delta))) {
+                return delta;
+            }
+        }
+    }
+
+    @Override
+    public Integer availableCopies(Long inventoryId) {
+        Entry entry = entries.get(inventoryId);
+        return entry == null ? null : entry.state.get().available();
+    }
+
+    private void runFlusher() {
+        boolean failed = false;
+        while (running) {
+            if (!failed && pending.isEmpty()) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                flush();
+                failed = false;
+            } catch (RuntimeException e) {
+                // the failed batch is kept and retried first, the admissions behind it wait on the capacity
+                logger.error("Could not flush the availability ledger, retrying in {}", retryInterval, e);
+                failed = true;
+                LockSupport.parkNanos(this, retryInterval.toNanos());
+            }
+        }
+    }
+
+    @Override
+    public synchronized int flush() {
+        int flushed = 0;
+        while (true) {
+            if (batch.isEmpty()) {
+                Change change;
+                while (batch.size() < FLUSH_BATCH_SIZE && (change = pending.poll()) != null) {
+                    batch.add(change);
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            int written = batch.size();
+            try {
+                write(batch);
+                for (Change change : batch) {
+                    settle(change, change.rejection);
+                }
+            } catch (OutOfBoundsException e) {
+                failConflicting(e.inventoryId);
+                continue;
+            } catch (RuntimeException e) {
+                // a database outage fails every attempt alike, but a single bad change must not hold the rest back
+                if (++failedAttempts < MAX_FLUSH_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Ledger flush failed {} times, writing its {} changes one by one", failedAttempts, written, e);
+                written = writeOneByOne();
+            }
+            failedAttempts = 0;
+            flushed += written;
+            batch.clear();
+            if (written < FLUSH_BATCH_SIZE) {
+                break;
+            }
+        }
+
+        if (flushed > 0) {
+            logger.info("Flushed {} ledger changes", flushed);
+        }
+        return flushed;
+    }
+
+    // the row moved outside the ledger, for example on another instance, so its stored balance no longer backs what
+    // was admitted here: those changes are taken back and fail, the rest of the batch is retried, the entry reloaded
+    private void failConflicting(Long inventoryId) {
+        LedgerWriteException conflict = new LedgerWriteException(
+                "Inventory " + inventoryId + " changed outside the availability ledger");
+        logger.warn("{}, failing its pending changes and reloading it", conflict.getMessage());
+        batch.removeIf(change -> {
+            if (!change.inventoryId.equals(inventoryId) || change.rejection != null) {
+                return false;
+            }
+            fail(change, conflict);
+            return true;
+        });
+        reload(inventoryId);
+    }
+
+    // each change in its own transaction; those that still fail are taken back and handed to the consumer to retry
+    private int writeOneByOne() {
+        int written = 0;
+        for (Change change : batch) {
+            try {
+                write(List.of(change));
+                settle(change, change.rejection);
+                written++;
+            } catch (OutOfBoundsException e) {
+                fail(change, new LedgerWriteException(
+                        "Inventory " + change.inventoryId + " changed outside the availability ledger"));
+                reload(change.inventoryId);
+            } catch (RuntimeException e) {
+                logger.error("Could not write the ledger change of event {}", change.event.getEventId(), e);
+                fail(change, new LedgerWriteException(
+                        "Could not write the ledger change of event " + change.event.getEventId(), e));
+            }
+        }
+        return written;
+    }
+
+    private void fail(Change change, LedgerWriteException failure) {
+        entries.get(change.inventoryId).state.updateAndGet(current -> current.moved(-change.delta, 0));
+        settle(change, failure);
+    }
+
+    private void settle(Change change, RuntimeException failure) {
+        entries.get(change.inventoryId).state.updateAndGet(current -> current.moved(0, -change.delta));
+        if (failure != null) {
+            change.flushed.completeExceptionally(failure);
+        } else {
+            change.flushed.complete(null);
+        }
+        capacity.release();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(retryInterval.toMillis() + 5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Could not flush {} ledger changes on shutdown", batch.size() + pending.size(), e);
+        }
+    }
+
+    // one UPDATE per inventory carrying the net delta, in id order like the batch consumer's locks, and guarded by the
+    // lowest and highest running balance like the batch consumer's, so the stored row can never leave its bounds
+    private void write(List<Change> changes) {
+        transactionTemplate.executeWithoutResult(status -> writeChanges(changes));
+    }
+
+    private void writeChanges(List<Change> changes) {
+        Map<Long, int[]> balances = new TreeMap<>();
+        List<InventoryTransaction> transactions = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            if (change.rejection != null) {
+                continue;
+            }
+            // delta, lowest, highest
+            int[] balance = balances.computeIfAbsent(change.inventoryId, id -> new int[3]);
+            balance[0] += change.delta;
+            balance[1] = Math.min(balance[1], balance[0]);
+            balance[2] = Math.max(balance[2], balance[0]);
+            Inventory inventory = inventoryRepository.getReferenceById(change.inventoryId);
+            transactions.add(InventoryTransactionServiceImpl.newTransaction(inventory, change.event));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        balances.forEach((inventoryId, balance) -> {
+            if (balance[1] != 0 || balance[2] != 0) {
+                if (inventoryRepository.applyBoundedDelta(inventoryId, balance[0], balance[1], balance[2], now) == 0) {
+                    throw new OutOfBoundsException(inventoryId);
+                }
+            }
+        });
+        inventoryTransactionRepository.saveAll(transactions);
+        processedEventService.record(changes.stream().map(change -> change.event.getEventId()).toList());
+    }
+
+    private Inventory find(Long inventoryId) {
+        return inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new RecordNotFoundException("Inventory Not Found " + inventoryId));
+    }
+
+    private static Long storeOf(Inventory inventory) {
+        return inventory.getBookStore() == null ? null : inventory.getBookStore().getId();
+    }
+
+    private record Entry(AtomicReference<State> state) {
+    }
+
+    // rolls the flush transaction back; only the inventory's own changes are failed
+    private static final class OutOfBoundsException extends RuntimeException {
+
+        private final Long inventoryId;
+
+        OutOfBoundsException(Long inventoryId) {
+            super("Inventory " + inventoryId + " refused the ledger's changes");
+            this.inventoryId = inventoryId;
+        }
+    }
+
+    // unflushed is the part of available that is admitted but not written yet
+    private record State(Long storeId, int totalCopies, int available, int unflushed) {
+
+        State moved(int availableDelta, int unflushedDelta) {
+            return new State(storeId, totalCopies, available + availableDelta, unflushed + unflushedDelta);
+        }
+    }
+
+    private record Change(Long inventoryId, int delta, BorrowAndReturnEvent event, RuntimeException rejection,
+                          CompletableFuture<Void> flushed) {
+    }
+}
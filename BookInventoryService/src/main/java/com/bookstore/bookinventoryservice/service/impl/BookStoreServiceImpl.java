@@ -6,12 +6,13 @@ import com.bookstore.bookinventoryservice.mapper.dtos.BookStoreDTO;
 import com.bookstore.bookinventoryservice.mapper.mappers.BookStoreMapper;
 import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
 import com.bookstore.bookinventoryservice.service.BookStoreService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.enums.Flag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,6 +44,13 @@ public class BookStoreServiceImpl implements BookStoreService {
         return bookStoreMapper.bookStoreToBookStoreDTO(bookStore);
     }
 
+    @Override
+    public String getBookStoreETag(Long id) {
+        return bookStoreRepository.findAuditStampById(id)
+                .orElseThrow(() -> new RecordNotFoundException("Book Store Not Found "+id))
+                .eTag();
+    }
+
     @Override
     public BookStoreDTO getBookStoreById(Long id) {
         logger.info("Fetch book store detail {}", id);
@@ -53,16 +61,14 @@ public class BookStoreServiceImpl implements BookStoreService {
     }
 
     @Override
-    public List<BookStoreDTO> getAllBookStores() {
-        logger.info("fetching book stores detail");
+    public CursorPage<BookStoreDTO> getAllBookStores(String cursor, Integer limit) {
+        logger.info("fetching book stores detail after cursor {}", cursor);
+        int pageSize = CursorPage.limitOf(limit);
 
-        List<BookStore> bookStoreList = bookStoreRepository.findAllByFlag(Flag.ENABLED);
-        List<BookStoreDTO> bookStoreDTOList = new ArrayList<>();
-        for (BookStore bookStore : bookStoreList) {
-            bookStoreDTOList.add(bookStoreMapper.bookStoreToBookStoreDTO(bookStore));
-        }
+        List<BookStore> bookStoreList = bookStoreRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(
+                Flag.ENABLED, CursorPage.decode(cursor), Limit.of(pageSize + 1));
 
-        return bookStoreDTOList;
+        return CursorPage.of(bookStoreList, pageSize, BookStore::getId, bookStoreMapper::bookStoreToBookStoreDTO);
     }
 
     @Override
@@ -8,15 +8,20 @@ import com.bookstore.bookinventoryservice.mapper.dtos.InventoryDTO;
 import com.bookstore.bookinventoryservice.mapper.mappers.InventoryMapper;
 import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
 import com.bookstore.bookinventoryservice.repository.InventoryRepository;
+import com.bookstore.bookinventoryservice.service.AvailabilityLedgerService;
 import com.bookstore.bookinventoryservice.service.InventoryService;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.dtos.PublishEvent;
 import com.bookstore.bookstorestarter.enums.Flag;
 import com.bookstore.bookstorestarter.enums.InventoryStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -30,12 +35,20 @@ public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryMapper inventoryMapper;
 
+    private final AvailabilityLedgerService availabilityLedgerService;
+
+    private final ProcessedEventService processedEventService;
+
     Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
 
-    public InventoryServiceImpl(InventoryRepository inventoryRepository, BookStoreRepository bookStoreRepository, InventoryMapper inventoryMapper) {
+    public InventoryServiceImpl(InventoryRepository inventoryRepository, BookStoreRepository bookStoreRepository,
+                                InventoryMapper inventoryMapper, AvailabilityLedgerService availabilityLedgerService,
+                                ProcessedEventService processedEventService) {
         this.inventoryRepository = inventoryRepository;
         this.bookStoreRepository = bookStoreRepository;
         this.inventoryMapper = inventoryMapper;
+        this.availabilityLedgerService = availabilityLedgerService;
+        this.processedEventService = processedEventService;
     }
 
     @Override
@@ -59,9 +72,21 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryMapper.InventoryToInventoryDTO(inventory);
     }
 
+    @Override
+    public String getInventoryETag(Long inventoryId) {
+        return inventoryRepository.findAuditStampById(inventoryId)
+                .orElseThrow(() -> new RecordNotFoundException("Inventory Not Found "+inventoryId))
+                .eTag();
+    }
+
     @Override
     public InventoryDTO updateInventory(InventoryDTO inventoryDTO, Long inventoryId) {
         logger.info("Updating inventory detail {}", inventoryId);
+        boolean hot = availabilityLedgerService.tracks(inventoryId);
+        if (hot) {
+            // pending ledger changes land before the new counts overwrite them
+            availabilityLedgerService.flush();
+        }
         Inventory inventory = inventoryRepository.findById(inventoryId)
                 .orElseThrow(() -> new RecordNotFoundException("Inventory Not Found "+inventoryId));
         BookStore bookStore = bookStoreRepository.findById(inventoryDTO.getBookStore().getId())
@@ -75,6 +100,9 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setBookId(inventoryDTO.getBookId());
 
         inventory = inventoryRepository.save(inventory);
+        if (hot) {
+            availabilityLedgerService.reload(inventoryId);
+        }
 
         return inventoryMapper.InventoryToInventoryDTO(inventory);
     }
@@ -101,38 +129,41 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     @Override
-    public List<InventoryDTO> getAllInventory(Flag flag, Long storeId, Long bookId) {
+    public CursorPage<InventoryDTO> getAllInventory(Flag flag, Long storeId, Long bookId, String cursor, Integer limit) {
         logger.info("Fetching inventories detail by flag {} or store id {} or book Id {}", flag, storeId, bookId);
+        int pageSize = CursorPage.limitOf(limit);
+        Long afterId = CursorPage.decode(cursor);
+        Limit rows = Limit.of(pageSize + 1);
         List<Inventory> inventories;
-        List<InventoryDTO> inventoryDTOS = new ArrayList<>();
 
         if(Objects.nonNull(bookId) && Objects.nonNull(storeId)){
             BookStore bookStore = bookStoreRepository.findById(storeId)
                     .orElseThrow(() -> new RecordNotFoundException("Book Store Not Found "+storeId));
 
-            inventories = inventoryRepository.findAllByBookStoreAndBookIdAndFlag(bookStore, bookId,flag);
+            inventories = inventoryRepository.findAllByBookStoreAndBookIdAndFlagAndIdGreaterThanOrderByIdAsc(bookStore, bookId, flag, afterId, rows);
         }else if(Objects.nonNull(bookId)){
-            inventories = inventoryRepository.findAllByBookIdAndFlag(bookId, flag);
+            inventories = inventoryRepository.findAllByBookIdAndFlagAndIdGreaterThanOrderByIdAsc(bookId, flag, afterId, rows);
 
         } else if (Objects.nonNull(storeId) ) {
             BookStore bookStore = bookStoreRepository.findById(storeId)
                     .orElseThrow(() -> new RecordNotFoundException("Book Store Not Found "+storeId));
 
-            inventories = inventoryRepository.findAllByBookStoreAndFlag(bookStore, flag);
+            inventories = inventoryRepository.findAllByBookStoreAndFlagAndIdGreaterThanOrderByIdAsc(bookStore, flag, afterId, rows);
         } else{
-            inventories = inventoryRepository.findAllByFlag(flag);
+            inventories = inventoryRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(flag, afterId, rows);
         }
 
-        for(Inventory inventory : inventories){
-            inventoryDTOS.add(inventoryMapper.InventoryToInventoryDTO(inventory));
-        }
-
-        return inventoryDTOS;
+        return CursorPage.of(inventories, pageSize, Inventory::getId, inventoryMapper::InventoryToInventoryDTO);
     }
 
     @Override
+    @Transactional
     public void handleBookPublishedEvent(PublishEvent event) {
         logger.info("Received book.published event: {}", event.getBookDTO().getId());
+        if (processedEventService.isProcessed(event.getEventId())) {
+            logger.info("Skipping already processed book.published event {}", event.getEventId());
+            return;
+        }
 
         List<BookStore> bookStores = bookStoreRepository.findAllByFlag(Flag.ENABLED);
 
@@ -145,5 +176,6 @@ public class InventoryServiceImpl implements InventoryService {
 
             inventoryRepository.save(inventory);
         }
+        processedEventService.record(Collections.singletonList(event.getEventId()));
     }
 }
@@ -1,28 +1,41 @@
 package com.bookstore.bookinventoryservice.service.impl;
 
-import com.bookstore.bookinventoryservice.entity.BookStore;
 import com.bookstore.bookinventoryservice.entity.Inventory;
 import com.bookstore.bookinventoryservice.entity.InventoryTransaction;
+import com.bookstore.bookinventoryservice.exception.LedgerWriteException;
 import com.bookstore.bookinventoryservice.exception.RecordNotFoundException;
 import com.bookstore.bookinventoryservice.mapper.dtos.InventoryTransactionDTO;
 import com.bookstore.bookinventoryservice.mapper.mappers.InventoryTransactionMapper;
-import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
 import com.bookstore.bookinventoryservice.repository.InventoryRepository;
 import com.bookstore.bookinventoryservice.repository.InventoryTransactionRepository;
+import com.bookstore.bookinventoryservice.repository.projection.InventoryStoreRow;
+import com.bookstore.bookinventoryservice.service.AvailabilityLedgerService;
 import com.bookstore.bookinventoryservice.service.InventoryTransactionService;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
 import com.bookstore.bookstorestarter.enums.Flag;
 import com.bookstore.bookstorestarter.enums.InventoryAction;
-import com.bookstore.bookstorestarter.enums.InventoryStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 @Service
 public class InventoryTransactionServiceImpl implements InventoryTransactionService {
@@ -33,7 +46,11 @@ public class InventoryTransactionServiceImpl implements InventoryTransactionServ
 
     private final InventoryRepository inventoryRepository;
 
-    private final BookStoreRepository bookStoreRepository;
+    private final AvailabilityLedgerService availabilityLedgerService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ProcessedEventService processedEventService;
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
@@ -41,11 +58,16 @@ public class InventoryTransactionServiceImpl implements InventoryTransactionServ
 
     public InventoryTransactionServiceImpl(InventoryTransactionRepository inventoryTransactionRepository,
                                            InventoryTransactionMapper inventoryTransactionMapper,
-                                           InventoryRepository inventoryRepository, BookStoreRepository bookStoreRepository) {
+                                           InventoryRepository inventoryRepository,
+                                           AvailabilityLedgerService availabilityLedgerService,
+                                           TransactionTemplate transactionTemplate,
+                                           ProcessedEventService processedEventService) {
         this.inventoryTransactionRepository = inventoryTransactionRepository;
         this.inventoryTransactionMapper = inventoryTransactionMapper;
         this.inventoryRepository = inventoryRepository;
-        this.bookStoreRepository = bookStoreRepository;
+        this.availabilityLedgerService = availabilityLedgerService;
+        this.transactionTemplate = transactionTemplate;
+        this.processedEventService = processedEventService;
     }
 
 
@@ -65,20 +87,18 @@ public class InventoryTransactionServiceImpl implements InventoryTransactionServ
     }
 
     @Override
-    public List<InventoryTransactionDTO> viewTransactionHistory(Long inventoryId) {
+    public CursorPage<InventoryTransactionDTO> viewTransactionHistory(Long inventoryId, String cursor, Integer limit) {
         logger.info("Getting the list of transactions by inventory id {}",inventoryId);
+        int pageSize = CursorPage.limitOf(limit);
 
-        List<InventoryTransactionDTO> inventoryTransactionDTOS = new ArrayList<>();
         Inventory inventory = inventoryRepository.findById(inventoryId)
                 .orElseThrow(() -> new RecordNotFoundException("Inventory Not Found "+inventoryId));
 
-        List<InventoryTransaction> inventoryTransactions = inventoryTransactionRepository.findAllByInventory(inventory);
-
-        for (InventoryTransaction inventoryTransaction : inventoryTransactions) {
-            inventoryTransactionDTOS.add(inventoryTransactionMapper.inventoryTransactionToInventoryTransactionDTO(inventoryTransaction));
-        }
+        List<InventoryTransaction> inventoryTransactions = inventoryTransactionRepository.findAllByInventoryAndIdGreaterThanOrderByIdAsc(
+                inventory, CursorPage.decode(cursor), Limit.of(pageSize + 1));
 
-        return inventoryTransactionDTOS;
+        return CursorPage.of(inventoryTransactions, pageSize, InventoryTransaction::getId,
+                inventoryTransactionMapper::inventoryTransactionToInventoryTransactionDTO);
     }
 
     @Override
@@ -90,34 +110,176 @@ public class InventoryTransactionServiceImpl implements InventoryTransactionServ
         return inventoryTransactionMapper.inventoryTransactionToInventoryTransactionDTO(inventoryTransaction);
     }
 
+    private int changeCopies(BorrowAndReturnEvent event, LocalDateTime now) {
+        Long inventoryId = event.getInventoryId();
+        if (event.getAction() == InventoryAction.BORROWED) {
+            return inventoryRepository.borrowCopies(inventoryId, event.getQuantity(), now);
+        } else if (event.getAction() == InventoryAction.RETURNED) {
+            return inventoryRepository.returnCopies(inventoryId, event.getQuantity(), now);
+        }
+        return inventoryRepository.existsById(inventoryId) ? 1 : 0;
+    }
+
+    // only the failure path pays for telling a missing inventory from a stock shortfall
+    private RuntimeException rejectionOf(BorrowAndReturnEvent event) {
+        if (!inventoryRepository.existsById(event.getInventoryId())) {
+            return new RecordNotFoundException("Inventory Not Found "+event.getInventoryId());
+        }
+        return new RuntimeException(event.getAction() == InventoryAction.BORROWED
+                ? "Not enough available copies to borrow."
+                : "Cannot return more books than were borrowed.");
+    }
+
     @Override
-    public void handleBorrowAndReturnEvent(BorrowAndReturnEvent event) {
-        BookStore bookStore = bookStoreRepository.findById(event.getStoreId())
-                .orElseThrow(() -> new RecordNotFoundException("Book store Not Found "+event.getStoreId()));
+    public int handleBorrowAndReturnEvents(List<BorrowAndReturnEvent> batch) {
+        Set<String> processed = processedEventService.findProcessed(batch.stream()
+                .map(BorrowAndReturnEvent::getEventId).filter(Objects::nonNull).toList());
+        Set<String> seen = new HashSet<>();
+        List<BorrowAndReturnEvent> events = new ArrayList<>(batch.size());
+        List<BorrowAndReturnEvent> hotEvents = new ArrayList<>();
+        for (BorrowAndReturnEvent event : batch) {
+            String eventId = event.getEventId();
+            if (eventId != null && (processed.contains(eventId) || !seen.add(eventId))) {
+                continue;
+            }
+            (availabilityLedgerService.tracks(event.getInventoryId()) ? hotEvents : events).add(event);
+        }
+        if (events.size() + hotEvents.size() < batch.size()) {
+            logger.info("Skipped {} already processed borrow/return events",
+                    batch.size() - events.size() - hotEvents.size());
+        }
 
-        Inventory inventory = inventoryRepository.findById(event.getInventoryId())
-                .orElseThrow(() -> new RecordNotFoundException("Inventory Not Found "+event.getStoreId()));
+        int applied = events.isEmpty() ? 0 : transactionTemplate.execute(status -> applyEvents(events));
+
+        // admitted after the commit, so a failed write redelivers the poll before the ledger has moved
+        List<BorrowAndReturnEvent> admitted = new ArrayList<>(hotEvents.size());
+        List<CompletableFuture<Void>> flushes = new ArrayList<>(hotEvents.size());
+        for (BorrowAndReturnEvent event : hotEvents) {
+            try {
+                flushes.add(availabilityLedgerService.apply(event));
+                admitted.add(event);
+            } catch (RuntimeException e) {
+                logRejection(event, e);
+            }
+        }
+        // the lane returns, and the poll's offsets move past these events, only once the ledger flush has committed
+        // them; rejected events settle with the same flush, which records their ids
+        LedgerWriteException unwritten = null;
+        for (int i = 0; i < admitted.size(); i++) {
+            try {
+                await(flushes.get(i));
+                applied++;
+            } catch (LedgerWriteException e) {
+                unwritten = e;
+            } catch (RuntimeException e) {
+                logRejection(admitted.get(i), e);
+            }
+        }
+        // an unwritten change was not recorded, so the redelivered poll retries only it and the rest are skipped
+        if (unwritten != null) {
+            throw unwritten;
+        }
+        return applied;
+    }
 
-        if (event.getAction() == InventoryAction.BORROWED) {
-            if (inventory.getAvailableCopies() < event.getQuantity()) {
-                throw new RuntimeException("Not enough available copies to borrow.");
+    private static void await(CompletableFuture<Void> flushed) {
+        try {
+            flushed.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // one guarded UPDATE per inventory, however many of a poll's events land on it; no row is locked first
+    private int applyEvents(List<BorrowAndReturnEvent> events) {
+        Set<Long> inventoryIds = events.stream().map(BorrowAndReturnEvent::getInventoryId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        // the same rule the ledger applies to hot inventories: the event's store must hold the inventory
+        Map<Long, Long> storeByInventory = new HashMap<>();
+        for (InventoryStoreRow row : inventoryRepository.findStoresByIdIn(inventoryIds)) {
+            storeByInventory.put(row.inventoryId(), row.storeId());
+        }
+
+        // id order, so concurrent batches take row locks in the same sequence
+        Map<Long, List<BorrowAndReturnEvent>> byInventory = new TreeMap<>();
+        for (BorrowAndReturnEvent event : events) {
+            try {
+                if (event.getAction() == null || event.getQuantity() == null || event.getQuantity() <= 0) {
+                    throw new RuntimeException("Event needs an action and a positive quantity.");
+                }
+                if (!storeByInventory.containsKey(event.getInventoryId())) {
+                    throw new RecordNotFoundException("Inventory Not Found " + event.getInventoryId());
+                }
+                if (!Objects.equals(storeByInventory.get(event.getInventoryId()), event.getStoreId())) {
+                    throw foreignStore(event);
+                }
+            } catch (RuntimeException e) {
+                logRejection(event, e);
+                continue;
             }
-            inventory.setAvailableCopies(inventory.getAvailableCopies() - event.getQuantity());
+            byInventory.computeIfAbsent(event.getInventoryId(), id -> new ArrayList<>()).add(event);
+        }
 
-        } else if (event.getAction() == InventoryAction.RETURNED) {
-            int maxReturnable = inventory.getTotalCopies() - inventory.getAvailableCopies();
-            if (event.getQuantity() > maxReturnable) {
-                throw new RuntimeException("Cannot return more books than were borrowed.");
+        LocalDateTime now = LocalDateTime.now();
+        List<InventoryTransaction> transactions = new ArrayList<>();
+        int changed = 0;
+        for (Map.Entry<Long, List<BorrowAndReturnEvent>> entry : byInventory.entrySet()) {
+            List<BorrowAndReturnEvent> applied = applyToInventory(entry.getKey(), entry.getValue(), now);
+            if (!applied.isEmpty()) {
+                changed++;
+                Inventory inventory = inventoryRepository.getReferenceById(entry.getKey());
+                applied.forEach(event -> transactions.add(newTransaction(inventory, event)));
+            }
+        }
+
+        inventoryTransactionRepository.saveAll(transactions);
+        // rejected events count as processed too, a redelivery must not apply them against a later balance
+        processedEventService.record(events.stream().map(BorrowAndReturnEvent::getEventId).toList());
+
+        logger.info("Applied {} of {} borrow/return events across {} inventories",
+                transactions.size(), events.size(), changed);
+        return transactions.size();
+    }
+
+    // the net delta goes in one UPDATE guarded by the lowest and highest running balance; if the row refuses it,
+    // the events fall back to one guarded UPDATE each so only the ones that break the balance are rejected
+    private List<BorrowAndReturnEvent> applyToInventory(Long inventoryId, List<BorrowAndReturnEvent> events, LocalDateTime now) {
+        int delta = 0;
+        int lowest = 0;
+        int highest = 0;
+        for (BorrowAndReturnEvent event : events) {
+            if (event.getAction() == InventoryAction.BORROWED) {
+                delta -= event.getQuantity();
+            } else if (event.getAction() == InventoryAction.RETURNED) {
+                delta += event.getQuantity();
             }
-            inventory.setAvailableCopies(inventory.getAvailableCopies() + event.getQuantity());
+            lowest = Math.min(lowest, delta);
+            highest = Math.max(highest, delta);
+        }
+        if (inventoryRepository.applyBoundedDelta(inventoryId, delta, lowest, highest, now) == 1) {
+            return events;
         }
 
-        inventory.setStatus(inventory.getAvailableCopies() == 0
-                ? InventoryStatus.OUT_OF_STOCK
-                : InventoryStatus.ACTIVE);
+        List<BorrowAndReturnEvent> applied = new ArrayList<>(events.size());
+        for (BorrowAndReturnEvent event : events) {
+            if (changeCopies(event, now) == 1) {
+                applied.add(event);
+            } else {
+                logRejection(event, rejectionOf(event));
+            }
+        }
+        return applied;
+    }
 
-        inventoryRepository.save(inventory);
+    static RuntimeException foreignStore(BorrowAndReturnEvent event) {
+        return new RuntimeException("Inventory " + event.getInventoryId() + " is not held by book store " + event.getStoreId());
+    }
+
+    private void logRejection(BorrowAndReturnEvent event, RuntimeException e) {
+        logger.error("Rejected borrow/return event for inventory {}: {}", event.getInventoryId(), e.getMessage());
+    }
 
+    static InventoryTransaction newTransaction(Inventory inventory, BorrowAndReturnEvent event) {
         InventoryTransaction transaction = new InventoryTransaction();
         transaction.setTransactionRef(generateTransactionRef());
         transaction.setInventory(inventory);
@@ -127,10 +289,7 @@ public class InventoryTransactionServiceImpl implements InventoryTransactionServ
         transaction.setAction(event.getAction());
         transaction.setQuantity(event.getQuantity());
         transaction.setReason(event.getReason());
-
-        inventoryTransactionRepository.save(transaction);
-
-        logger.info("Inventory updated and transaction recorded for bookId: {}", event.getBookId());
+        return transaction;
     }
 
 
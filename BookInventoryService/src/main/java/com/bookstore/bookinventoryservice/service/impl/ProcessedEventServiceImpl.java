@@ -0,0 +1,119 @@
+package com.bookstore.bookinventoryservice.service.impl;
+
+import com.bookstore.bookinventoryservice.entity.ProcessedEvent;
+import com.bookstore.bookinventoryservice.repository.ProcessedEventRepository;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// the table is the durable record, the window answers redeliveries of recent polls without a query
+@Service
+public class ProcessedEventServiceImpl implements ProcessedEventService {
+
+    Logger logger = LoggerFactory.getLogger(ProcessedEventServiceImpl.class);
+
+    private final ProcessedEventRepository processedEventRepository;
+
+    private final Duration retention;
+
+    private final Map<String, Boolean> window;
+
+    public ProcessedEventServiceImpl(ProcessedEventRepository processedEventRepository,
+                                     @Value("${bookstore.dedup.window-size:100000}") int windowSize,
+                                     @Value("${bookstore.dedup.retention:P7D}") Duration retention) {
+        this.processedEventRepository = processedEventRepository;
+        this.retention = retention;
+        this.window = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > windowSize;
+            }
+        });
+    }
+
+    @Override
+    public boolean isProcessed(String eventId) {
+        return eventId != null && !findProcessed(List.of(eventId)).isEmpty();
+    }
+
+    @Override
+    public Set<String> findProcessed(Collection<String> eventIds) {
+        Set<String> processed = new HashSet<>();
+        List<String> misses = new ArrayList<>();
+        for (String eventId : eventIds) {
+            if (eventId == null) {
+                continue;
+            }
+            if (window.get(eventId) != null) {
+                processed.add(eventId);
+            } else {
+                misses.add(eventId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Set<String> stored = processedEventRepository.findProcessedIds(misses);
+            processed.addAll(stored);
+            remember(stored);
+        }
+        return processed;
+    }
+
+    // written in the caller's transaction, so an event counts as processed exactly when its effects commit
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<String> eventIds) {
+        List<String> ids = eventIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        processedEventRepository.saveAll(ids.stream().map(eventId -> new ProcessedEvent(eventId, now)).toList());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(ids);
+            }
+        });
+    }
+
+    @Override
+    public void remember(Collection<String> eventIds) {
+        for (String eventId : eventIds) {
+            if (eventId != null) {
+                window.put(eventId, Boolean.TRUE);
+            }
+        }
+    }
+
+    // redeliveries older than the retention are no longer recognised
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${bookstore.dedup.purge-interval:PT1H}")
+    public int purge() {
+        int purged = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} processed event ids", purged);
+        }
+        return purged;
+    }
+}
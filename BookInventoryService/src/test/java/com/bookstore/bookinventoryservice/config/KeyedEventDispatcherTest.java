@@ -0,0 +1,318 @@
+package com.bookstore.bookinventoryservice.config;
+
+import com.bookstore.bookinventoryservice.entity.Inventory;
+import com.bookstore.bookinventoryservice.repository.InventoryRepository;
+import com.bookstore.bookinventoryservice.repository.InventoryTransactionRepository;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
+import com.bookstore.bookinventoryservice.service.impl.AvailabilityLedgerServiceImpl;
+import com.bookstore.bookinventoryservice.service.impl.InventoryTransactionServiceImpl;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.enums.InventoryAction;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.RetriableCommitFailedException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bookstore.bookinventoryservice.mock.MockData.getInventories;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeyedEventDispatcherTest {
+
+    private static final String TOPIC = "user.borrowed.book";
+
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private final List<ConsumerRecord<?, ?>> recovered = new CopyOnWriteArrayList<>();
+
+    private final KeyedEventDispatcher dispatcher = new KeyedEventDispatcher(4, 100, new FixedBackOff(0, 2),
+            (record, e) -> recovered.add(record));
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    void dispatch_keepsOrderPerKey() throws Exception {
+        Map<Long, List<Long>> seen = new ConcurrentHashMap<>();
+        List<ConsumerRecord<String, Object>> records = new ArrayList<>();
+        for (long offset = 0; offset < 400; offset++) {
+            records.add(record(offset, event(offset % 8, offset)));
+        }
+
+        dispatcher.<BorrowAndReturnEvent>dispatch(records, BorrowAndReturnEvent::getInventoryId,
+                events -> events.forEach(event -> seen
+                        .computeIfAbsent(event.getInventoryId(), key -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(event.getUserId())));
+
+        awaitOffset(400);
+        assertEquals(8, seen.size());
+        seen.values().forEach(userIds -> {
+            for (int i = 1; i < userIds.size(); i++) {
+                assertTrue(userIds.get(i - 1) < userIds.get(i));
+            }
+        });
+    }
+
+    @Test
+    void commitableOffsets_stopAtLowestInFlightRecord() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<ConsumerRecord<String, Object>> records = List.of(
+                record(10, event(1L, 1L)),
+                record(11, event(2L, 2L)),
+                record(12, event(3L, 3L)));
+
+        dispatcher.<BorrowAndReturnEvent>dispatch(records, BorrowAndReturnEvent::getInventoryId, events -> {
+            if (events.get(0).getInventoryId() == 2L) {
+                await(release);
+            }
+        });
+
+        // inventories 1 and 3 finish, but 2 holds the partition at offset 11
+        Thread.sleep(100);
+        assertEquals(11, offset());
+        release.countDown();
+        awaitOffset(13);
+    }
+
+    @Test
+    void dispatch_undecodableRecordsAreRecoveredBeforeTheirOffsetIsReleased() throws Exception {
+        dispatcher.<BorrowAndReturnEvent>dispatch(List.of(record(5, null)), BorrowAndReturnEvent::getInventoryId,
+                events -> {
+                });
+
+        assertEquals(1, recovered.size());
+        assertEquals(5L, recovered.get(0).offset());
+        assertEquals(6, offset());
+        dispatcher.markCommitted(dispatcher.commitableOffsets(List.of(PARTITION)));
+        assertTrue(dispatcher.commitableOffsets(List.of(PARTITION)).isEmpty());
+    }
+
+    @Test
+    void dispatch_whenUndecodableRecordCannotBeRecovered_keepsItsOffsetUncommitted() {
+        KeyedEventDispatcher failing = new KeyedEventDispatcher(1, 10, new FixedBackOff(0, 0), (record, e) -> {
+            throw new IllegalStateException("dead letter topic unavailable");
+        });
+        try {
+            failing.<BorrowAndReturnEvent>dispatch(List.of(record(7, null)), BorrowAndReturnEvent::getInventoryId,
+                    events -> {
+                    });
+
+            assertEquals(7L, failing.commitableOffsets(List.of(PARTITION)).get(PARTITION).offset());
+        } finally {
+            failing.destroy();
+        }
+    }
+
+    @Test
+    void dispatch_failingEventIsRetriedAloneThenRecoveredBeforeItsOffsetIsReleased() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        List<ConsumerRecord<String, Object>> records = List.of(
+                record(20, event(1L, 1L)),
+                record(21, event(1L, 2L)),
+                record(22, event(1L, 3L)));
+
+        dispatcher.<BorrowAndReturnEvent>dispatch(records, BorrowAndReturnEvent::getInventoryId, events -> {
+            if (events.stream().anyMatch(event -> event.getUserId() == 2L)) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("database down");
+            }
+            events.forEach(event -> handled.add(event.getUserId()));
+        });
+
+        awaitOffset(23);
+        assertEquals(List.of(1L, 3L), handled);
+        // the whole batch, then the event alone plus two retries
+        assertEquals(4, attempts.get());
+        assertEquals(1, recovered.size());
+        assertEquals(21L, recovered.get(0).offset());
+    }
+
+    @Test
+    void dispatch_whenRecoveryFails_keepsTheOffsetUncommitted() throws Exception {
+        KeyedEventDispatcher failing = new KeyedEventDispatcher(1, 10, new FixedBackOff(0, 0), (record, e) -> {
+            throw new IllegalStateException("dead letter topic unavailable");
+        });
+        try {
+            failing.<BorrowAndReturnEvent>dispatch(List.of(record(30, event(1L, 1L)), record(31, event(2L, 2L))),
+                    BorrowAndReturnEvent::getInventoryId, events -> {
+                        if (events.get(0).getInventoryId() == 1L) {
+                            throw new IllegalStateException("database down");
+                        }
+                    });
+
+            Thread.sleep(200);
+            assertEquals(30L, failing.commitableOffsets(List.of(PARTITION)).get(PARTITION).offset());
+        } finally {
+            failing.destroy();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void commit_marksOffsetsCommittedOnlyWhenTheBrokerAcknowledges() {
+        Consumer<String, Object> consumer = mock(Consumer.class);
+        when(consumer.assignment()).thenReturn(Set.of(PARTITION));
+        dispatcher.<BorrowAndReturnEvent>dispatch(List.of(record(40, null)), BorrowAndReturnEvent::getInventoryId,
+                events -> {
+                });
+        Map<TopicPartition, OffsetAndMetadata> expected = Map.of(PARTITION, new OffsetAndMetadata(41));
+
+        dispatcher.commit(consumer);
+        ArgumentCaptor<OffsetCommitCallback> callback = ArgumentCaptor.forClass(OffsetCommitCallback.class);
+        verify(consumer).commitAsync(eq(expected), callback.capture());
+        assertEquals(41, offset());
+
+        // a failed commit is offered again, for example on the next idle event
+        callback.getValue().onComplete(expected, new RetriableCommitFailedException("coordinator moved"));
+        assertEquals(41, offset());
+
+        callback.getValue().onComplete(expected, null);
+        assertTrue(dispatcher.commitableOffsets(List.of(PARTITION)).isEmpty());
+    }
+
+    @Test
+    void dispatch_hotEventsLostBeforeTheLedgerFlushesAreRedelivered() throws Exception {
+        Inventory inventory = getInventories().get(0);
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.getReferenceById(inventory.getId())).thenReturn(inventory);
+        when(inventoryRepository.applyBoundedDelta(any(), anyInt(), anyInt(), anyInt(), any())).thenReturn(1);
+        InventoryTransactionRepository inventoryTransactionRepository = mock(InventoryTransactionRepository.class);
+        ProcessedEventService processedEventService = mock(ProcessedEventService.class);
+        when(processedEventService.findProcessed(any())).thenReturn(Set.of());
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<java.util.function.Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        List<ConsumerRecord<String, Object>> records = List.of(
+                record(50, hotEvent(inventory, "event-50")),
+                record(51, hotEvent(inventory, "event-51")));
+
+        // admitted in memory, but the service dies before the ledger flushes
+        AvailabilityLedgerServiceImpl ledger = new AvailabilityLedgerServiceImpl(inventoryRepository,
+                inventoryTransactionRepository, transactionTemplate, processedEventService, List.of(inventory.getId()), 100,
+                Duration.ofMillis(10));
+        ledger.recover();
+        dispatcher.<BorrowAndReturnEvent>dispatch(records, BorrowAndReturnEvent::getInventoryId,
+                transactionService(ledger, inventoryRepository, inventoryTransactionRepository,
+                        transactionTemplate, processedEventService)::handleBorrowAndReturnEvents);
+        Thread.sleep(100);
+        assertEquals(28, ledger.availableCopies(inventory.getId()));
+        assertEquals(50, offset());
+        dispatcher.destroy();
+        verify(inventoryRepository, never()).applyBoundedDelta(any(), anyInt(), anyInt(), anyInt(), any());
+
+        // the restarted consumer resumes from the committed offset and gets both events again
+        AvailabilityLedgerServiceImpl restartedLedger = new AvailabilityLedgerServiceImpl(inventoryRepository,
+                inventoryTransactionRepository, transactionTemplate, processedEventService, List.of(inventory.getId()), 100,
+                Duration.ofMillis(10));
+        restartedLedger.recover();
+        KeyedEventDispatcher restarted = new KeyedEventDispatcher(4, 100, new FixedBackOff(0, 2),
+                (record, e) -> recovered.add(record));
+        try {
+            assertEquals(30, restartedLedger.availableCopies(inventory.getId()));
+            restarted.<BorrowAndReturnEvent>dispatch(records, BorrowAndReturnEvent::getInventoryId,
+                    transactionService(restartedLedger, inventoryRepository, inventoryTransactionRepository,
+                            transactionTemplate, processedEventService)::handleBorrowAndReturnEvents);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (offset(restarted) != 52 && System.nanoTime() < deadline) {
+                restartedLedger.flush();
+                Thread.sleep(10);
+            }
+            assertEquals(52, offset(restarted));
+            verify(inventoryRepository).applyBoundedDelta(eq(inventory.getId()), eq(-2), eq(-2), eq(0), any());
+            verify(processedEventService).record(List.of("event-50", "event-51"));
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    private static InventoryTransactionServiceImpl transactionService(AvailabilityLedgerServiceImpl ledger,
+                                                                      InventoryRepository inventoryRepository,
+                                                                      InventoryTransactionRepository inventoryTransactionRepository,
+                                                                      TransactionTemplate transactionTemplate,
+                                                                      ProcessedEventService processedEventService) {
+        return new InventoryTransactionServiceImpl(inventoryTransactionRepository, null, inventoryRepository,
+                ledger, transactionTemplate, processedEventService);
+    }
+
+    private long offset() {
+        return offset(dispatcher);
+    }
+
+    private static long offset(KeyedEventDispatcher dispatcher) {
+        OffsetAndMetadata offset = dispatcher.commitableOffsets(List.of(PARTITION)).get(PARTITION);
+        return offset == null ? -1 : offset.offset();
+    }
+
+    private void awaitOffset(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (offset() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, offset());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, null, value);
+    }
+
+    private static BorrowAndReturnEvent hotEvent(Inventory inventory, String eventId) {
+        BorrowAndReturnEvent event = event(inventory.getId(), 7L);
+        event.setStoreId(inventory.getBookStore().getId());
+        event.setBookId(inventory.getBookId());
+        event.setAction(InventoryAction.BORROWED);
+        event.setQuantity(1);
+        event.setEventId(eventId);
+        return event;
+    }
+
+    private static BorrowAndReturnEvent event(Long inventoryId, Long userId) {
+        BorrowAndReturnEvent event = new BorrowAndReturnEvent();
+        event.setInventoryId(inventoryId);
+        event.setUserId(userId);
+        return event;
+    }
+}
@@ -3,6 +3,7 @@ package com.bookstore.bookinventoryservice.controller;
 import com.bookstore.bookinventoryservice.exception.RecordNotFoundException;
 import com.bookstore.bookinventoryservice.mapper.dtos.BookStoreDTO;
 import com.bookstore.bookinventoryservice.service.BookStoreService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +12,16 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static com.bookstore.bookinventoryservice.mock.MockData.getBookStoreDTOs;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.http.MediaType;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -140,7 +145,7 @@ class BookStoreControllerTest {
     void getAllBookStores() throws Exception {
         List<BookStoreDTO> responseBookStoreDTOs = getBookStoreDTOs();
 
-        when(bookStoreService.getAllBookStores()).thenReturn(responseBookStoreDTOs);
+        when(bookStoreService.getAllBookStores(null, null)).thenReturn(new CursorPage<>(responseBookStoreDTOs, null));
 
         mockMvc.perform(get(BookStoreController.BASE_URL))
                 .andExpect(status().isOk())
@@ -178,4 +183,32 @@ class BookStoreControllerTest {
                 .andExpect(jsonPath("$.message").value("Book Store Not Found "+id))
                 .andExpect(jsonPath("$.data").doesNotExist());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookStoreById_whenETagMatches_shouldReturnNotModified() throws Exception {
+        Long id = 1L;
+
+        when(bookStoreService.getBookStoreETag(id)).thenReturn("1-5f1e");
+
+        mockMvc.perform(get(BookStoreController.BASE_URL+"/{bookStoreId}", id)
+                        .header("If-None-Match", "\"1-5f1e\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(bookStoreService, never()).getBookStoreById(id);
+    }
+
+    @Test
+    void getBookStoreById_shouldReturnETag() throws Exception {
+        Long id = 1L;
+
+        when(bookStoreService.getBookStoreETag(id)).thenReturn("1-5f1f");
+        when(bookStoreService.getBookStoreById(id)).thenReturn(getBookStoreDTOs().get(0));
+
+        mockMvc.perform(get(BookStoreController.BASE_URL+"/{bookStoreId}", id)
+                        .header("If-None-Match", "\"1-5f1e\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-5f1f\""))
+                .andExpect(jsonPath("$.data[0].id").value(id));
+    }
+}
@@ -5,6 +5,7 @@ import com.bookstore.bookinventoryservice.exception.RecordNotFoundException;
 import com.bookstore.bookinventoryservice.mapper.dtos.InventoryDTO;
 import com.bookstore.bookinventoryservice.service.InventoryService;
 import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +17,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static com.bookstore.bookinventoryservice.mock.MockData.getInventoryDTOs;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -161,8 +166,8 @@ class InventoryControllerTest {
         Long bookId = 1L;
         List<InventoryDTO> responseDto = getInventoryDTOs();
 
-        when(inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId))
-                .thenReturn(responseDto);
+        when(inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId, null, null))
+                .thenReturn(new CursorPage<>(responseDto, null));
 
         mockMvc.perform(
                 get(InventoryController.BASE_URL+"?storeId="+storeId+"&bookId="+bookId)
@@ -181,7 +186,7 @@ class InventoryControllerTest {
         Long bookId = 1L;
         List<InventoryDTO> responseDto = getInventoryDTOs();
 
-        when(inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId))
+        when(inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId, null, null))
                 .thenThrow(new RecordNotFoundException("Book Store Not Found "+bookId));
 
         mockMvc.perform(
@@ -225,4 +230,32 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$.message").value("Inventory Not Found "+inventoryId))
                 .andExpect(jsonPath("$.data").doesNotExist());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getInventoryById_whenETagMatches_shouldReturnNotModified() throws Exception {
+        Long id = 1L;
+
+        when(inventoryService.getInventoryETag(id)).thenReturn("1-5f1e");
+
+        mockMvc.perform(get(InventoryController.BASE_URL+"/{inventoryId}", id)
+                        .header("If-None-Match", "\"1-5f1e\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(inventoryService, never()).getInventoryById(id);
+    }
+
+    @Test
+    void getInventoryById_shouldReturnETag() throws Exception {
+        Long id = 1L;
+
+        when(inventoryService.getInventoryETag(id)).thenReturn("1-5f1f");
+        when(inventoryService.getInventoryById(id)).thenReturn(getInventoryDTOs().get(0));
+
+        mockMvc.perform(get(InventoryController.BASE_URL+"/{inventoryId}", id)
+                        .header("If-None-Match", "\"1-5f1e\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-5f1f\""))
+                .andExpect(jsonPath("$.data[0].id").value(id));
+    }
+}
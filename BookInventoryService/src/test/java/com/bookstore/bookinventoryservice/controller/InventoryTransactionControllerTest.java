@@ -3,6 +3,7 @@ package com.bookstore.bookinventoryservice.controller;
 import com.bookstore.bookinventoryservice.exception.RecordNotFoundException;
 import com.bookstore.bookinventoryservice.mapper.dtos.InventoryTransactionDTO;
 import com.bookstore.bookinventoryservice.service.InventoryTransactionService;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -73,17 +74,21 @@ class InventoryTransactionControllerTest {
         Long inventoryId = 1L;
         List<InventoryTransactionDTO> responseDto = getInventoryTransactionDTOs();
 
-        when(inventoryTransactionService.viewTransactionHistory(inventoryId))
-                .thenReturn(responseDto);
+        String nextCursor = CursorPage.encode(responseDto.get(1).getId());
+
+        when(inventoryTransactionService.viewTransactionHistory(inventoryId, null, 2))
+                .thenReturn(new CursorPage<>(responseDto, nextCursor));
 
         mockMvc.perform(get(InventoryTransactionController.BASE_URL+"/view-history/{inventoryId}", inventoryId)
+                        .param("limit", "2")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.valid").value(true))
                 .andExpect(jsonPath("$.message").value("Transaction history retrieved successfully"))
                 .andExpect(jsonPath("$.data.size()").value(responseDto.size()))
                 .andExpect(jsonPath("$.data[0].id").value(responseDto.get(0).getId()))
-                .andExpect(jsonPath("$.data[1].id").value(responseDto.get(1).getId()));
+                .andExpect(jsonPath("$.data[1].id").value(responseDto.get(1).getId()))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor));
     }
 
     @Test
@@ -91,7 +96,7 @@ class InventoryTransactionControllerTest {
         Long inventoryId = 1L;
 
         // Mock the service to throw an exception
-        when(inventoryTransactionService.viewTransactionHistory(inventoryId))
+        when(inventoryTransactionService.viewTransactionHistory(inventoryId, null, null))
                 .thenThrow(new RecordNotFoundException("Inventory Not Found "+inventoryId));
 
         // When & Then
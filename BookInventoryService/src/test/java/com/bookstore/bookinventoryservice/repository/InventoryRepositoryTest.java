@@ -2,8 +2,10 @@ package com.bookstore.bookinventoryservice.repository;
 
 import com.bookstore.bookinventoryservice.entity.BookStore;
 import com.bookstore.bookinventoryservice.entity.Inventory;
+import com.bookstore.bookstorestarter.Util.AuditStamp;
 import com.bookstore.bookstorestarter.enums.Flag;
 import com.bookstore.bookstorestarter.enums.InventoryStatus;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +30,9 @@ class InventoryRepositoryTest {
     @Autowired
     private BookStoreRepository bookStoreRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     Inventory inventory1;
     Inventory inventory2;
     Inventory inventory3;
@@ -142,4 +148,69 @@ class InventoryRepositoryTest {
         assertEquals(1, inventories.size());
         assertEquals(inventory1, inventories.get(0));;
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAuditStampById_includesBookStoreChanges() {
+        LocalDateTime storeModified = LocalDateTime.of(2024, 5, 6, 7, 8, 9);
+        bookStore.setLastModifiedDate(storeModified);
+        bookStoreRepository.saveAndFlush(bookStore);
+
+        Optional<AuditStamp> stamp = inventoryRepository.findAuditStampById(inventory1.getId());
+
+        assertTrue(stamp.isPresent());
+        assertEquals(inventory1.getId(), stamp.get().id());
+        assertEquals(storeModified, stamp.get().relatedModifiedDate());
+        assertEquals(inventory1.getId() + "-" + Long.toHexString(1714979289000000L), stamp.get().eTag());
+        assertTrue(inventoryRepository.findAuditStampById(0L).isEmpty());
+    }
+
+    @Test
+    void borrowCopies_onlyUpdatesWhenEnoughCopiesAreAvailable() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+        assertEquals(1, inventoryRepository.borrowCopies(inventory2.getId(), 60, now));
+        assertEquals(0, inventoryRepository.borrowCopies(inventory2.getId(), 11, now));
+        assertEquals(1, inventoryRepository.borrowCopies(inventory2.getId(), 10, now));
+        entityManager.clear();
+
+        Inventory updated = inventoryRepository.findById(inventory2.getId()).orElseThrow();
+        assertEquals(0, updated.getAvailableCopies());
+        assertEquals(InventoryStatus.OUT_OF_STOCK, updated.getStatus());
+        assertEquals(now, updated.getLastModifiedDate());
+    }
+
+    @Test
+    void returnCopies_neverExceedsTotalCopies() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+        assertEquals(0, inventoryRepository.returnCopies(inventory2.getId(), 21, now));
+        assertEquals(1, inventoryRepository.returnCopies(inventory2.getId(), 20, now));
+        entityManager.clear();
+
+        Inventory updated = inventoryRepository.findById(inventory2.getId()).orElseThrow();
+        assertEquals(90, updated.getAvailableCopies());
+        assertEquals(InventoryStatus.ACTIVE, updated.getStatus());
+    }
+
+    @Test
+    void applyBoundedDelta_onlyUpdatesWhenEveryRunningBalanceFits() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        int available = inventory2.getAvailableCopies();
+
+        assertEquals(0, inventoryRepository.applyBoundedDelta(inventory2.getId(), 0, -available - 1, 0, now));
+        assertEquals(1, inventoryRepository.applyBoundedDelta(inventory2.getId(), -available, -available, 0, now));
+        entityManager.clear();
+        Inventory emptied = inventoryRepository.findById(inventory2.getId()).orElseThrow();
+        assertEquals(0, emptied.getAvailableCopies());
+        assertEquals(InventoryStatus.OUT_OF_STOCK, emptied.getStatus());
+
+        int total = emptied.getTotalCopies();
+        assertEquals(0, inventoryRepository.applyBoundedDelta(inventory2.getId(), 5, 0, total + 1, now));
+        assertEquals(1, inventoryRepository.applyBoundedDelta(inventory2.getId(), 5, 0, total, now));
+        entityManager.clear();
+        Inventory restocked = inventoryRepository.findById(inventory2.getId()).orElseThrow();
+        assertEquals(5, restocked.getAvailableCopies());
+        assertEquals(InventoryStatus.ACTIVE, restocked.getStatus());
+        assertEquals(now, restocked.getLastModifiedDate());
+    }
+}
@@ -0,0 +1,60 @@
+package com.bookstore.bookinventoryservice.repository;
+
+import com.bookstore.bookinventoryservice.entity.ProcessedEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class ProcessedEventRepositoryTest {
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+    @BeforeEach
+    void setUp() {
+        processedEventRepository.saveAll(List.of(
+                new ProcessedEvent("old", now.minusDays(8)),
+                new ProcessedEvent("recent", now.minusHours(1))));
+        processedEventRepository.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findProcessedIds_returnsOnlyStoredIds() {
+        assertEquals(Set.of("old", "recent"), processedEventRepository.findProcessedIds(List.of("old", "recent", "new")));
+    }
+
+    @Test
+    void deleteProcessedBefore_removesExpiredIds() {
+        assertEquals(1, processedEventRepository.deleteProcessedBefore(now.minusDays(7)));
+
+        assertFalse(processedEventRepository.existsById("old"));
+        assertTrue(processedEventRepository.existsById("recent"));
+    }
+
+    @Test
+    void loadedEvents_areNotNew() {
+        ProcessedEvent loaded = processedEventRepository.findById("recent").orElseThrow();
+
+        assertFalse(loaded.isNew());
+        assertTrue(new ProcessedEvent("new", now).isNew());
+    }
+}
@@ -0,0 +1,337 @@
+package com.bookstore.bookinventoryservice.service.impl;
+
+import com.bookstore.bookinventoryservice.entity.Inventory;
+import com.bookstore.bookinventoryservice.entity.InventoryTransaction;
+import com.bookstore.bookinventoryservice.exception.LedgerWriteException;
+import com.bookstore.bookinventoryservice.exception.RecordNotFoundException;
+import com.bookstore.bookinventoryservice.repository.InventoryRepository;
+import com.bookstore.bookinventoryservice.repository.InventoryTransactionRepository;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.enums.InventoryAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.bookstore.bookinventoryservice.mock.MockData.getInventories;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityLedgerServiceImplTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProcessedEventService processedEventService;
+
+    private AvailabilityLedgerServiceImpl ledger;
+
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // 30 of 50 copies available
+        inventory = getInventories().get(0);
+        when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.getReferenceById(inventory.getId())).thenReturn(inventory);
+        when(inventoryRepository.applyBoundedDelta(anyLong(), anyInt(), anyInt(), anyInt(), any())).thenReturn(1);
+
+        ledger = new AvailabilityLedgerServiceImpl(inventoryRepository, inventoryTransactionRepository,
+                transactionTemplate, processedEventService, List.of(inventory.getId(), 99L), 100,
+                Duration.ofMillis(10));
+        ledger.recover();
+    }
+
+    @Test
+    void recover_loadsTheConfiguredInventoriesFromTheDatabase() {
+        assertTrue(ledger.tracks(inventory.getId()));
+        assertFalse(ledger.tracks(99L));
+        assertEquals(30, ledger.availableCopies(inventory.getId()));
+    }
+
+    @Test
+    void apply_admitsBorrowsAndReturnsWithinTheBounds() {
+        ledger.apply(event(InventoryAction.BORROWED, 30));
+        assertEquals(0, ledger.availableCopies(inventory.getId()));
+
+        CompletableFuture<Void> borrow = ledger.apply(event(InventoryAction.BORROWED, 1));
+        ledger.apply(event(InventoryAction.RETURNED, 50));
+        CompletableFuture<Void> giveBack = ledger.apply(event(InventoryAction.RETURNED, 1));
+        assertEquals(50, ledger.availableCopies(inventory.getId()));
+
+        ledger.flush();
+        assertEquals("Not enough available copies to borrow.", rejectionOf(borrow).getMessage());
+        assertEquals("Cannot return more books than were borrowed.", rejectionOf(giveBack).getMessage());
+    }
+
+    @Test
+    void apply_neverAdmitsMoreBorrowsThanThereAreCopies() throws Exception {
+        List<CompletableFuture<Void>> flushes = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService borrowers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            borrowers.submit(() -> {
+                start.await();
+                for (int j = 0; j < 10; j++) {
+                    flushes.add(ledger.apply(event(InventoryAction.BORROWED, 1)));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        borrowers.shutdown();
+        assertTrue(borrowers.awaitTermination(5, TimeUnit.SECONDS));
+
+        ledger.flush();
+        assertEquals(0, ledger.availableCopies(inventory.getId()));
+        assertEquals(30, flushes.stream().filter(flushed -> !flushed.isCompletedExceptionally()).count());
+        verify(inventoryRepository).applyBoundedDelta(eq(inventory.getId()), eq(-30), eq(-30), eq(0), any(LocalDateTime.class));
+    }
+
+    @Test
+    void apply_waitsForAFlush_whenPendingChangesAreAtCapacity() throws Exception {
+        AvailabilityLedgerServiceImpl bounded = new AvailabilityLedgerServiceImpl(inventoryRepository,
+                inventoryTransactionRepository, transactionTemplate, processedEventService, List.of(inventory.getId()), 1,
+                Duration.ofMillis(10));
+        bounded.recover();
+        bounded.apply(event(InventoryAction.BORROWED, 1));
+
+        CompletableFuture<CompletableFuture<Void>> second = CompletableFuture.supplyAsync(
+                () -> bounded.apply(event(InventoryAction.BORROWED, 2)));
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        assertEquals(1, bounded.flush());
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, bounded.flush());
+    }
+
+    @Test
+    void start_writesAdmittedChangesWithoutAFlushBeingCalled() throws Exception {
+        ledger.start();
+        try {
+            ledger.apply(event(InventoryAction.BORROWED, 5)).get(5, TimeUnit.SECONDS);
+            ledger.apply(event(InventoryAction.BORROWED, 3)).get(5, TimeUnit.SECONDS);
+
+            verify(inventoryRepository).applyBoundedDelta(eq(inventory.getId()), eq(-5), eq(-5), eq(0),
+                    any(LocalDateTime.class));
+            verify(inventoryRepository).applyBoundedDelta(eq(inventory.getId()), eq(-3), eq(-3), eq(0),
+                    any(LocalDateTime.class));
+        } finally {
+            ledger.shutdown();
+        }
+    }
+
+    @Test
+    void apply_rejectsUntrackedInventoriesAndForeignStores() {
+        BorrowAndReturnEvent untracked = event(InventoryAction.BORROWED, 1);
+        untracked.setInventoryId(99L);
+        assertThrows(RecordNotFoundException.class, () -> ledger.apply(untracked));
+
+        BorrowAndReturnEvent foreign = event(InventoryAction.BORROWED, 1);
+        foreign.setStoreId(42L);
+        CompletableFuture<Void> rejected = ledger.apply(foreign);
+        assertEquals(30, ledger.availableCopies(inventory.getId()));
+        ledger.flush();
+        assertTrue(rejectionOf(rejected).getMessage().contains("is not held by book store 42"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void flush_recordsRejectedEventsWithoutWritingThem() {
+        ledger.apply(event(InventoryAction.BORROWED, 5));
+        CompletableFuture<Void> rejected = ledger.apply(event(InventoryAction.BORROWED, 40));
+
+        assertFalse(rejected.isDone());
+        assertEquals(2, ledger.flush());
+
+        verify(inventoryRepository).applyBoundedDelta(eq(inventory.getId()), eq(-5), eq(-5), eq(0), any(LocalDateTime.class));
+        ArgumentCaptor<List<InventoryTransaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(inventoryTransactionRepository).saveAll(saved.capture());
+        assertEquals(List.of(5), saved.getValue().stream().map(InventoryTransaction::getQuantity).toList());
+        // a redelivery must not admit it later against a refilled balance
+        verify(processedEventService).record(List.of("event-5", "event-40"));
+        assertEquals("Not enough available copies to borrow.", rejectionOf(rejected).getMessage());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void flush_writesOneNetDeltaPerInventoryAndEveryTransaction() {
+        ledger.apply(event(InventoryAction.BORROWED, 5));
+        ledger.apply(event(InventoryAction.BORROWED, 3));
+        ledger.apply(event(InventoryAction.RETURNED, 2));
+
+        assertEquals(3, ledger.flush());
+
+        verify(inventoryRepository).applyBoundedDelta(eq(inventory.getId()), eq(-6), eq(-8), eq(0), any(LocalDateTime.class));
+        ArgumentCaptor<List<InventoryTransaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(inventoryTransactionRepository).saveAll(saved.capture());
+        assertEquals(List.of(5, 3, 2), saved.getValue().stream().map(InventoryTransaction::getQuantity).toList());
+        verify(processedEventService).record(List.of("event-5", "event-3", "event-2"));
+        assertEquals(0, ledger.flush());
+    }
+
+    @Test
+    void flush_retriesTheSameChangesAfterAFailure() {
+        CompletableFuture<Void> flushed = ledger.apply(event(InventoryAction.BORROWED, 5));
+        doThrow(new IllegalStateException("database down")).doReturn(1)
+                .when(inventoryRepository).applyBoundedDelta(anyLong(), anyInt(), anyInt(), anyInt(), any());
+
+        assertThrows(IllegalStateException.class, () -> ledger.flush());
+        // the caller keeps waiting, so its offset is not committed over an unwritten change
+        assertFalse(flushed.isDone());
+        assertEquals(1, ledger.flush());
+        assertTrue(flushed.isDone());
+
+        verify(inventoryRepository, times(2)).applyBoundedDelta(eq(inventory.getId()), eq(-5), eq(-5), eq(0),
+                any(LocalDateTime.class));
+        verify(inventoryTransactionRepository).saveAll(anyList());
+    }
+
+    @Test
+    void flush_writesChangesOneByOne_whenTheBatchKeepsFailing() {
+        CompletableFuture<Void> poison = ledger.apply(event(InventoryAction.BORROWED, 5));
+        CompletableFuture<Void> healthy = ledger.apply(event(InventoryAction.BORROWED, 3));
+        IllegalStateException failure = new IllegalStateException("value too long");
+        doAnswer(invocation -> {
+            if (invocation.<List<String>>getArgument(0).contains("event-5")) {
+                throw failure;
+            }
+            return null;
+        }).when(processedEventService).record(anyList());
+
+        for (int attempt = 1; attempt < AvailabilityLedgerServiceImpl.MAX_FLUSH_ATTEMPTS; attempt++) {
+            assertThrows(IllegalStateException.class, () -> ledger.flush());
+            assertFalse(poison.isDone());
+        }
+        assertEquals(1, ledger.flush());
+
+        assertTrue(healthy.isDone() && !healthy.isCompletedExceptionally());
+        Throwable rejection = rejectionOf(poison);
+        assertTrue(rejection instanceof LedgerWriteException);
+        assertEquals(failure, rejection.getCause());
+        // the poisoned borrow is taken back, the healthy one stays
+        assertEquals(27, ledger.availableCopies(inventory.getId()));
+        verify(processedEventService).record(List.of("event-3"));
+        assertEquals(0, ledger.flush());
+    }
+
+    @Test
+    void flush_failsTheChangesOfAnInventoryThatMovedOutsideTheLedger() {
+        CompletableFuture<Void> borrow = ledger.apply(event(InventoryAction.BORROWED, 5));
+        CompletableFuture<Void> rejected = ledger.apply(event(InventoryAction.BORROWED, 40));
+        // another writer took all but 2 copies, so the guarded update refuses the borrow of 5
+        when(inventoryRepository.applyBoundedDelta(anyLong(), anyInt(), anyInt(), anyInt(), any())).thenReturn(0);
+        inventory.setAvailableCopies(2);
+
+        assertEquals(1, ledger.flush());
+
+        assertTrue(rejectionOf(borrow) instanceof LedgerWriteException);
+        assertEquals("Not enough available copies to borrow.", rejectionOf(rejected).getMessage());
+        // the borrow is not recorded, so its redelivery is admitted again against the reloaded balance
+        verify(processedEventService).record(List.of("event-40"));
+        assertEquals(2, ledger.availableCopies(inventory.getId()));
+        assertEquals(0, ledger.flush());
+    }
+
+    @Test
+    void reload_keepsChangesThatAreNotFlushedYet() {
+        ledger.apply(event(InventoryAction.BORROWED, 5));
+        inventory.setAvailableCopies(40);
+
+        ledger.reload(inventory.getId());
+
+        assertEquals(35, ledger.availableCopies(inventory.getId()));
+        verify(inventoryRepository, never()).applyBoundedDelta(anyLong(), anyInt(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void reload_doesNotLoseAdmissionsRacingWithIt() throws Exception {
+        List<CompletableFuture<Void>> flushes = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService borrowers = Executors.newFixedThreadPool(5);
+        for (int i = 0; i < 4; i++) {
+            borrowers.submit(() -> {
+                start.await();
+                for (int j = 0; j < 10; j++) {
+                    flushes.add(ledger.apply(event(InventoryAction.BORROWED, 1)));
+                }
+                return null;
+            });
+        }
+        borrowers.submit(() -> {
+            start.await();
+            for (int j = 0; j < 200; j++) {
+                ledger.reload(inventory.getId());
+            }
+            return null;
+        });
+        start.countDown();
+        borrowers.shutdown();
+        assertTrue(borrowers.awaitTermination(5, TimeUnit.SECONDS));
+
+        // nothing was flushed, so every reload read the same 30 and re-applied all admitted borrows
+        assertEquals(0, ledger.availableCopies(inventory.getId()));
+        ledger.flush();
+        assertEquals(30, flushes.stream().filter(flushed -> !flushed.isCompletedExceptionally()).count());
+    }
+
+    private static Throwable rejectionOf(CompletableFuture<Void> flushed) {
+        return assertThrows(CompletionException.class, flushed::join).getCause();
+    }
+
+    private BorrowAndReturnEvent event(InventoryAction action, int quantity) {
+        BorrowAndReturnEvent event = new BorrowAndReturnEvent();
+        event.setBookId(inventory.getBookId());
+        event.setStoreId(inventory.getBookStore().getId());
+        event.setInventoryId(inventory.getId());
+        event.setUserId(7L);
+        event.setAction(action);
+        event.setQuantity(quantity);
+        event.setEventId("event-" + quantity);
+        return event;
+    }
+}
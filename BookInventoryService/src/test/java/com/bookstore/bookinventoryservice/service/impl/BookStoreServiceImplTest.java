@@ -6,11 +6,13 @@ import com.bookstore.bookinventoryservice.mapper.dtos.BookStoreDTO;
 import com.bookstore.bookinventoryservice.mapper.mappers.BookStoreMapper;
 import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
 import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.util.Collections;
 import java.util.List;
@@ -120,18 +122,18 @@ class BookStoreServiceImplTest {
         List<BookStore> bookStores = getBookStores();
         List<BookStoreDTO> bookStoreDTOs = getBookStoreDTOs();
 
-        when(bookStoreRepository.findAllByFlag(Flag.ENABLED)).thenReturn(bookStores);
+        when(bookStoreRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(bookStores);
         when(bookStoreMapper.bookStoreToBookStoreDTO(bookStores.get(0))).thenReturn(bookStoreDTOs.get(0));
         when(bookStoreMapper.bookStoreToBookStoreDTO(bookStores.get(1))).thenReturn(bookStoreDTOs.get(1));
 
-        List<BookStoreDTO> result = bookStoreService.getAllBookStores();
+        List<BookStoreDTO> result = bookStoreService.getAllBookStores(null, null).getData();
 
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(Flag.ENABLED, result.get(0).getFlag());
         assertEquals(Flag.ENABLED, result.get(1).getFlag());
 
-        verify(bookStoreRepository).findAllByFlag(Flag.ENABLED);
+        verify(bookStoreRepository).findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
         verify(bookStoreMapper).bookStoreToBookStoreDTO(bookStores.get(0));
         verify(bookStoreMapper).bookStoreToBookStoreDTO(bookStores.get(1));
     }
@@ -139,14 +141,14 @@ class BookStoreServiceImplTest {
 
     @Test
     void testGetAllBookStores_EmptyList() {
-        when(bookStoreRepository.findAllByFlag(Flag.ENABLED)).thenReturn(Collections.emptyList());
+        when(bookStoreRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(Collections.emptyList());
 
-        List<BookStoreDTO> result = bookStoreService.getAllBookStores();
+        List<BookStoreDTO> result = bookStoreService.getAllBookStores(null, null).getData();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(bookStoreRepository).findAllByFlag(Flag.ENABLED);
+        verify(bookStoreRepository).findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
         verifyNoInteractions(bookStoreMapper);
     }
 
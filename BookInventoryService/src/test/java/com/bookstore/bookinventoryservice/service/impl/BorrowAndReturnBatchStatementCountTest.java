@@ -0,0 +1,156 @@
+package com.bookstore.bookinventoryservice.service.impl;
+
+import com.bookstore.bookinventoryservice.entity.BookStore;
+import com.bookstore.bookinventoryservice.entity.Inventory;
+import com.bookstore.bookinventoryservice.mapper.mappers.InventoryTransactionMapperImpl;
+import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
+import com.bookstore.bookinventoryservice.repository.InventoryRepository;
+import com.bookstore.bookinventoryservice.repository.InventoryTransactionRepository;
+import com.bookstore.bookinventoryservice.repository.ProcessedEventRepository;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.InventoryAction;
+import com.bookstore.bookstorestarter.enums.InventoryStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({InventoryTransactionServiceImpl.class, AvailabilityLedgerServiceImpl.class, ProcessedEventServiceImpl.class, InventoryTransactionMapperImpl.class})
+class BorrowAndReturnBatchStatementCountTest {
+
+    private static final int INVENTORIES = 5;
+
+    private static final int EVENTS_PER_INVENTORY = 100;
+
+    @Autowired
+    private InventoryTransactionServiceImpl inventoryTransactionService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private BookStoreRepository bookStoreRepository;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void handleBorrowAndReturnEvents_updatesEachInventoryOnce() {
+        BookStore bookStore = saveBookStore();
+
+        List<BorrowAndReturnEvent> events = new ArrayList<>();
+        for (int i = 0; i < INVENTORIES; i++) {
+            Inventory inventory = saveInventory(bookStore, (long) i, EVENTS_PER_INVENTORY);
+            for (int j = 0; j < EVENTS_PER_INVENTORY; j++) {
+                events.add(event(inventory, InventoryAction.BORROWED, 1, i + "-" + j));
+            }
+        }
+        inventoryRepository.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(events);
+        inventoryRepository.flush();
+
+        assertEquals(INVENTORIES * EVENTS_PER_INVENTORY, applied);
+        // no inventory is loaded, each one gets a single guarded UPDATE statement instead
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        // a transaction and a processed event id per event
+        assertEquals(2 * INVENTORIES * EVENTS_PER_INVENTORY, statistics.getEntityInsertCount());
+        // processed id lookup, store lookup, an UPDATE per inventory, the id sequence, then batched inserts
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(INVENTORIES * EVENTS_PER_INVENTORY, inventoryTransactionRepository.count());
+        assertEquals(INVENTORIES * EVENTS_PER_INVENTORY, processedEventRepository.count());
+        testEntityManager.clear();
+        inventoryRepository.findAll().forEach(inventory -> {
+            assertEquals(0, inventory.getAvailableCopies());
+            assertEquals(InventoryStatus.OUT_OF_STOCK, inventory.getStatus());
+        });
+    }
+
+    @Test
+    void handleBorrowAndReturnEvents_rejectsOnlyEventsTheRowRefuses() {
+        BookStore bookStore = saveBookStore();
+        Inventory inventory = saveInventory(bookStore, 1L, 10);
+        Inventory missing = new Inventory();
+        missing.setId(Long.MAX_VALUE);
+        missing.setBookStore(bookStore);
+        inventoryRepository.flush();
+
+        List<BorrowAndReturnEvent> events = List.of(
+                event(inventory, InventoryAction.BORROWED, 6, "a"),
+                event(inventory, InventoryAction.BORROWED, 6, "b"),
+                event(inventory, InventoryAction.RETURNED, 2, "c"),
+                event(inventory, InventoryAction.BORROWED, 6, "d"),
+                event(missing, InventoryAction.BORROWED, 1, "e"));
+
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(events);
+        inventoryRepository.flush();
+        testEntityManager.clear();
+
+        // 10 available: 6 out, 6 more would overdraw, 2 back, then 6 fits exactly
+        assertEquals(3, applied);
+        Inventory stored = inventoryRepository.findById(inventory.getId()).orElseThrow();
+        assertEquals(0, stored.getAvailableCopies());
+        assertEquals(InventoryStatus.OUT_OF_STOCK, stored.getStatus());
+        assertEquals(3, inventoryTransactionRepository.count());
+        // rejected events are recorded too, so a redelivery does not apply them against a later balance
+        assertEquals(5, processedEventRepository.count());
+    }
+
+    private BookStore saveBookStore() {
+        BookStore bookStore = new BookStore();
+        bookStore.setName("Book Store");
+        bookStore.setFlag(Flag.ENABLED);
+        return bookStoreRepository.save(bookStore);
+    }
+
+    private Inventory saveInventory(BookStore bookStore, Long bookId, int copies) {
+        Inventory inventory = new Inventory();
+        inventory.setBookId(bookId);
+        inventory.setBookStore(bookStore);
+        inventory.setTotalCopies(copies);
+        inventory.setAvailableCopies(copies);
+        inventory.setFlag(Flag.ENABLED);
+        inventory.setStatus(InventoryStatus.ACTIVE);
+        return inventoryRepository.save(inventory);
+    }
+
+    private BorrowAndReturnEvent event(Inventory inventory, InventoryAction action, int quantity, String eventId) {
+        BorrowAndReturnEvent event = new BorrowAndReturnEvent();
+        event.setStoreId(inventory.getBookStore().getId());
+        event.setInventoryId(inventory.getId());
+        event.setBookId(inventory.getBookId());
+        event.setUserId(1L);
+        event.setAction(action);
+        event.setQuantity(quantity);
+        event.setEventId(eventId);
+        return event;
+    }
+}
@@ -0,0 +1,167 @@
+package com.bookstore.bookinventoryservice.service.impl;
+
+import com.bookstore.bookinventoryservice.entity.BookStore;
+import com.bookstore.bookinventoryservice.entity.Inventory;
+import com.bookstore.bookinventoryservice.mapper.mappers.InventoryTransactionMapperImpl;
+import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
+import com.bookstore.bookinventoryservice.repository.InventoryRepository;
+import com.bookstore.bookinventoryservice.repository.InventoryTransactionRepository;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.InventoryAction;
+import com.bookstore.bookstorestarter.enums.InventoryStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@ActiveProfiles("test")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({InventoryTransactionServiceImpl.class, AvailabilityLedgerServiceImpl.class, ProcessedEventServiceImpl.class, InventoryTransactionMapperImpl.class})
+class InventoryBorrowContentionBenchmarkTest {
+
+    private static final int CALLERS = 32;
+
+    private static final int BORROWS_PER_CALLER = 50;
+
+    // fewer copies than requests, so the tail of the run is all rejected borrows
+    private static final int COPIES = 1000;
+
+    @Autowired
+    private InventoryTransactionServiceImpl inventoryTransactionService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private BookStoreRepository bookStoreRepository;
+
+    @Autowired
+    private AvailabilityLedgerServiceImpl availabilityLedgerService;
+
+    @AfterEach
+    void tearDown() {
+        inventoryTransactionRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        bookStoreRepository.deleteAll();
+    }
+
+    @Test
+    void borrowFromHotInventory() throws Exception {
+        Inventory inventory = createInventory();
+
+        int borrowed = borrowConcurrently("borrow on a hot inventory", inventory);
+
+        assertNoOversell(inventory.getId(), borrowed);
+    }
+
+    @Test
+    void borrowFromHotInventoryThroughLedger() throws Exception {
+        Inventory inventory = createInventory();
+        availabilityLedgerService.track(inventory.getId());
+
+        // the bean's own flusher writes behind; each borrow waits for the commit that carries it
+        int borrowed = borrowConcurrently("borrow through the ledger", inventory);
+        availabilityLedgerService.flush();
+
+        assertEquals(0, availabilityLedgerService.availableCopies(inventory.getId()));
+        assertNoOversell(inventory.getId(), borrowed);
+    }
+
+    private Inventory createInventory() {
+        BookStore bookStore = new BookStore();
+        bookStore.setName("Book Store");
+        bookStore.setFlag(Flag.ENABLED);
+        bookStore = bookStoreRepository.save(bookStore);
+
+        Inventory inventory = new Inventory();
+        inventory.setBookId(1L);
+        inventory.setBookStore(bookStore);
+        inventory.setTotalCopies(COPIES);
+        inventory.setAvailableCopies(COPIES);
+        inventory.setFlag(Flag.ENABLED);
+        inventory.setStatus(InventoryStatus.ACTIVE);
+        return inventoryRepository.save(inventory);
+    }
+
+    private int borrowConcurrently(String label, Inventory inventory) throws Exception {
+        Long storeId = inventory.getBookStore().getId();
+        Long inventoryId = inventory.getId();
+        AtomicInteger borrowed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            long userId = i;
+            futures.add(callers.submit(() -> {
+                start.await();
+                for (int j = 0; j < BORROWS_PER_CALLER; j++) {
+                    // the same path the consumer lanes take, with a one-event poll; a rejection is logged, not thrown
+                    if (inventoryTransactionService.handleBorrowAndReturnEvents(
+                            List.of(borrowOne(storeId, inventoryId, userId))) == 1) {
+                        borrowed.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        callers.shutdown();
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%s: %d callers, %d borrowed, %d rejected, %.1f borrows/s%n",
+                label, CALLERS, borrowed.get(), rejected.get(), (borrowed.get() + rejected.get()) / seconds);
+        return borrowed.get();
+    }
+
+    // no oversell: every copy went out exactly once and every success left a transaction behind
+    private void assertNoOversell(Long inventoryId, int borrowed) {
+        Inventory after = inventoryRepository.findById(inventoryId).orElseThrow();
+        assertEquals(COPIES, borrowed);
+        assertEquals(0, after.getAvailableCopies());
+        assertEquals(InventoryStatus.OUT_OF_STOCK, after.getStatus());
+        assertEquals(COPIES, inventoryTransactionRepository.count());
+    }
+
+    private static BorrowAndReturnEvent borrowOne(Long storeId, Long inventoryId, Long userId) {
+        BorrowAndReturnEvent event = new BorrowAndReturnEvent();
+        event.setStoreId(storeId);
+        event.setInventoryId(inventoryId);
+        event.setBookId(1L);
+        event.setUserId(userId);
+        event.setAction(InventoryAction.BORROWED);
+        event.setQuantity(1);
+        return event;
+    }
+}
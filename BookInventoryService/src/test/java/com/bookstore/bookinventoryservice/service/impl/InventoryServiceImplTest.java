@@ -9,16 +9,21 @@ import com.bookstore.bookinventoryservice.mapper.dtos.InventoryDTO;
 import com.bookstore.bookinventoryservice.mapper.mappers.InventoryMapper;
 import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
 import com.bookstore.bookinventoryservice.repository.InventoryRepository;
+import com.bookstore.bookinventoryservice.service.AvailabilityLedgerService;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
 import com.bookstore.bookstorestarter.dtos.BaseBookDTO;
 import com.bookstore.bookstorestarter.dtos.PublishEvent;
 import com.bookstore.bookstorestarter.enums.Flag;
 import com.bookstore.bookstorestarter.enums.InventoryStatus;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +33,8 @@ import static com.bookstore.bookinventoryservice.mock.MockData.getInventories;
 import static com.bookstore.bookinventoryservice.mock.MockData.getInventoryDTOs;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -45,6 +52,12 @@ class InventoryServiceImplTest {
     @Mock
     private InventoryMapper inventoryMapper;
 
+    @Mock
+    private AvailabilityLedgerService availabilityLedgerService;
+
+    @Mock
+    private ProcessedEventService processedEventService;
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
@@ -157,6 +170,26 @@ class InventoryServiceImplTest {
         verify(inventoryMapper).InventoryToInventoryDTO(updatedInventory);
     }
 
+    @Test
+    void updateInventory_refreshesTheLedgerForHotInventories() {
+        Long inventoryId = 1L;
+        Inventory existingInventory = getInventories().get(0);
+        BookStore bookStore = getBookStores().get(0);
+        InventoryDTO inventoryDTO = getInventoryDTOs().get(0);
+
+        when(availabilityLedgerService.tracks(inventoryId)).thenReturn(true);
+        when(inventoryRepository.findById(inventoryId)).thenReturn(Optional.of(existingInventory));
+        when(bookStoreRepository.findById(bookStore.getId())).thenReturn(Optional.of(bookStore));
+        when(inventoryRepository.save(any(Inventory.class))).thenReturn(existingInventory);
+
+        inventoryService.updateInventory(inventoryDTO, inventoryId);
+
+        InOrder inOrder = inOrder(availabilityLedgerService, inventoryRepository);
+        inOrder.verify(availabilityLedgerService).flush();
+        inOrder.verify(inventoryRepository).save(any(Inventory.class));
+        inOrder.verify(availabilityLedgerService).reload(inventoryId);
+    }
+
     @Test
     void testUpdateInventory_InventoryNotFound() {
         // Given
@@ -289,12 +322,12 @@ class InventoryServiceImplTest {
         List<InventoryDTO> inventoryDTOs = getInventoryDTOs();
 
         when(bookStoreRepository.findById(1L)).thenReturn(Optional.of(bookStore));
-        when(inventoryRepository.findAllByBookStoreAndFlag(bookStore, Flag.ENABLED)).thenReturn(inventories);
+        when(inventoryRepository.findAllByBookStoreAndFlagAndIdGreaterThanOrderByIdAsc(bookStore, Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(inventories);
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(0))).thenReturn(inventoryDTOs.get(0));
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(1))).thenReturn(inventoryDTOs.get(1));
 
         // When
-        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, 1L, null);
+        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, 1L, null, null, null).getData();
 
         // Then
         assertNotNull(result);
@@ -305,7 +338,7 @@ class InventoryServiceImplTest {
         assertNotNull(result.get(1).getBookStore());
 
         verify(bookStoreRepository).findById(1L);
-        verify(inventoryRepository).findAllByBookStoreAndFlag(bookStore, Flag.ENABLED);
+        verify(inventoryRepository).findAllByBookStoreAndFlagAndIdGreaterThanOrderByIdAsc(bookStore, Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
     }
 
 
@@ -314,15 +347,15 @@ class InventoryServiceImplTest {
         List<Inventory> inventories = getInventories();
         List<InventoryDTO> inventoryDTOs = getInventoryDTOs();
 
-        when(inventoryRepository.findAllByBookIdAndFlag(100L, Flag.ENABLED)).thenReturn(inventories);
+        when(inventoryRepository.findAllByBookIdAndFlagAndIdGreaterThanOrderByIdAsc(100L, Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(inventories);
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(0))).thenReturn(inventoryDTOs.get(0));
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(1))).thenReturn(inventoryDTOs.get(1));
 
-        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, null, 100L);
+        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, null, 100L, null, null).getData();
 
         assertEquals(2, result.size());
         assertEquals(100L, result.get(0).getBookId());
-        verify(inventoryRepository).findAllByBookIdAndFlag(100L, Flag.ENABLED);
+        verify(inventoryRepository).findAllByBookIdAndFlagAndIdGreaterThanOrderByIdAsc(100L, Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
     }
 
     @Test
@@ -330,14 +363,14 @@ class InventoryServiceImplTest {
         List<Inventory> inventories = getInventories();
         List<InventoryDTO> inventoryDTOs = getInventoryDTOs();
 
-        when(inventoryRepository.findAllByFlag(Flag.ENABLED)).thenReturn(inventories);
+        when(inventoryRepository.findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(inventories);
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(0))).thenReturn(inventoryDTOs.get(0));
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(1))).thenReturn(inventoryDTOs.get(1));
 
-        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, null, null);
+        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, null, null, null, null).getData();
 
         assertEquals(2, result.size());
-        verify(inventoryRepository).findAllByFlag(Flag.ENABLED);
+        verify(inventoryRepository).findAllByFlagAndIdGreaterThanOrderByIdAsc(Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
     }
 
     @Test
@@ -349,14 +382,14 @@ class InventoryServiceImplTest {
         List<InventoryDTO> inventoryDTOs = getInventoryDTOs();
 
         when(bookStoreRepository.findById(storeId)).thenReturn(Optional.of(bookStore));
-        when(inventoryRepository.findAllByBookStoreAndBookIdAndFlag(bookStore, bookId, Flag.ENABLED)).thenReturn(inventories);
+        when(inventoryRepository.findAllByBookStoreAndBookIdAndFlagAndIdGreaterThanOrderByIdAsc(bookStore, bookId, Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(inventories);
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(0))).thenReturn(inventoryDTOs.get(0));
         when(inventoryMapper.InventoryToInventoryDTO(inventories.get(1))).thenReturn(inventoryDTOs.get(1));
 
-        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId);
+        List<InventoryDTO> result = inventoryService.getAllInventory(Flag.ENABLED, storeId, bookId, null, null).getData();
 
         assertEquals(2, result.size());
-        verify(inventoryRepository).findAllByBookStoreAndBookIdAndFlag(bookStore, bookId, Flag.ENABLED);
+        verify(inventoryRepository).findAllByBookStoreAndBookIdAndFlagAndIdGreaterThanOrderByIdAsc(bookStore, bookId, Flag.ENABLED, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
     }
 
     @Test
@@ -365,7 +398,7 @@ class InventoryServiceImplTest {
 
         RecordNotFoundException exception = assertThrows(
                 RecordNotFoundException.class,
-                () -> inventoryService.getAllInventory(Flag.ENABLED, 2L, null)
+                () -> inventoryService.getAllInventory(Flag.ENABLED, 2L, null, null, null)
         );
 
         assertEquals("Book Store Not Found 2", exception.getMessage());
@@ -380,6 +413,7 @@ class InventoryServiceImplTest {
         bookDTO.setId(bookId);
         PublishEvent event = new PublishEvent();
         event.setBookDTO(bookDTO);
+        event.setEventId("publish-1");
         List<BookStore> bookStores = getBookStores();
 
         when(bookStoreRepository.findAllByFlag(Flag.ENABLED)).thenReturn(bookStores);
@@ -401,5 +435,22 @@ class InventoryServiceImplTest {
             assertNotNull(inventory.getBookStore());
             assertTrue(bookStores.contains(inventory.getBookStore()));
         }
+        verify(processedEventService).record(List.of("publish-1"));
+    }
+
+    @Test
+    void handleBookPublishedEvent_shouldSkipAnAlreadyProcessedEvent() {
+        BaseBookDTO bookDTO = new BaseBookDTO();
+        bookDTO.setId(123L);
+        PublishEvent event = new PublishEvent();
+        event.setBookDTO(bookDTO);
+        event.setEventId("publish-1");
+
+        when(processedEventService.isProcessed("publish-1")).thenReturn(true);
+
+        inventoryService.handleBookPublishedEvent(event);
+
+        verifyNoInteractions(bookStoreRepository, inventoryRepository);
+        verify(processedEventService, never()).record(any());
     }
-}
\ No newline at end of file
+}
@@ -1,31 +1,46 @@
 package com.bookstore.bookinventoryservice.service.impl;
 
-import com.bookstore.bookinventoryservice.entity.BookStore;
 import com.bookstore.bookinventoryservice.entity.Inventory;
 import com.bookstore.bookinventoryservice.entity.InventoryTransaction;
+import com.bookstore.bookinventoryservice.exception.LedgerWriteException;
 import com.bookstore.bookinventoryservice.exception.RecordNotFoundException;
 import com.bookstore.bookinventoryservice.mapper.dtos.InventoryTransactionDTO;
 import com.bookstore.bookinventoryservice.mapper.mappers.InventoryTransactionMapper;
-import com.bookstore.bookinventoryservice.repository.BookStoreRepository;
 import com.bookstore.bookinventoryservice.repository.InventoryRepository;
 import com.bookstore.bookinventoryservice.repository.InventoryTransactionRepository;
+import com.bookstore.bookinventoryservice.repository.projection.InventoryStoreRow;
+import com.bookstore.bookinventoryservice.service.AvailabilityLedgerService;
+import com.bookstore.bookinventoryservice.service.ProcessedEventService;
 import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
 import com.bookstore.bookstorestarter.enums.InventoryAction;
+import com.bookstore.bookstorestarter.Util.CursorPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static com.bookstore.bookinventoryservice.mock.MockData.getInventories;
 import static com.bookstore.bookinventoryservice.mock.MockData.getInventoryTransactionDTOs;
 import static com.bookstore.bookinventoryservice.mock.MockData.getInventoryTransactions;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -44,7 +59,13 @@ class InventoryTransactionServiceImplTest {
     private InventoryRepository inventoryRepository;
 
     @Mock
-    private BookStoreRepository bookStoreRepository;
+    private AvailabilityLedgerService availabilityLedgerService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProcessedEventService processedEventService;
 
     @InjectMocks
     private InventoryTransactionServiceImpl inventoryTransactionService;
@@ -52,6 +73,12 @@ class InventoryTransactionServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
 
@@ -110,13 +137,13 @@ class InventoryTransactionServiceImplTest {
         List<InventoryTransactionDTO> transactionDTOs = getInventoryTransactionDTOs();
 
         when(inventoryRepository.findById(inventoryId)).thenReturn(Optional.of(inventory));
-        when(inventoryTransactionRepository.findAllByInventory(inventory)).thenReturn(transactions);
+        when(inventoryTransactionRepository.findAllByInventoryAndIdGreaterThanOrderByIdAsc(inventory, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(transactions);
         when(inventoryTransactionMapper.inventoryTransactionToInventoryTransactionDTO(transactions.get(0)))
                 .thenReturn(transactionDTOs.get(0));
         when(inventoryTransactionMapper.inventoryTransactionToInventoryTransactionDTO(transactions.get(1)))
                 .thenReturn(transactionDTOs.get(1));
 
-        List<InventoryTransactionDTO> result = inventoryTransactionService.viewTransactionHistory(inventoryId);
+        List<InventoryTransactionDTO> result = inventoryTransactionService.viewTransactionHistory(inventoryId, null, null).getData();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -124,7 +151,7 @@ class InventoryTransactionServiceImplTest {
         assertEquals(transactionDTOs.get(1).getTransactionRef(), result.get(1).getTransactionRef());
 
         verify(inventoryRepository).findById(inventoryId);
-        verify(inventoryTransactionRepository).findAllByInventory(inventory);
+        verify(inventoryTransactionRepository).findAllByInventoryAndIdGreaterThanOrderByIdAsc(inventory, 0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
         verify(inventoryTransactionMapper, times(2)).inventoryTransactionToInventoryTransactionDTO(any());
     }
 
@@ -136,7 +163,7 @@ class InventoryTransactionServiceImplTest {
 
         RecordNotFoundException exception = assertThrows(
                 RecordNotFoundException.class,
-                () -> inventoryTransactionService.viewTransactionHistory(invalidId)
+                () -> inventoryTransactionService.viewTransactionHistory(invalidId, null, null)
         );
 
         assertEquals("Inventory Not Found " + invalidId, exception.getMessage());
@@ -183,92 +210,188 @@ class InventoryTransactionServiceImplTest {
     }
 
     @Test
-    void handleBorrowEvent_shouldSucceed_whenEnoughCopiesAvailable() {
-        // Given
-        BorrowAndReturnEvent event = getBorrowEvent(InventoryAction.BORROWED, 2);
+    void handleBorrowAndReturnEvents_shouldRecordAnOverdrawingBorrowAsRejected() {
+        BorrowAndReturnEvent event = getBorrowEvent(InventoryAction.BORROWED, 40);
+        event.setEventId("event-1");
 
-        Inventory inventory = getInventories().get(0);
+        when(inventoryRepository.findStoresByIdIn(any())).thenReturn(List.of(new InventoryStoreRow(10L, 1L)));
+        when(inventoryRepository.applyBoundedDelta(eq(10L), anyInt(), anyInt(), anyInt(), any())).thenReturn(0);
+        when(inventoryRepository.borrowCopies(eq(10L), eq(40), any())).thenReturn(0);
+        when(inventoryRepository.existsById(10L)).thenReturn(true);
 
-        when(bookStoreRepository.findById(event.getStoreId()))
-                .thenReturn(Optional.of(new BookStore()));
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(List.of(event));
 
-        when(inventoryRepository.findById(event.getInventoryId()))
-                .thenReturn(Optional.of(inventory));
+        // a redelivery must not apply it against a later balance, so its id is recorded like an applied one
+        assertEquals(0, applied);
+        verify(inventoryTransactionRepository).saveAll(argThat(saved -> ((Collection<?>) saved).isEmpty()));
+        verify(processedEventService).record(List.of("event-1"));
+    }
 
-        int expectedCount = inventory.getAvailableCopies() - event.getQuantity();
+    @Test
+    void handleBorrowAndReturnEvents_shouldRejectReturningMoreThanWasBorrowed() {
+        BorrowAndReturnEvent event = getBorrowEvent(InventoryAction.RETURNED, 40);
 
-        // When
-        inventoryTransactionService.handleBorrowAndReturnEvent(event);
+        when(inventoryRepository.findStoresByIdIn(any())).thenReturn(List.of(new InventoryStoreRow(10L, 1L)));
+        when(inventoryRepository.applyBoundedDelta(eq(10L), anyInt(), anyInt(), anyInt(), any())).thenReturn(0);
+        when(inventoryRepository.returnCopies(eq(10L), eq(40), any())).thenReturn(0);
+        when(inventoryRepository.existsById(10L)).thenReturn(true);
 
-        // Then
-        verify(inventoryRepository).save(any(Inventory.class));
-        verify(inventoryTransactionRepository).save(any(InventoryTransaction.class));
-        assertEquals(expectedCount, inventory.getAvailableCopies());
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(List.of(event));
+
+        assertEquals(0, applied);
+        verify(inventoryRepository).applyBoundedDelta(eq(10L), eq(40), eq(0), eq(40), any());
+        verify(inventoryTransactionRepository).saveAll(argThat(saved -> ((Collection<?>) saved).isEmpty()));
     }
 
     @Test
-    void handleBorrowEvent_shouldFail_whenNotEnoughCopiesAvailable() {
-        // Given
-        BorrowAndReturnEvent event = getBorrowEvent(InventoryAction.BORROWED, 40);
+    void handleBorrowAndReturnEvents_shouldRejectEventsFromAStoreThatDoesNotHoldTheInventory() {
+        BorrowAndReturnEvent event = getBorrowEvent(InventoryAction.BORROWED, 2);
+        event.setEventId("event-1");
 
-        Inventory inventory = getInventories().get(0);
+        when(inventoryRepository.findStoresByIdIn(any())).thenReturn(List.of(new InventoryStoreRow(10L, 2L)));
 
-        when(bookStoreRepository.findById(event.getStoreId()))
-                .thenReturn(Optional.of(new BookStore()));
-        when(inventoryRepository.findById(event.getInventoryId()))
-                .thenReturn(Optional.of(inventory));
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(List.of(event));
 
-        // When & Then
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> {
-            inventoryTransactionService.handleBorrowAndReturnEvent(event);
-        });
+        assertEquals(0, applied);
+        verify(inventoryRepository, never()).applyBoundedDelta(any(), anyInt(), anyInt(), anyInt(), any());
+        verify(processedEventService).record(List.of("event-1"));
+    }
 
-        assertEquals("Not enough available copies to borrow.", ex.getMessage());
+    @Test
+    void handleBorrowAndReturnEvents_shouldSaveEachInventoryOnce() {
+        Inventory inventory = getInventories().get(0);
+        inventory.setId(10L);
+        List<BorrowAndReturnEvent> events = List.of(
+                getBorrowEvent(InventoryAction.BORROWED, 20),
+                getBorrowEvent(InventoryAction.RETURNED, 5),
+                getBorrowEvent(InventoryAction.BORROWED, 15));
+
+        when(inventoryRepository.findStoresByIdIn(any())).thenReturn(List.of(new InventoryStoreRow(10L, 1L)));
+        when(inventoryRepository.applyBoundedDelta(eq(10L), anyInt(), anyInt(), anyInt(), any())).thenReturn(1);
+        when(inventoryRepository.getReferenceById(10L)).thenReturn(inventory);
+
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(events);
+
+        // net -30, the running balance bottoms out there and never rises above the starting point
+        assertEquals(3, applied);
+        verify(inventoryRepository).applyBoundedDelta(eq(10L), eq(-30), eq(-30), eq(0), any());
+        verify(inventoryRepository, never()).borrowCopies(any(), anyInt(), any());
+        verify(inventoryRepository, never()).returnCopies(any(), anyInt(), any());
+        verify(inventoryTransactionRepository).saveAll(argThat(saved -> ((Collection<?>) saved).size() == 3));
+        verify(inventoryRepository, never()).findById(any());
         verify(inventoryRepository, never()).save(any());
-        verify(inventoryTransactionRepository, never()).save(any());
     }
 
     @Test
-    void handleReturnEvent_shouldSucceed_whenReturnIsValid() {
-        // Given
-        BorrowAndReturnEvent event = getBorrowEvent(InventoryAction.RETURNED, 2);
+    void handleBorrowAndReturnEvents_shouldRejectOnlyEventsThatBreakTheRunningBalance() {
         Inventory inventory = getInventories().get(0);
-        when(bookStoreRepository.findById(event.getStoreId()))
-                .thenReturn(Optional.of(new BookStore()));
-        when(inventoryRepository.findById(event.getInventoryId()))
-                .thenReturn(Optional.of(inventory));
-
-        int expectedCount = inventory.getAvailableCopies() + event.getQuantity();
-
-        // When
-        inventoryTransactionService.handleBorrowAndReturnEvent(event);
-
-        // Then
-        verify(inventoryRepository).save(any());
-        verify(inventoryTransactionRepository).save(any());
-        assertEquals(expectedCount, inventory.getAvailableCopies());
+        inventory.setId(10L);
+        BorrowAndReturnEvent unknownInventory = getBorrowEvent(InventoryAction.BORROWED, 1);
+        unknownInventory.setInventoryId(99L);
+        List<BorrowAndReturnEvent> events = List.of(
+                getBorrowEvent(InventoryAction.BORROWED, 25),
+                getBorrowEvent(InventoryAction.BORROWED, 10),
+                getBorrowEvent(InventoryAction.RETURNED, 3),
+                unknownInventory);
+
+        when(inventoryRepository.findStoresByIdIn(any())).thenReturn(List.of(new InventoryStoreRow(10L, 1L)));
+        when(inventoryRepository.applyBoundedDelta(any(), anyInt(), anyInt(), anyInt(), any())).thenReturn(0);
+        when(inventoryRepository.borrowCopies(eq(10L), eq(25), any())).thenReturn(1);
+        when(inventoryRepository.borrowCopies(eq(10L), eq(10), any())).thenReturn(0);
+        when(inventoryRepository.returnCopies(eq(10L), eq(3), any())).thenReturn(1);
+        when(inventoryRepository.existsById(10L)).thenReturn(true);
+        when(inventoryRepository.getReferenceById(10L)).thenReturn(inventory);
+
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(events);
+
+        // 30 available: the whole batch overdraws, so each event is retried alone and only the 10 is refused
+        assertEquals(2, applied);
+        verify(inventoryRepository).applyBoundedDelta(eq(10L), eq(-32), eq(-35), eq(0), any());
+        verify(inventoryRepository, never()).applyBoundedDelta(eq(99L), anyInt(), anyInt(), anyInt(), any());
+        verify(inventoryRepository, never()).getReferenceById(99L);
+        verify(inventoryTransactionRepository).saveAll(argThat(saved -> ((Collection<?>) saved).size() == 2));
     }
 
     @Test
-    void handleReturnEvent_shouldFail_whenReturningMoreThanBorrowed() {
-        // Given
-        BorrowAndReturnEvent event = getBorrowEvent(InventoryAction.RETURNED, 40);
-
+    void handleBorrowAndReturnEvents_shouldSendHotInventoriesToTheLedger() {
         Inventory inventory = getInventories().get(0);
+        inventory.setId(10L);
+        BorrowAndReturnEvent hot = getBorrowEvent(InventoryAction.BORROWED, 1);
+        hot.setInventoryId(20L);
+        BorrowAndReturnEvent rejectedHot = getBorrowEvent(InventoryAction.BORROWED, 1000);
+        rejectedHot.setInventoryId(20L);
+        List<BorrowAndReturnEvent> events = List.of(getBorrowEvent(InventoryAction.BORROWED, 5), hot, rejectedHot);
+
+        when(availabilityLedgerService.tracks(20L)).thenReturn(true);
+        when(availabilityLedgerService.apply(hot)).thenReturn(CompletableFuture.completedFuture(null));
+        when(availabilityLedgerService.apply(rejectedHot))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Not enough available copies to borrow.")));
+        when(inventoryRepository.findStoresByIdIn(any())).thenReturn(List.of(new InventoryStoreRow(10L, 1L)));
+        when(inventoryRepository.applyBoundedDelta(eq(10L), anyInt(), anyInt(), anyInt(), any())).thenReturn(1);
+        when(inventoryRepository.getReferenceById(10L)).thenReturn(inventory);
+
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(events);
+
+        assertEquals(2, applied);
+        verify(inventoryRepository).applyBoundedDelta(eq(10L), eq(-5), eq(-5), eq(0), any());
+        verify(inventoryRepository, never()).applyBoundedDelta(eq(20L), anyInt(), anyInt(), anyInt(), any());
+        verify(inventoryTransactionRepository).saveAll(argThat(saved -> ((Collection<?>) saved).size() == 1));
+        verify(availabilityLedgerService).apply(hot);
+    }
 
-        when(bookStoreRepository.findById(event.getStoreId()))
-                .thenReturn(Optional.of(new BookStore()));
-        when(inventoryRepository.findById(event.getInventoryId()))
-                .thenReturn(Optional.of(inventory));
+    @Test
+    void handleBorrowAndReturnEvents_shouldReturnOnlyOnceTheLedgerHasFlushedHotEvents() throws Exception {
+        BorrowAndReturnEvent hot = getBorrowEvent(InventoryAction.BORROWED, 1);
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        when(availabilityLedgerService.tracks(10L)).thenReturn(true);
+        when(availabilityLedgerService.apply(hot)).thenReturn(flushed);
+
+        CompletableFuture<Integer> handled = CompletableFuture.supplyAsync(
+                () -> inventoryTransactionService.handleBorrowAndReturnEvents(List.of(hot)));
+
+        Thread.sleep(100);
+        assertFalse(handled.isDone());
+        flushed.complete(null);
+        assertEquals(1, handled.get(5, TimeUnit.SECONDS));
+        verify(processedEventService, never()).remember(any());
+    }
 
-        // When & Then
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> {
-            inventoryTransactionService.handleBorrowAndReturnEvent(event);
-        });
+    @Test
+    void handleBorrowAndReturnEvents_shouldFailThePoll_whenTheLedgerCouldNotWriteAHotEvent() {
+        BorrowAndReturnEvent written = getBorrowEvent(InventoryAction.BORROWED, 1);
+        BorrowAndReturnEvent unwritten = getBorrowEvent(InventoryAction.BORROWED, 2);
+        when(availabilityLedgerService.tracks(10L)).thenReturn(true);
+        when(availabilityLedgerService.apply(written)).thenReturn(CompletableFuture.completedFuture(null));
+        when(availabilityLedgerService.apply(unwritten))
+                .thenReturn(CompletableFuture.failedFuture(new LedgerWriteException("Inventory 10 changed outside the availability ledger")));
+
+        // thrown only after every admitted event settled, so the dispatcher retries the poll and then dead-letters it
+        assertThrows(LedgerWriteException.class,
+                () -> inventoryTransactionService.handleBorrowAndReturnEvents(List.of(unwritten, written)));
+        verify(availabilityLedgerService).apply(written);
+    }
 
-        assertEquals("Cannot return more books than were borrowed.", ex.getMessage());
-        verify(inventoryRepository, never()).save(any());
-        verify(inventoryTransactionRepository, never()).save(any());
+    @Test
+    void handleBorrowAndReturnEvents_shouldSkipProcessedAndRepeatedEvents() {
+        Inventory inventory = getInventories().get(0);
+        inventory.setId(10L);
+        BorrowAndReturnEvent redelivered = getBorrowEvent(InventoryAction.BORROWED, 10);
+        redelivered.setEventId("event-1");
+        BorrowAndReturnEvent fresh = getBorrowEvent(InventoryAction.BORROWED, 5);
+        fresh.setEventId("event-2");
+        BorrowAndReturnEvent repeated = getBorrowEvent(InventoryAction.BORROWED, 5);
+        repeated.setEventId("event-2");
+
+        when(processedEventService.findProcessed(List.of("event-1", "event-2", "event-2"))).thenReturn(Set.of("event-1"));
+        when(inventoryRepository.findStoresByIdIn(any())).thenReturn(List.of(new InventoryStoreRow(10L, 1L)));
+        when(inventoryRepository.applyBoundedDelta(eq(10L), anyInt(), anyInt(), anyInt(), any())).thenReturn(1);
+        when(inventoryRepository.getReferenceById(10L)).thenReturn(inventory);
+
+        int applied = inventoryTransactionService.handleBorrowAndReturnEvents(List.of(redelivered, fresh, repeated));
+
+        assertEquals(1, applied);
+        verify(inventoryRepository).applyBoundedDelta(eq(10L), eq(-5), eq(-5), eq(0), any());
+        verify(processedEventService).record(List.of("event-2"));
     }
 
     private BorrowAndReturnEvent getBorrowEvent(InventoryAction action, int quantity) {
@@ -0,0 +1,104 @@
+package com.bookstore.bookinventoryservice.service.impl;
+
+import com.bookstore.bookinventoryservice.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessedEventServiceImplTest {
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    private ProcessedEventServiceImpl processedEventService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        processedEventService = new ProcessedEventServiceImpl(processedEventRepository, 2, Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findProcessed_asksTheTableOnlyForIdsOutsideTheWindow() {
+        processedEventService.remember(List.of("a"));
+        when(processedEventRepository.findProcessedIds(List.of("b", "c"))).thenReturn(Set.of("b"));
+
+        Set<String> processed = processedEventService.findProcessed(Arrays.asList("a", "b", "c", null));
+
+        assertEquals(Set.of("a", "b"), processed);
+        // the stored hit is now in the window too
+        assertTrue(processedEventService.isProcessed("b"));
+        verify(processedEventRepository).findProcessedIds(List.of("b", "c"));
+    }
+
+    @Test
+    void window_evictsTheLeastRecentlyUsedId() {
+        processedEventService.remember(List.of("a", "b"));
+        processedEventService.isProcessed("a");
+        processedEventService.remember(List.of("c"));
+
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(Set.of());
+
+        assertTrue(processedEventService.isProcessed("a"));
+        assertFalse(processedEventService.isProcessed("b"));
+        verify(processedEventRepository).findProcessedIds(List.of("b"));
+    }
+
+    @Test
+    void record_storesTheIdsAndRemembersThemOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(Set.of());
+
+        processedEventService.record(Arrays.asList("a", "a", null));
+
+        verify(processedEventRepository).saveAll(argThat(saved -> saved.spliterator().getExactSizeIfKnown() == 1));
+        assertFalse(processedEventService.isProcessed("a"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(processedEventService.isProcessed("a"));
+    }
+
+    @Test
+    void record_ignoresEventsWithoutIds() {
+        processedEventService.record(Arrays.asList(null, null));
+
+        verify(processedEventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void purge_deletesRowsOlderThanTheRetention() {
+        when(processedEventRepository.deleteProcessedBefore(any())).thenReturn(3);
+
+        assertEquals(3, processedEventService.purge());
+
+        verify(processedEventRepository).deleteProcessedBefore(argThat(cutoff ->
+                cutoff.isBefore(LocalDateTime.now().minusDays(6)) && cutoff.isAfter(LocalDateTime.now().minusDays(8))));
+    }
+}
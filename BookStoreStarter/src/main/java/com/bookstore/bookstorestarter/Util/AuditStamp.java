@@ -0,0 +1,25 @@
+package com.bookstore.bookstorestarter.Util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public record AuditStamp(Long id, LocalDateTime createdDate, LocalDateTime lastModifiedDate,
+                         LocalDateTime relatedModifiedDate) {
+
+    public AuditStamp(Long id, LocalDateTime createdDate, LocalDateTime lastModifiedDate) {
+        this(id, createdDate, lastModifiedDate, null);
+    }
+
+    // last_modified_date is not written on insert, so rows never updated fall back to created_date
+    public String eTag() {
+        LocalDateTime modified = lastModifiedDate != null ? lastModifiedDate : createdDate;
+        if (relatedModifiedDate != null && (modified == null || relatedModifiedDate.isAfter(modified))) {
+            modified = relatedModifiedDate;
+        }
+        if (modified == null) {
+            return null;
+        }
+        long micros = modified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + modified.getNano() / 1_000;
+        return id + "-" + Long.toHexString(micros);
+    }
+}
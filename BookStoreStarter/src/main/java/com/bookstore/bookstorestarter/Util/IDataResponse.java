@@ -16,6 +16,7 @@ public class IDataResponse<M> implements DataResponse<M> {
     private boolean valid;
     private List<M> data;
     private String message;
+    private String nextCursor;
 
     public IDataResponse(boolean valid) {
         this.valid = valid;
@@ -25,4 +26,9 @@ public class IDataResponse<M> implements DataResponse<M> {
         this.valid = status.is2xxSuccessful();
         this.message = message;
     }
+
+    public void setPage(CursorPage<M> page) {
+        this.data = page.getData();
+        this.nextCursor = page.getNextCursor();
+    }
 }
@@ -0,0 +1,17 @@
+package com.bookstore.bookstorestarter.Util;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// ids come from a per-entity sequence (a table on MySQL) in blocks of blockSize, one round trip per block
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+
+    int blockSize() default 1000;
+}
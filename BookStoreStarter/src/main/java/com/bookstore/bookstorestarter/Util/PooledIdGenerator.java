@@ -0,0 +1,26 @@
+package com.bookstore.bookstorestarter.Util;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+public class PooledIdGenerator extends SequenceStyleGenerator {
+
+    private final int blockSize;
+
+    public PooledIdGenerator(PooledId config) {
+        this.blockSize = config.blockSize();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        // pooled-lo stores the low end of the next block, so ids stay unique across service instances
+        parameters.put(INCREMENT_PARAM, String.valueOf(blockSize));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
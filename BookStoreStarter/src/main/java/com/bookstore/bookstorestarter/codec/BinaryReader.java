@@ -0,0 +1,99 @@
+package com.bookstore.bookstorestarter.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+final class BinaryReader {
+
+    private final byte[] data;
+
+    private int position;
+
+    private int limit;
+
+    BinaryReader(byte[] data) {
+        this.data = data;
+        this.limit = data.length;
+    }
+
+    int readByte() {
+        require(1);
+        return data[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in event");
+    }
+
+    long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    int readLength() {
+        long length = readVarLong();
+        if (length < 0 || length > limit - position) {
+            throw new SerializationException("Truncated event");
+        }
+        return (int) length;
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    byte[] readBytes() {
+        int length = readLength();
+        byte[] value = Arrays.copyOfRange(data, position, position + length);
+        position += length;
+        return value;
+    }
+
+    LocalDateTime readDateTime() {
+        long seconds = readSignedVarLong();
+        int nanos = (int) readVarLong();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    BigDecimal readDecimal() {
+        int scale = (int) readSignedVarLong();
+        return new BigDecimal(new BigInteger(readBytes()), scale);
+    }
+
+    // narrows the reader to the struct and returns the limit to restore with endStruct
+    int beginStruct() {
+        int length = readLength();
+        int outer = limit;
+        limit = position + length;
+        return outer;
+    }
+
+    // skips any trailing fields written by a newer schema
+    void endStruct(int outer) {
+        position = limit;
+        limit = outer;
+    }
+
+    private void require(int bytes) {
+        if (position + bytes > limit) {
+            throw new SerializationException("Truncated event");
+        }
+    }
+}
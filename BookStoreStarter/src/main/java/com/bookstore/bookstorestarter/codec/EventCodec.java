@@ -0,0 +1,316 @@
+package com.bookstore.bookstorestarter.codec;
+
+import com.bookstore.bookstorestarter.dtos.BaseBookDTO;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+import com.bookstore.bookstorestarter.dtos.PublishEvent;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.InventoryAction;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.time.LocalDateTime;
+
+/*
+ * Layout: [schema version][event type][struct]. A struct is its byte length, a varint bitmask of the fields
+ * present, then the present fields in field-number order.
+ *
+ * Compatibility rules:
+ *  - new fields take the next unused field number and go last; readers skip bits and bytes they do not know
+ *  - a field number is never reused or retyped, and a removed field simply stops being written
+ *  - enums are written by stable id (Flag) or ordinal (InventoryAction), so constants are only ever appended
+ *  - anything else is a breaking change and bumps SCHEMA_VERSION, which older readers reject
+ */
+public final class EventCodec {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    static final int PUBLISH_EVENT = 1;
+
+    static final int BORROW_AND_RETURN_EVENT = 2;
+
+    private static final int INITIAL_CAPACITY = 128;
+
+    private EventCodec() {
+    }
+
+    public static byte[] encode(Object event) {
+        if (event instanceof PublishEvent publishEvent) {
+            return encode(publishEvent);
+        }
+        if (event instanceof PublishDto<?> publishDto) {
+            return encode(publishDto);
+        }
+        if (event instanceof BorrowAndReturnEvent borrowAndReturnEvent) {
+            return encode(borrowAndReturnEvent);
+        }
+        throw new SerializationException("No binary encoding for " + event.getClass().getName());
+    }
+
+    public static byte[] encode(PublishEvent event) {
+        return encodePublish(event.getBookDTO(), event.getPublishedCopies(), event.getRemainingCopies(),
+                event.getEventId(), event.getOccurredAt());
+    }
+
+    // the producer side holds a PublishDto; it goes on the wire exactly like the PublishEvent consumers read
+    public static byte[] encode(PublishDto<?> publishDto) {
+        return encodePublish(publishDto.getBookDTO(), publishDto.getPublishedCopies(), publishDto.getRemainingCopies(),
+                publishDto.getEventId(), publishDto.getOccurredAt());
+    }
+
+    public static byte[] encode(BorrowAndReturnEvent event) {
+        BinaryWriter out = header(BORROW_AND_RETURN_EVENT);
+        int start = out.beginStruct();
+        out.writeVarLong(presence(event.getBookId(), event.getStoreId(), event.getInventoryId(), event.getReason(),
+                event.getUserId(), event.getQuantity(), event.getAction(), event.getEventId(), event.getOccurredAt()));
+        writeLong(out, event.getBookId());
+        writeLong(out, event.getStoreId());
+        writeLong(out, event.getInventoryId());
+        writeString(out, event.getReason());
+        writeLong(out, event.getUserId());
+        writeInt(out, event.getQuantity());
+        if (event.getAction() != null) {
+            out.writeVarLong(event.getAction().ordinal());
+        }
+        writeString(out, event.getEventId());
+        if (event.getOccurredAt() != null) {
+            out.writeDateTime(event.getOccurredAt());
+        }
+        out.endStruct(start);
+        return out.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        BinaryReader in = new BinaryReader(data);
+        int type = readHeader(in);
+        return switch (type) {
+            case PUBLISH_EVENT -> readPublish(in);
+            case BORROW_AND_RETURN_EVENT -> readBorrowAndReturn(in);
+            default -> throw new SerializationException("Unknown event type " + type);
+        };
+    }
+
+    public static PublishEvent decodePublishEvent(byte[] data) {
+        BinaryReader in = new BinaryReader(data);
+        expectType(readHeader(in), PUBLISH_EVENT);
+        return readPublish(in);
+    }
+
+    public static BorrowAndReturnEvent decodeBorrowAndReturnEvent(byte[] data) {
+        BinaryReader in = new BinaryReader(data);
+        expectType(readHeader(in), BORROW_AND_RETURN_EVENT);
+        return readBorrowAndReturn(in);
+    }
+
+    private static byte[] encodePublish(BaseBookDTO book, Integer publishedCopies, Integer remainingCopies,
+                                        String eventId, LocalDateTime occurredAt) {
+        BinaryWriter out = header(PUBLISH_EVENT);
+        int start = out.beginStruct();
+        out.writeVarLong(presence(book, publishedCopies, remainingCopies, eventId, occurredAt));
+        if (book != null) {
+            writeBook(out, book);
+        }
+        writeInt(out, publishedCopies);
+        writeInt(out, remainingCopies);
+        writeString(out, eventId);
+        if (occurredAt != null) {
+            out.writeDateTime(occurredAt);
+        }
+        out.endStruct(start);
+        return out.toByteArray();
+    }
+
+    private static void writeBook(BinaryWriter out, BaseBookDTO book) {
+        int start = out.beginStruct();
+        out.writeVarLong(presence(book.getId(), book.getFlag(), book.getCreatedBy(), book.getCreatedDate(),
+                book.getLastModifiedBy(), book.getLastModifiedDate(), book.getTitle(), book.getSynopsis(),
+                book.getPublishedAt(), book.getIsbn(), book.getEdition(), book.getTotalCopies(),
+                book.getSuggestedRetailPrice()));
+        writeLong(out, book.getId());
+        if (book.getFlag() != null) {
+            out.writeVarLong(book.getFlag().getId());
+        }
+        writeString(out, book.getCreatedBy());
+        if (book.getCreatedDate() != null) {
+            out.writeDateTime(book.getCreatedDate());
+        }
+        writeString(out, book.getLastModifiedBy());
+        if (book.getLastModifiedDate() != null) {
+            out.writeDateTime(book.getLastModifiedDate());
+        }
+        writeString(out, book.getTitle());
+        writeString(out, book.getSynopsis());
+        if (book.getPublishedAt() != null) {
+            out.writeDateTime(book.getPublishedAt());
+        }
+        writeString(out, book.getIsbn());
+        writeString(out, book.getEdition());
+        writeInt(out, book.getTotalCopies());
+        if (book.getSuggestedRetailPrice() != null) {
+            out.writeDecimal(book.getSuggestedRetailPrice());
+        }
+        out.endStruct(start);
+    }
+
+    private static PublishEvent readPublish(BinaryReader in) {
+        PublishEvent event = new PublishEvent();
+        int outer = in.beginStruct();
+        long fields = in.readVarLong();
+        if (has(fields, 0)) {
+            event.setBookDTO(readBook(in));
+        }
+        if (has(fields, 1)) {
+            event.setPublishedCopies((int) in.readSignedVarLong());
+        }
+        if (has(fields, 2)) {
+            event.setRemainingCopies((int) in.readSignedVarLong());
+        }
+        if (has(fields, 3)) {
+            event.setEventId(in.readString());
+        }
+        if (has(fields, 4)) {
+            event.setOccurredAt(in.readDateTime());
+        }
+        in.endStruct(outer);
+        return event;
+    }
+
+    private static BaseBookDTO readBook(BinaryReader in) {
+        BaseBookDTO book = new BaseBookDTO();
+        int outer = in.beginStruct();
+        long fields = in.readVarLong();
+        if (has(fields, 0)) {
+            book.setId(in.readSignedVarLong());
+        }
+        if (has(fields, 1)) {
+            book.setFlag(Flag.getFlag((int) in.readVarLong()));
+        }
+        if (has(fields, 2)) {
+            book.setCreatedBy(in.readString());
+        }
+        if (has(fields, 3)) {
+            book.setCreatedDate(in.readDateTime());
+        }
+        if (has(fields, 4)) {
+            book.setLastModifiedBy(in.readString());
+        }
+        if (has(fields, 5)) {
+            book.setLastModifiedDate(in.readDateTime());
+        }
+        if (has(fields, 6)) {
+            book.setTitle(in.readString());
+        }
+        if (has(fields, 7)) {
+            book.setSynopsis(in.readString());
+        }
+        if (has(fields, 8)) {
+            book.setPublishedAt(in.readDateTime());
+        }
+        if (has(fields, 9)) {
+            book.setIsbn(in.readString());
+        }
+        if (has(fields, 10)) {
+            book.setEdition(in.readString());
+        }
+        if (has(fields, 11)) {
+            book.setTotalCopies((int) in.readSignedVarLong());
+        }
+        if (has(fields, 12)) {
+            book.setSuggestedRetailPrice(in.readDecimal());
+        }
+        in.endStruct(outer);
+        return book;
+    }
+
+    private static BorrowAndReturnEvent readBorrowAndReturn(BinaryReader in) {
+        BorrowAndReturnEvent event = new BorrowAndReturnEvent();
+        int outer = in.beginStruct();
+        long fields = in.readVarLong();
+        if (has(fields, 0)) {
+            event.setBookId(in.readSignedVarLong());
+        }
+        if (has(fields, 1)) {
+            event.setStoreId(in.readSignedVarLong());
+        }
+        if (has(fields, 2)) {
+            event.setInventoryId(in.readSignedVarLong());
+        }
+        if (has(fields, 3)) {
+            event.setReason(in.readString());
+        }
+        if (has(fields, 4)) {
+            event.setUserId(in.readSignedVarLong());
+        }
+        if (has(fields, 5)) {
+            event.setQuantity((int) in.readSignedVarLong());
+        }
+        if (has(fields, 6)) {
+            int ordinal = (int) in.readVarLong();
+            InventoryAction[] actions = InventoryAction.values();
+            if (ordinal >= actions.length) {
+                throw new SerializationException("Unknown inventory action " + ordinal);
+            }
+            event.setAction(actions[ordinal]);
+        }
+        if (has(fields, 7)) {
+            event.setEventId(in.readString());
+        }
+        if (has(fields, 8)) {
+            event.setOccurredAt(in.readDateTime());
+        }
+        in.endStruct(outer);
+        return event;
+    }
+
+    private static BinaryWriter header(int type) {
+        BinaryWriter out = new BinaryWriter(INITIAL_CAPACITY);
+        out.writeByte(SCHEMA_VERSION);
+        out.writeByte(type);
+        return out;
+    }
+
+    private static int readHeader(BinaryReader in) {
+        int version = in.readByte();
+        if (version != SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported event schema version " + version);
+        }
+        return in.readByte();
+    }
+
+    private static void expectType(int type, int expected) {
+        if (type != expected) {
+            throw new SerializationException("Expected event type " + expected + " but found " + type);
+        }
+    }
+
+    private static long presence(Object... values) {
+        long fields = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                fields |= 1L << i;
+            }
+        }
+        return fields;
+    }
+
+    private static boolean has(long fields, int field) {
+        return (fields & (1L << field)) != 0;
+    }
+
+    private static void writeLong(BinaryWriter out, Long value) {
+        if (value != null) {
+            out.writeSignedVarLong(value);
+        }
+    }
+
+    private static void writeInt(BinaryWriter out, Integer value) {
+        if (value != null) {
+            out.writeSignedVarLong(value);
+        }
+    }
+
+    private static void writeString(BinaryWriter out, String value) {
+        if (value != null) {
+            out.writeString(value);
+        }
+    }
+}
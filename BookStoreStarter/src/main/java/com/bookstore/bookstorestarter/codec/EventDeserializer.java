@@ -0,0 +1,12 @@
+package com.bookstore.bookstorestarter.codec;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+// yields a PublishEvent or BorrowAndReturnEvent, chosen by the type byte of each record
+public class EventDeserializer implements Deserializer<Object> {
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return data == null ? null : EventCodec.decode(data);
+    }
+}
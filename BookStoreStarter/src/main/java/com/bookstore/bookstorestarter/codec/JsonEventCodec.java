@@ -0,0 +1,64 @@
+package com.bookstore.bookstorestarter.codec;
+
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+import com.bookstore.bookstorestarter.dtos.PublishEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// readers and writers are immutable and thread-safe, so each event type resolves its serializers once
+public final class JsonEventCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            // a PublishDto carries book fields that a PublishEvent reader does not declare
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{PublishEvent.class, PublishDto.class, BorrowAndReturnEvent.class}) {
+            writerFor(type);
+            readerFor(type);
+        }
+    }
+
+    private JsonEventCodec() {
+    }
+
+    public static byte[] encode(Object event) {
+        try {
+            return writerFor(event.getClass()).writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to encode " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    public static <T> T decode(byte[] data, Class<T> type) {
+        try {
+            return readerFor(type).readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to decode " + type.getSimpleName(), e);
+        }
+    }
+
+    private static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+    }
+
+    private static ObjectReader readerFor(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+}
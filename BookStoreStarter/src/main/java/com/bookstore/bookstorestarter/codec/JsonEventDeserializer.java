@@ -0,0 +1,30 @@
+package com.bookstore.bookstorestarter.codec;
+
+import com.bookstore.bookstorestarter.config.KafkaTopics;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.dtos.PublishEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+// the event type is fixed per topic, so the payload never needs to name its own class
+public class JsonEventDeserializer implements Deserializer<Object> {
+
+    static final Map<String, Class<?>> TOPIC_TYPES = Map.of(
+            KafkaTopics.BOOK_PUBLISHED, PublishEvent.class,
+            KafkaTopics.USER_BORROWED_BOOK, BorrowAndReturnEvent.class,
+            KafkaTopics.USER_RETURNED_BOOK, BorrowAndReturnEvent.class);
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Class<?> type = TOPIC_TYPES.get(topic);
+        if (type == null) {
+            throw new SerializationException("No event type registered for topic " + topic);
+        }
+        return JsonEventCodec.decode(data, type);
+    }
+}
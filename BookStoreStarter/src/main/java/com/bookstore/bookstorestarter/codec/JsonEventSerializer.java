@@ -0,0 +1,11 @@
+package com.bookstore.bookstorestarter.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+public class JsonEventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data == null ? null : JsonEventCodec.encode(data);
+    }
+}
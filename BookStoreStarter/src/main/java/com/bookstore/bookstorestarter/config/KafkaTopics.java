@@ -8,5 +8,13 @@ public class KafkaTopics {
 
     public static final String USER_RETURNED_BOOK = "user.returned.book";
 
+    public static final String AUTHOR_CHANGED = "author.changed";
+
+    public static final String BOOK_CHANGED = "book.changed";
+
+    public static final String AUTHORS_CREATED = "authors.created";
+
+    public static final String BOOKS_CREATED = "books.created";
+
     public KafkaTopics(){}
 }
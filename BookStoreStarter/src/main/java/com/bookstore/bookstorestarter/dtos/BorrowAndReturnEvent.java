@@ -3,8 +3,10 @@ package com.bookstore.bookstorestarter.dtos;
 import com.bookstore.bookstorestarter.enums.InventoryAction;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
-public class BorrowAndReturnEvent {
+public class BorrowAndReturnEvent implements DomainEvent {
 
     private Long bookId;
 
@@ -19,4 +21,8 @@ public class BorrowAndReturnEvent {
     private Integer quantity;
 
     private InventoryAction action;
+
+    private String eventId;
+
+    private LocalDateTime occurredAt;
 }
@@ -0,0 +1,15 @@
+package com.bookstore.bookstorestarter.dtos;
+
+import java.time.LocalDateTime;
+
+// consumers de-duplicate redeliveries by eventId
+public interface DomainEvent {
+
+    String getEventId();
+
+    void setEventId(String eventId);
+
+    LocalDateTime getOccurredAt();
+
+    void setOccurredAt(LocalDateTime occurredAt);
+}
@@ -2,9 +2,13 @@ package com.bookstore.bookstorestarter.dtos;
 
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
-public class PublishDto<M extends BaseBookDTO> {
+public class PublishDto<M extends BaseBookDTO> implements DomainEvent {
     private M bookDTO;
     private Integer publishedCopies;
     private Integer remainingCopies;
+    private String eventId;
+    private LocalDateTime occurredAt;
 }
@@ -2,9 +2,13 @@ package com.bookstore.bookstorestarter.dtos;
 
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
-public class PublishEvent {
+public class PublishEvent implements DomainEvent {
     private BaseBookDTO bookDTO;
     private Integer publishedCopies;
     private Integer remainingCopies;
+    private String eventId;
+    private LocalDateTime occurredAt;
 }
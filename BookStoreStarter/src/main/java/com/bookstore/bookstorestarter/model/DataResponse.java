@@ -14,4 +14,8 @@ public interface DataResponse<M> {
     String getMessage();
 
     void setMessage(String message);
+
+    String getNextCursor();
+
+    void setNextCursor(String nextCursor);
 }
@@ -0,0 +1,62 @@
+package com.bookstore.bookstorestarter.codec;
+
+import com.bookstore.bookstorestarter.dtos.PublishEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// run with: mvn test -Pbenchmark
+@Tag("benchmark")
+class EventCodecBenchmarkTest {
+
+    private static final int WARMUP = 50_000;
+
+    private static final int ITERATIONS = 200_000;
+
+    // the same setup the publish path uses today
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void compareWithJackson() throws Exception {
+        PublishEvent event = EventCodecTest.publishEvent();
+
+        byte[] binary = EventCodec.encode(event);
+        byte[] json = objectMapper.writeValueAsBytes(event);
+        assertEquals(event, EventCodec.decodePublishEvent(binary));
+        assertEquals(event, objectMapper.readValue(json, PublishEvent.class));
+
+        for (int i = 0; i < WARMUP; i++) {
+            EventCodec.decodePublishEvent(EventCodec.encode(event));
+            objectMapper.readValue(objectMapper.writeValueAsBytes(event), PublishEvent.class);
+        }
+
+        long binaryEncode = time(() -> EventCodec.encode(event));
+        long binaryDecode = time(() -> EventCodec.decodePublishEvent(binary));
+        long jsonEncode = time(() -> objectMapper.writeValueAsBytes(event));
+        long jsonDecode = time(() -> objectMapper.readValue(json, PublishEvent.class));
+
+        System.out.printf("publish event: binary %d bytes, encode %d ns, decode %d ns%n",
+                binary.length, binaryEncode, binaryDecode);
+        System.out.printf("publish event: jackson %d bytes, encode %d ns, decode %d ns%n",
+                json.length, jsonEncode, jsonDecode);
+
+        assertTrue(binary.length * 2 < json.length);
+    }
+
+    private static long time(ThrowingRunnable task) throws Exception {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - startedAt) / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
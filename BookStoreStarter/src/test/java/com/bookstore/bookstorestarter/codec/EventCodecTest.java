@@ -0,0 +1,138 @@
+package com.bookstore.bookstorestarter.codec;
+
+import com.bookstore.bookstorestarter.dtos.BaseBookDTO;
+import com.bookstore.bookstorestarter.dtos.BorrowAndReturnEvent;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+import com.bookstore.bookstorestarter.dtos.PublishEvent;
+import com.bookstore.bookstorestarter.enums.Flag;
+import com.bookstore.bookstorestarter.enums.InventoryAction;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventCodecTest {
+
+    @Test
+    void publishEvent_roundTrips() {
+        PublishEvent event = publishEvent();
+
+        PublishEvent decoded = EventCodec.decodePublishEvent(EventCodec.encode(event));
+
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void publishDto_isEncodedAsPublishEvent() {
+        PublishEvent event = publishEvent();
+        PublishDto<BaseBookDTO> publishDto = new PublishDto<>();
+        publishDto.setBookDTO(event.getBookDTO());
+        publishDto.setPublishedCopies(event.getPublishedCopies());
+        publishDto.setRemainingCopies(event.getRemainingCopies());
+        publishDto.setEventId(event.getEventId());
+        publishDto.setOccurredAt(event.getOccurredAt());
+
+        assertArrayEquals(EventCodec.encode(event), EventCodec.encode(publishDto));
+    }
+
+    @Test
+    void borrowAndReturnEvent_roundTripsThroughKafkaSerde() {
+        BorrowAndReturnEvent event = new BorrowAndReturnEvent();
+        event.setBookId(1L);
+        event.setStoreId(2L);
+        event.setInventoryId(3L);
+        event.setUserId(4L);
+        event.setQuantity(-2);
+        event.setReason("Damaged on return");
+        event.setAction(InventoryAction.RETURNED);
+        event.setEventId("5f0c9a52-8a47-4c1e-9b52-2f6b0e7e3d11");
+        event.setOccurredAt(LocalDateTime.of(2025, 6, 3, 8, 0, 1, 500_000_000));
+
+        byte[] bytes = new EventSerializer().serialize("user.returned.book", event);
+        Object decoded = new EventDeserializer().deserialize("user.returned.book", bytes);
+
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void nullFields_areOmitted() {
+        PublishEvent event = new PublishEvent();
+        event.setPublishedCopies(5);
+
+        byte[] bytes = EventCodec.encode(event);
+        PublishEvent decoded = EventCodec.decodePublishEvent(bytes);
+
+        // version, type, length, field mask, one varint
+        assertEquals(5, bytes.length);
+        assertNull(decoded.getBookDTO());
+        assertEquals(5, decoded.getPublishedCopies());
+    }
+
+    @Test
+    void decode_skipsFieldsFromANewerWriter() {
+        BorrowAndReturnEvent event = new BorrowAndReturnEvent();
+        event.setBookId(9L);
+        event.setQuantity(1);
+        byte[] bytes = EventCodec.encode(event);
+
+        // append field 9 as a newer writer would: set its presence bit and add its bytes to the struct
+        byte[] newer = Arrays.copyOf(bytes, bytes.length + 2);
+        newer[2] = (byte) (bytes[2] + 2);
+        newer[3] = (byte) (bytes[3] | 0x80);
+        System.arraycopy(bytes, 4, newer, 5, bytes.length - 4);
+        newer[4] = 0x04;
+        newer[newer.length - 1] = 0x2A;
+
+        BorrowAndReturnEvent decoded = EventCodec.decodeBorrowAndReturnEvent(newer);
+
+        assertEquals(9L, decoded.getBookId());
+        assertEquals(1, decoded.getQuantity());
+    }
+
+    @Test
+    void decode_rejectsUnknownSchemaVersion() {
+        byte[] bytes = EventCodec.encode(publishEvent());
+        bytes[0] = (byte) (EventCodec.SCHEMA_VERSION + 1);
+
+        assertThrows(SerializationException.class, () -> EventCodec.decode(bytes));
+    }
+
+    @Test
+    void decode_rejectsTruncatedInput() {
+        byte[] bytes = EventCodec.encode(publishEvent());
+
+        assertThrows(SerializationException.class, () -> EventCodec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    static PublishEvent publishEvent() {
+        BaseBookDTO book = new BaseBookDTO();
+        book.setId(123456L);
+        book.setFlag(Flag.ENABLED);
+        book.setCreatedBy("admin");
+        book.setCreatedDate(LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_456_000));
+        book.setLastModifiedBy("editor");
+        book.setLastModifiedDate(LocalDateTime.of(2025, 6, 2, 17, 5));
+        book.setTitle("The Pragmatic Bookseller");
+        book.setSynopsis("A short story about stock levels.");
+        book.setPublishedAt(LocalDateTime.of(2025, 6, 3, 8, 0));
+        book.setIsbn("978-3-16-148410-0");
+        book.setEdition("2nd");
+        book.setTotalCopies(480);
+        book.setSuggestedRetailPrice(new BigDecimal("24.99"));
+
+        PublishEvent event = new PublishEvent();
+        event.setBookDTO(book);
+        event.setPublishedCopies(20);
+        event.setRemainingCopies(460);
+        event.setEventId("0b7e6a1c-3f9d-4d2a-8e5b-6c1f2a9d4e70");
+        event.setOccurredAt(LocalDateTime.of(2025, 6, 3, 8, 0, 0, 250_000_000));
+        return event;
+    }
+}
@@ -0,0 +1,65 @@
+package com.bookstore.bookstorestarter.codec;
+
+import com.bookstore.bookstorestarter.config.KafkaTopics;
+import com.bookstore.bookstorestarter.dtos.BaseBookDTO;
+import com.bookstore.bookstorestarter.dtos.PublishDto;
+import com.bookstore.bookstorestarter.dtos.PublishEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonEventCodecTest {
+
+    @Test
+    void publishEvent_roundTripsThroughKafkaSerde() {
+        PublishEvent event = EventCodecTest.publishEvent();
+
+        byte[] bytes = new JsonEventSerializer().serialize(KafkaTopics.BOOK_PUBLISHED, event);
+        Object decoded = new JsonEventDeserializer().deserialize(KafkaTopics.BOOK_PUBLISHED, bytes);
+
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void publishDto_isReadAsPublishEvent() {
+        PublishEvent event = EventCodecTest.publishEvent();
+        PublishDto<ExtendedBookDTO> publishDto = new PublishDto<>();
+        ExtendedBookDTO book = new ExtendedBookDTO();
+        book.setId(event.getBookDTO().getId());
+        book.setTitle(event.getBookDTO().getTitle());
+        book.setGenre("FICTION");
+        publishDto.setBookDTO(book);
+        publishDto.setPublishedCopies(3);
+
+        PublishEvent decoded = JsonEventCodec.decode(JsonEventCodec.encode(publishDto), PublishEvent.class);
+
+        assertEquals(event.getBookDTO().getId(), decoded.getBookDTO().getId());
+        assertEquals(event.getBookDTO().getTitle(), decoded.getBookDTO().getTitle());
+        assertEquals(3, decoded.getPublishedCopies());
+    }
+
+    @Test
+    void deserialize_rejectsUnknownTopicsAndMalformedPayloads() {
+        JsonEventDeserializer deserializer = new JsonEventDeserializer();
+        byte[] malformed = "{not json".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("unknown.topic", new byte[0]));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(KafkaTopics.BOOK_PUBLISHED, malformed));
+    }
+
+    static class ExtendedBookDTO extends BaseBookDTO {
+        private String genre;
+
+        public String getGenre() {
+            return genre;
+        }
+
+        public void setGenre(String genre) {
+            this.genre = genre;
+        }
+    }
+}